@@ -0,0 +1,128 @@
+package com.programmerdan.ai.maze;
+
+import java.awt.BorderLayout;
+import javax.swing.JFrame;
+
+/**
+ * Shows the brain of one bug at a time in a debug window. The window and its {@link NeuralNetworkDisplay} are built
+ *   the first time a bug is inspected and then reused for every bug after, so bugs themselves carry no Swing objects.
+ *
+ * The display never reads the live brain. The thread that steps the bugs calls {@link sample()} after each step, and
+ *   at most every so often that copies the inspected brain into an immutable snapshot and hands it over; the
+ *   display then redraws only what changed. Between samples, and with nothing inspected, sampling costs a clock read.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link NeuralNetworkDisplay}
+ */
+public class BrainInspector {
+
+	/**
+	 * Default time between snapshots, in milliseconds.
+	 */
+	public static final int DEFAULT_INTERVAL = 100;
+
+	private JFrame frame;
+	private NeuralNetworkDisplay display;
+
+	private Bug inspected;
+
+	private final long interval;
+	private long lastSample = 0L;
+	private boolean due = false;
+
+	/**
+	 * Builds an inspector that samples at most every {@link DEFAULT_INTERVAL} ms.
+	 */
+	public BrainInspector() {
+		this(DEFAULT_INTERVAL);
+	}
+
+	/**
+	 * @param	interval	Least time between snapshots, in milliseconds.
+	 */
+	public BrainInspector(int interval) {
+		this.interval = interval * 1000000L;
+	}
+
+	/**
+	 * Shows a bug's brain, or hides it if that bug is already shown. The brain is drawn from the next sample on.
+	 *
+	 * @param	bug		The bug.
+	 */
+	public synchronized void toggle(Bug bug) {
+		if (bug == inspected) {
+			hide();
+			return;
+		}
+
+		if (frame == null) {
+			display = new NeuralNetworkDisplay();
+
+			frame = new JFrame("Bug Debug");
+			frame.add(display, BorderLayout.CENTER);
+			frame.setSize(1250,750);
+		}
+
+		inspected = bug;
+		due = true;
+		display.setActive(true);
+		frame.setVisible(true);
+	}
+
+	/**
+	 * Snapshots the inspected bug's brain for the display, if one is inspected and the last snapshot is old enough.
+	 *   Call from the thread that steps the bugs, between steps.
+	 */
+	public synchronized void sample() {
+		if (inspected == null) {
+			return;
+		}
+
+		long now = System.nanoTime();
+
+		if (!due && now - lastSample < interval) {
+			return;
+		}
+
+		display.show(new NeuralNetworkDisplay.Snapshot(inspected.getBrain()));
+
+		lastSample = now;
+		due = false;
+	}
+
+	/**
+	 * Hides the window, if shown. It is kept for the next bug inspected.
+	 */
+	public synchronized void hide() {
+		if (inspected == null) {
+			return;
+		}
+
+		display.setActive(false);
+		frame.setVisible(false);
+		inspected = null;
+	}
+
+	/**
+	 * @return	the bug shown, or null if none.
+	 */
+	public synchronized Bug getInspected() {
+		return inspected;
+	}
+
+	/**
+	 * Tears down the window. Inspecting another bug builds it again.
+	 */
+	public synchronized void close() {
+		if (frame == null) {
+			return;
+		}
+
+		frame.dispose();
+
+		frame = null;
+		display = null;
+		inspected = null;
+	}
+}
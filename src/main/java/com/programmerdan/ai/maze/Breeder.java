@@ -0,0 +1,238 @@
+package com.programmerdan.ai.maze;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Breeds the next generation's genomes from this one's and its fitnesses. Each child is a random keeper, a
+ *   crossover of two parents or a clone of one, possibly mutated; how parents are picked is a {@link Selection.Mode}.
+ *
+ * Every random choice for child a of generation g + 1 comes from its own {@link Rng} stream of the run's seed,
+ *   stream a of stream g + 1 (see {@link childRng(long, int, int)}), so a generation's children are the same however
+ *   many threads breed them, in whatever order.
+ *
+ * Breeding touches nothing but its arguments, so it can run without a {@link Simulation}.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+public class Breeder {
+
+	private final double crossover;
+	private final int crosstime;
+	private final double mutation;
+	private final double randomPreserve;
+
+	private Selection.Mode selection = Selection.Mode.TRUNCATION;
+	private int tournamentSize = 3;
+	private int block = 256;
+
+	/**
+	 * Builds a breeder.
+	 *
+	 * @param	crossover		Share of children bred by crossover (less the random keepers); the rest are clones.
+	 * @param	crosstime		Crossover points per crossover.
+	 * @param	mutation		Chance a child is mutated.
+	 * @param	randomPreserve	Share of children that are clones of a bug picked without respect to fitness.
+	 */
+	public Breeder(double crossover, int crosstime, double mutation, double randomPreserve) {
+		this.crossover = crossover;
+		this.crosstime = crosstime;
+		this.mutation = mutation;
+		this.randomPreserve = randomPreserve;
+	}
+
+	/**
+	 * Chooses how parents are picked.
+	 *
+	 * @param	mode		The selection.
+	 * @param	tournament	TOURNAMENT: bugs drawn per pick.
+	 */
+	public void setSelection(Selection.Mode mode, int tournament) {
+		selection = mode;
+		tournamentSize = tournament;
+	}
+
+	/**
+	 * @param	block	Children bred per task when breeding on a pool.
+	 */
+	public void setBlock(int block) {
+		this.block = Math.max(1, block);
+	}
+
+	/**
+	 * The random stream child a of generation + 1 is bred from: stream a of stream generation + 1 of the run's seed.
+	 *   Stream 0 is left for the first generation.
+	 *
+	 * @param	seed		The run's seed.
+	 * @param	generation	The parents' generation.
+	 * @param	a			The child.
+	 * @return				The child's generator.
+	 */
+	public static Rng childRng(long seed, int generation, int a) {
+		return new Rng(seed).stream(generation + 1).stream(a);
+	}
+
+	/**
+	 * Breeds every child of the next generation, in blocks on a pool if one is given.
+	 *
+	 * @param	seed		The run's seed.
+	 * @param	generation	The parents' generation.
+	 * @param	parents		The parents' genomes.
+	 * @param	fitness		The parents' fitnesses.
+	 * @param	parentpool	How many of the fittest parents may breed; ignored by TOURNAMENT, which draws from all.
+	 * @param	next		Filled with the children's genomes; as long as the generation to breed.
+	 * @param	lineage		Filled with how each child was bred; as long as next.
+	 * @param	pool		Where to breed blocks of children, or null to breed them all here.
+	 * @throws	RuntimeException if breeding fails on the pool.
+	 */
+	public void breed(final long seed, final int generation, final Chromosome[] parents, final double[] fitness,
+			int parentpool, final Chromosome[] next, final Lineage[] lineage, ExecutorService pool) {
+		// the fittest, best first; tournaments need no pool.
+		final int[] spawn = (selection == Selection.Mode.TOURNAMENT) ? null : Selection.top(fitness, parentpool);
+
+		if (pool == null || next.length <= block) {
+			breed(seed, generation, 0, next.length, spawn, parents, fitness, next, lineage);
+			return;
+		}
+
+		List<Future<?>> blocks = new ArrayList<Future<?>>();
+
+		for (int from = 0; from < next.length; from += block) {
+			final int lo = from;
+			final int hi = Math.min(next.length, from + block);
+
+			blocks.add(pool.submit(new Runnable() {
+						public void run() {
+							breed(seed, generation, lo, hi, spawn, parents, fitness, next, lineage);
+						}
+					}));
+		}
+
+		boolean interrupted = false;
+
+		for (Future<?> f : blocks) {
+			while (true) {
+				try {
+					f.get();
+					break;
+				} catch (InterruptedException ie) {
+					interrupted = true;
+				} catch (ExecutionException ee) {
+					throw new RuntimeException("Failed to breed generation " + (generation + 1), ee.getCause());
+				}
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Breeds children [from, to): picks whether each is a random keeper, a crossover or a clone, picks its parents,
+	 *   and breeds it. Touches nothing shared but its own entries of next and lineage.
+	 */
+	private void breed(long seed, int generation, int from, int to, int[] spawn, Chromosome[] parents,
+			double[] fitness, Chromosome[] next, Lineage[] lineage) {
+		int parentpool = (spawn != null) ? spawn.length : parents.length;
+
+		for (int a = from; a < to; a++) {
+			Rng rand = childRng(seed, generation, a);
+
+			double cCross = rand.nextDouble(); // Perform crossover?
+
+			if (cCross < randomPreserve) { // pick a random dude to save without respect to fitness
+				int x1 = (int) (rand.nextDouble() * parents.length);
+
+				lineage[a] = new Lineage(x1);
+				next[a] = cloneDNA(parents[x1], lineage[a], rand);
+			} else if (cCross < crossover && parentpool > 1 && selection == Selection.Mode.TRUNCATION) {
+				// perform crossover. Pick two at random.
+				int x1 = 0;
+				int x2 = 1;
+
+				if (parentpool > 2) {
+					x1 = (int) (rand.nextDouble() * parentpool);
+					while (x1 == x2) {
+						x2 = (int) (rand.nextDouble() * parentpool);
+					}
+				}
+
+				lineage[a] = new Lineage(spawn[x1], spawn[x2]);
+				next[a] = crossDNA(parents[spawn[x1]], parents[spawn[x2]], lineage[a], rand);
+			} else if (cCross < crossover && parentpool > 1) { // likewise, by rank or tournament.
+				int p1 = pickParent(spawn, fitness, rand);
+				int p2 = pickParent(spawn, fitness, rand);
+
+				for (int t = 0; p1 == p2 && t < 8; t++) { // a dominant bug may win every pick; then it clones.
+					p2 = pickParent(spawn, fitness, rand);
+				}
+
+				lineage[a] = (p1 == p2) ? new Lineage(p1) : new Lineage(p1, p2);
+				next[a] = (p1 == p2) ? cloneDNA(parents[p1], lineage[a], rand)
+						: crossDNA(parents[p1], parents[p2], lineage[a], rand);
+			} else { // clone
+				int x1 = pickParent(spawn, fitness, rand);
+
+				lineage[a] = new Lineage(x1);
+				next[a] = cloneDNA(parents[x1], lineage[a], rand);
+			}
+		}
+	}
+
+	/**
+	 * Picks a parent, as a bug index: from the parent pool, fittest first, or by tournament over every bug.
+	 */
+	private int pickParent(int[] spawn, double[] fitness, Random rand) {
+		switch (selection) {
+			case RANK:
+				return spawn[Selection.rank(spawn.length, rand.nextDouble())];
+			case TOURNAMENT:
+				return Selection.tournament(fitness, tournamentSize, rand);
+			default:
+				return spawn[(int) (rand.nextDouble() * spawn.length)];
+		}
+	}
+
+	/**
+	 * Breeds a genome by crossover of two others, possibly mutated.
+	 *
+	 * @param	x1		The first parent.
+	 * @param	x2		The second parent.
+	 * @param	record	Notes the crossover and any mutation; may be null.
+	 * @param	rand	Where every random choice comes from.
+	 * @return			The child.
+	 */
+	public Chromosome crossDNA(Chromosome x1, Chromosome x2, Lineage record, Random rand) {
+		Chromosome newDNA = x1.crossover(x2, crosstime, record, rand); // crossover.
+
+		if (rand.nextDouble() < mutation) {
+			newDNA = newDNA.mutate(record, rand); // possibly apply mutation.
+		}
+
+		return newDNA;
+	}
+
+	/**
+	 * Breeds a genome as a copy of another, possibly mutated.
+	 *
+	 * @param	x1		The parent.
+	 * @param	record	Notes any mutation; may be null.
+	 * @param	rand	Where every random choice comes from.
+	 * @return			The child.
+	 */
+	public Chromosome cloneDNA(Chromosome x1, Lineage record, Random rand) {
+		Chromosome newDNA = x1.clone();
+
+		if (rand.nextDouble() < mutation) {
+			newDNA = newDNA.mutate(record, rand); // possibly apply mutation.
+		}
+
+		return newDNA;
+	}
+}
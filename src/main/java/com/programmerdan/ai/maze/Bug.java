@@ -1,6 +1,4 @@
 package com.programmerdan.ai.maze;
-import javax.swing.JFrame;
-import java.awt.BorderLayout;
 
 /**
  * Basic Bug, which extends {@link Position}. It has location, direction, success, failure, etc.
@@ -20,6 +18,10 @@ import java.awt.BorderLayout;
  *    Initial release, with a NN built from a Chromosome, expecting several inputs and ouputs.
  * @version 1.01 Christmas 19, 2013
  *    Fixing up comments, general class cleanup.
+ * @version 1.02 October 19, 2026
+ *    Motion and fitness state export and import, for checkpoints.
+ * @version 1.03 October 19, 2026
+ *    Debug display moved out to a shared, lazily built {@link BrainInspector}.
  */
 public class Bug extends Position
 {
@@ -32,6 +34,15 @@ public class Bug extends Position
 	 */
 	private double velocity; // motion
 
+	/**
+	 * Cosine of the current direction, kept so motion and sensing share one trig call per step.
+	 */
+	private double dirCos;
+	/**
+	 * Sine of the current direction.
+	 */
+	private double dirSin;
+
 	/**
 	 * Rotation multiplier
 	 */
@@ -144,57 +155,14 @@ public class Bug extends Position
 	private NeuralNetwork brain;
 
 	/**
-	 * Debug JPanel for this bug
+	 * This bug's own eyes, if it doesn't use the simulation's.
 	 */
-	private NeuralNetworkDisplay brainDebug;
+	private SensorModel sensors = null;
 
 	/**
-	 * Debug JFrame
+	 * The walls near this bug, kept up to date as it moves so sensing and motion only test nearby walls.
 	 */
-	private JFrame brainDebugFrame;
-
-	/**
-	 * Debug Thread
-	 */
-	private Thread brainDebugThread;
-
-	/**
-	 * denug state
-	 */
-	private boolean debugState = false;
-
-	/**
-	 * Activate or deactivate the debug visualization for this bug
-	 */
-	public void toggleDebug() {
-		if (brainDebugFrame == null) {
-			brainDebugFrame = new JFrame("Bug Debug");
-			brainDebugFrame.add(brainDebug, BorderLayout.CENTER);
-
-			brainDebugFrame.setSize(1250,750);
-
-			brainDebugFrame.setVisible(false);
-			brainDebugThread.start();
-		}
-
-		if (debugState) {
-			brainDebugFrame.setVisible(false);
-		} else {
-			brainDebugFrame.setVisible(true);
-		}
-		brainDebug.toggleActive();
-		debugState = !debugState;
-	}
-
-	/**
-	 * Tear down debug thread.
-	 */
-	public void endDebug() {
-		brainDebug.finished();
-		if (brainDebugFrame != null) {
-			brainDebugFrame.dispose();
-		}
-	}
+	private WallCandidates nearWalls = new WallCandidates();
 
 	/**
 	 * Estimates the size of the Chromosome needed to set up this bug based on the number of
@@ -249,6 +217,7 @@ public class Bug extends Position
 
 		direction = dir;
 		velocity = vel;
+		turned();
 
 		rotateMult = rotate;
 		speedMult = speed;
@@ -279,9 +248,6 @@ public class Bug extends Position
 		else
 		{
 			build();
-
-			brainDebug = new NeuralNetworkDisplay(this.brain);
-			brainDebugThread = new Thread(brainDebug);
 		}
 	}
 
@@ -431,6 +397,16 @@ public class Bug extends Position
 		return brain;
 	}
 
+	/**
+	 * Returns the neighbor list of walls near this bug, for the maze it is running.
+	 *
+	 * @return	this bug's {@link WallCandidates}.
+	 */
+	public WallCandidates getNearWalls()
+	{
+		return nearWalls;
+	}
+
 	/**
 	 * Sets the X coord of this bug.
 	 *
@@ -480,6 +456,56 @@ public class Bug extends Position
 	public void setDir(double _dir)
 	{
 		direction = _dir;
+		turned();
+	}
+
+	/**
+	 * Refreshes the cached sine and cosine of the direction; call whenever the direction changes.
+	 */
+	private void turned()
+	{
+		dirCos = Math.cos(Math.toRadians(direction));
+		dirSin = Math.sin(Math.toRadians(direction));
+	}
+
+	/**
+	 * Cosine of the current direction.
+	 *
+	 * @return	cos of the direction.
+	 */
+	public double getDirCos()
+	{
+		return dirCos;
+	}
+
+	/**
+	 * Sine of the current direction.
+	 *
+	 * @return	sin of the direction.
+	 */
+	public double getDirSin()
+	{
+		return dirSin;
+	}
+
+	/**
+	 * Gets the eyes of this bug, if it has its own layout.
+	 *
+	 * @return	this bug's {@link SensorModel}, or null to use the simulation's.
+	 */
+	public SensorModel getSensors()
+	{
+		return sensors;
+	}
+
+	/**
+	 * Gives this bug its own eye layout, e.g. one built from its genome.
+	 *
+	 * @param	_sensors	the {@link SensorModel} to use, or null to use the simulation's.
+	 */
+	public void setSensors(SensorModel _sensors)
+	{
+		sensors = _sensors;
 	}
 
 	/**
@@ -525,8 +551,18 @@ public class Bug extends Position
 	{
 		// directed velocity
 
-		double _tx = velocity * speedMult * Math.cos(Math.toRadians(direction * rotateMult) );
-		double _ty = velocity * speedMult * Math.sin(Math.toRadians(direction * rotateMult) );
+		double _tx, _ty;
+
+		if (rotateMult == 1.0)
+		{
+			_tx = velocity * speedMult * dirCos;
+			_ty = velocity * speedMult * dirSin;
+		}
+		else
+		{
+			_tx = velocity * speedMult * Math.cos(Math.toRadians(direction * rotateMult) );
+			_ty = velocity * speedMult * Math.sin(Math.toRadians(direction * rotateMult) );
+		}
 
 		double[] ret = new double[] {_tx, _ty};
 
@@ -562,6 +598,17 @@ public class Bug extends Position
 		}
 	}
 
+	/**
+	 * Applies a full set of input values at once, e.g. a row of a batch sensing matrix.
+	 *   They are stored in the input store and reach the brain on the next {@link step(SimulationMap)}.
+	 *
+	 * @param	_vals	The input values; the first {@link INPUTS()} entries are used.
+	 */
+	public void setInputs(double[] _vals)
+	{
+		System.arraycopy(_vals, 0, inputStore, 0, INPUTS);
+	}
+
 	/**
 	 * Get the most recent input value of a specific input index.
 	 *
@@ -682,6 +729,69 @@ public class Bug extends Position
 		return failure;
 	}
 
+	/**
+	 * The number of values in this bug's state; see {@link getState()}.
+	 */
+	private int stateSize()
+	{
+		return 10 + INPUTS + OUTPUTS;
+	}
+
+	/**
+	 * Captures everything about this bug that changes as it runs, except its brain (see
+	 *   {@link NeuralNetwork#getState()}): position, direction, velocity, successes, failures, fitness, best fitness,
+	 *   the last true vector, then the input and output stores.
+	 *
+	 * @return	a new array holding this bug's state.
+	 */
+	public double[] getState()
+	{
+		double[] state = new double[stateSize()];
+
+		state[0] = x;
+		state[1] = y;
+		state[2] = direction;
+		state[3] = velocity;
+		state[4] = success;
+		state[5] = failure;
+		state[6] = fitness;
+		state[7] = maxfitness;
+		state[8] = (trueVector == null) ? Double.NaN : trueVector[0]; // NaN: has not stepped yet.
+		state[9] = (trueVector == null) ? Double.NaN : trueVector[1];
+
+		System.arraycopy(inputStore, 0, state, 10, INPUTS);
+		System.arraycopy(outputStore, 0, state, 10 + INPUTS, OUTPUTS);
+
+		return state;
+	}
+
+	/**
+	 * Restores state captured by {@link getState()} from a bug built the same way.
+	 *
+	 * @param	state	The saved state.
+	 * @throws	IllegalArgumentException if the state does not fit this bug.
+	 */
+	public void setState(double[] state)
+	{
+		if (state.length != stateSize())
+			throw new IllegalArgumentException("Bug state has " + state.length + " values, expected " + stateSize());
+
+		x = state[0];
+		y = state[1];
+		direction = state[2];
+		velocity = state[3];
+		success = (int) state[4];
+		failure = (int) state[5];
+		fitness = state[6];
+		maxfitness = state[7];
+		trueVector = Double.isNaN(state[8]) ? null : new double[] {state[8], state[9]};
+
+		System.arraycopy(state, 10, inputStore, 0, INPUTS);
+		System.arraycopy(state, 10 + INPUTS, outputStore, 0, OUTPUTS);
+
+		turned();
+	}
+
 	/**
 	 * Manipulator for Gene values, which are always in the range [0.0, 1.0).
 	 * This function fits a gene value into the range [-0.5, 0.5).
@@ -772,9 +882,11 @@ public class Bug extends Position
 		if (direction < 0)
 			direction += 360; // normalize direction between 0 and 360.
 
+		turned();
+
 		double[] temp = getVector();
 
-		double[] temp2 = sm.fixMoveV(x, y, temp);
+		double[] temp2 = sm.fixMoveV(x, y, temp, nearWalls);
 
 		trueVector = new double[] { temp2[0] - x, temp2[1] - y };
 
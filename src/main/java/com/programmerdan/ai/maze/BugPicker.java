@@ -0,0 +1,138 @@
+package com.programmerdan.ai.maze;
+
+/**
+ * Finds the bug drawn nearest a point, for picking bugs with the mouse. Built from a {@link RenderFrame}, so it
+ *   finds the bugs as they were drawn: each maze's entries are bucketed into a grid over the maze, sized so a cell
+ *   holds about one bug, and a pick only looks at the cells within its radius.
+ *
+ * Immutable once built; it can be built on the simulation thread and used from the event thread.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link RenderFrame}
+ */
+public final class BugPicker {
+
+	private static final int MAX_GRID = 256;
+
+	private final RenderFrame frame;
+
+	/**
+	 * Per maze: cells per side; where each cell's entries start in cellEntry, with one extra at the end; and the
+	 *   frame's entry indexes, cell by cell.
+	 */
+	private final int[] grid;
+	private final int[][] cellStart;
+	private final int[][] cellEntry;
+
+	/**
+	 * Indexes a frame's bugs.
+	 *
+	 * @param	frame	The frame.
+	 */
+	public BugPicker(RenderFrame frame) {
+		this.frame = frame;
+
+		int mazes = frame.actors.length;
+
+		grid = new int[mazes];
+		cellStart = new int[mazes][];
+		cellEntry = new int[mazes][];
+
+		int[] perMaze = new int[mazes];
+		for (int k = 0; k < frame.count; k++) {
+			perMaze[frame.maze[k]]++;
+		}
+
+		for (int e = 0; e < mazes; e++) {
+			int g = Math.max(1, Math.min(MAX_GRID, (int) Math.ceil(Math.sqrt(perMaze[e]))));
+
+			grid[e] = g;
+			cellStart[e] = new int[g * g + 1];
+			cellEntry[e] = new int[perMaze[e]];
+		}
+
+		// counting sort of entries into cells: count, then running totals, then place.
+		for (int k = 0; k < frame.count; k++) {
+			cellStart[frame.maze[k]][cellOf(frame.maze[k], frame.x[k], frame.y[k]) + 1]++;
+		}
+
+		for (int e = 0; e < mazes; e++) {
+			int[] start = cellStart[e];
+
+			for (int c = 1; c < start.length; c++) {
+				start[c] += start[c - 1];
+			}
+		}
+
+		int[][] fill = new int[mazes][];
+		for (int e = 0; e < mazes; e++) {
+			fill[e] = cellStart[e].clone();
+		}
+
+		for (int k = 0; k < frame.count; k++) {
+			int e = frame.maze[k];
+
+			cellEntry[e][fill[e][cellOf(e, frame.x[k], frame.y[k])]++] = k;
+		}
+	}
+
+	private int cellOf(int maze, double x, double y) {
+		double[] ext = frame.extent[maze];
+		int g = grid[maze];
+
+		return RenderFrame.cell(ext[2], ext[3], y, g) * g + RenderFrame.cell(ext[0], ext[1], x, g);
+	}
+
+	/**
+	 * @return	the frame indexed.
+	 */
+	public RenderFrame getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Finds the bug nearest a point in a maze.
+	 *
+	 * @param	maze	The maze.
+	 * @param	x		X coord, in maze units.
+	 * @param	y		Y coord, in maze units.
+	 * @param	radius	How far to look, in maze units.
+	 * @return			The index of the nearest bug within the radius, or -1 if none is.
+	 */
+	public int nearest(int maze, double x, double y, double radius) {
+		double[] ext = frame.extent[maze];
+		int g = grid[maze];
+
+		int c0 = RenderFrame.cell(ext[0], ext[1], x - radius, g);
+		int c1 = RenderFrame.cell(ext[0], ext[1], x + radius, g);
+		int r0 = RenderFrame.cell(ext[2], ext[3], y - radius, g);
+		int r1 = RenderFrame.cell(ext[2], ext[3], y + radius, g);
+
+		int[] start = cellStart[maze];
+		int[] entry = cellEntry[maze];
+
+		int best = -1;
+		double bestD = radius * radius;
+
+		for (int r = r0; r <= r1; r++) {
+			for (int c = c0; c <= c1; c++) {
+				int cell = r * g + c;
+
+				for (int i = start[cell]; i < start[cell + 1]; i++) {
+					int k = entry[i];
+					double dx = frame.x[k] - x;
+					double dy = frame.y[k] - y;
+					double d = dx * dx + dy * dy;
+
+					if (d <= bestD) {
+						bestD = d;
+						best = frame.bug[k];
+					}
+				}
+			}
+		}
+
+		return best;
+	}
+}
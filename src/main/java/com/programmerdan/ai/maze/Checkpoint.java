@@ -0,0 +1,347 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The in-flight state of a simulation part way through a generation, so a run can resume from the middle of a
+ *   generation instead of from its start. The generation's chromosomes are not included; they are in the
+ *   generation's save, and the bugs are rebuilt from them before this state is laid over the top.
+ *
+ * A checkpoint is taken on the simulation thread -- all arrays are private copies -- and can then be written from any
+ *   thread. Writing goes to a temporary file which is then moved over the old checkpoint, so a crash mid write leaves
+ *   the previous checkpoint in place.
+ *
+ * File Format (big endian):
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * int     generation
+ * int     steps taken so far this generation
+ * int     # mazes, then each title as in {@link GenerationFile}
+ * int     # bugs (population)
+ * per bug, per maze:
+ *   byte     1 if still running, 0 if done
+ *   double   path length travelled
+ *   int      # values, then double[] bug state, see {@link Bug#getState()}
+ *   int      # values, then double[] brain state, see {@link NeuralNetwork#getState()}; 0 values if not kept
+ * int     # real valued statistics, then each as double[mazes]
+ * int     # integer statistics, then each as long[mazes]
+ * </pre>
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link Simulation}
+ */
+public final class Checkpoint {
+
+	/**
+	 * Marks a checkpoint file; "GENC".
+	 */
+	public static final int MAGIC = 0x47454E43;
+	/**
+	 * Current format version.
+	 */
+	public static final short VERSION = 1;
+
+	private static final double[] NONE = new double[0];
+
+	/**
+	 * The generation being run.
+	 */
+	public final int generation;
+	/**
+	 * Steps taken so far this generation.
+	 */
+	public final int steps;
+	/**
+	 * Maze titles, in maze order.
+	 */
+	public final String[] titles;
+	/**
+	 * Number of bugs per maze.
+	 */
+	public final int population;
+
+	private final boolean[][] active;
+	private final double[][] pathLength;
+	private final double[][][] bugState;
+	private final double[][][] brainState;
+
+	private final double[][] realStats;
+	private final long[][] countStats;
+
+	/**
+	 * Starts a checkpoint; every bug is then recorded with {@link setBug(int, int, boolean, double, Bug, boolean)}.
+	 *
+	 * @param	generation	The generation being run.
+	 * @param	steps		Steps taken so far this generation.
+	 * @param	titles		Maze titles.
+	 * @param	population	Number of bugs per maze.
+	 * @param	real		Real valued per maze statistics, each with one entry per maze. Copied.
+	 * @param	count		Integer per maze statistics, each with one entry per maze. Copied.
+	 */
+	public Checkpoint(int generation, int steps, String[] titles, int population, double[][] real, long[][] count) {
+		this.generation = generation;
+		this.steps = steps;
+		this.titles = titles.clone();
+		this.population = population;
+
+		active = new boolean[population][titles.length];
+		pathLength = new double[population][titles.length];
+		bugState = new double[population][titles.length][];
+		brainState = new double[population][titles.length][];
+
+		realStats = new double[real.length][];
+		countStats = new long[count.length][];
+
+		for (int i = 0; i < real.length; i++) {
+			realStats[i] = real[i].clone();
+		}
+		for (int i = 0; i < count.length; i++) {
+			countStats[i] = count[i].clone();
+		}
+	}
+
+	private Checkpoint(int generation, int steps, String[] titles, int population, boolean[][] active,
+			double[][] pathLength, double[][][] bugState, double[][][] brainState, double[][] realStats,
+			long[][] countStats) {
+		this.generation = generation;
+		this.steps = steps;
+		this.titles = titles;
+		this.population = population;
+		this.active = active;
+		this.pathLength = pathLength;
+		this.bugState = bugState;
+		this.brainState = brainState;
+		this.realStats = realStats;
+		this.countStats = countStats;
+	}
+
+	/**
+	 * Records one bug.
+	 *
+	 * @param	bug			Which bug.
+	 * @param	maze		Which maze.
+	 * @param	running		True if the bug is still running the maze.
+	 * @param	travelled	The path length it has travelled.
+	 * @param	b			The bug.
+	 * @param	withBrain	True to keep the brain's state too; a bug that is done no longer uses its brain.
+	 */
+	public void setBug(int bug, int maze, boolean running, double travelled, Bug b, boolean withBrain) {
+		active[bug][maze] = running;
+		pathLength[bug][maze] = travelled;
+		bugState[bug][maze] = b.getState();
+		brainState[bug][maze] = withBrain ? b.getBrain().getState() : NONE;
+	}
+
+	/**
+	 * @param	bug		Which bug.
+	 * @param	maze	Which maze.
+	 * @return			true if the bug was still running the maze.
+	 */
+	public boolean isActive(int bug, int maze) {
+		return active[bug][maze];
+	}
+
+	/**
+	 * @param	bug		Which bug.
+	 * @param	maze	Which maze.
+	 * @return			the path length the bug had travelled.
+	 */
+	public double getPathLength(int bug, int maze) {
+		return pathLength[bug][maze];
+	}
+
+	/**
+	 * Lays a recorded bug's state over a freshly built one.
+	 *
+	 * @param	bug		Which bug.
+	 * @param	maze	Which maze.
+	 * @param	b		The bug, built from the same chromosome.
+	 * @throws	IllegalArgumentException if the state does not fit the bug.
+	 */
+	public void restoreBug(int bug, int maze, Bug b) {
+		b.setState(bugState[bug][maze]);
+
+		if (brainState[bug][maze].length > 0) {
+			b.getBrain().setState(brainState[bug][maze]);
+		}
+	}
+
+	/**
+	 * @return	the real valued statistics, as recorded.
+	 */
+	public double[][] getRealStatistics() {
+		return realStats;
+	}
+
+	/**
+	 * @return	the integer statistics, as recorded.
+	 */
+	public long[][] getCountStatistics() {
+		return countStats;
+	}
+
+	/**
+	 * Writes this checkpoint, replacing any checkpoint already in the file only once it is completely written.
+	 *
+	 * @param	fn	The file.
+	 * @throws	IOException if writing fails; the old file, if any, is left as it was.
+	 */
+	public void write(File fn) throws IOException {
+		File tmp = new File(fn.getPath() + ".tmp");
+
+		FileOutputStream fos = new FileOutputStream(tmp);
+
+		try {
+			DataOutputStream out = new DataOutputStream( new BufferedOutputStream( fos, 1 << 16 ) );
+			ByteBuffer scratch = ByteBuffer.allocate(1 << 16);
+
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(generation);
+			out.writeInt(steps);
+			GenerationFile.writeTitles(out, titles);
+			out.writeInt(population);
+
+			for (int i = 0; i < population; i++) {
+				for (int j = 0; j < titles.length; j++) {
+					out.writeByte(active[i][j] ? 1 : 0);
+					out.writeDouble(pathLength[i][j]);
+					writeDoubles(out, scratch, bugState[i][j]);
+					writeDoubles(out, scratch, brainState[i][j]);
+				}
+			}
+
+			out.writeInt(realStats.length);
+			for (double[] stat : realStats) {
+				for (double v : stat) {
+					out.writeDouble(v);
+				}
+			}
+
+			out.writeInt(countStats.length);
+			for (long[] stat : countStats) {
+				for (long v : stat) {
+					out.writeLong(v);
+				}
+			}
+
+			out.flush();
+			fos.getFD().sync();
+		} finally {
+			fos.close();
+		}
+
+		Files.move(tmp.toPath(), fn.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Writes a count, then the values, in bulk through a scratch buffer.
+	 */
+	private static void writeDoubles(DataOutputStream out, ByteBuffer scratch, double[] values) throws IOException {
+		out.writeInt(values.length);
+
+		int chunk = scratch.capacity() / 8;
+
+		for (int off = 0; off < values.length; off += chunk) {
+			int n = Math.min(chunk, values.length - off);
+
+			scratch.clear();
+			scratch.asDoubleBuffer().put(values, off, n);
+			out.write(scratch.array(), 0, n * 8);
+		}
+	}
+
+	/**
+	 * Reads a checkpoint.
+	 *
+	 * @param	fn	The file.
+	 * @return		The checkpoint.
+	 * @throws	IOException if the file cannot be read or is not a checkpoint this code understands.
+	 */
+	public static Checkpoint read(File fn) throws IOException {
+		FileInputStream fis = new FileInputStream(fn);
+
+		try {
+			FileChannel ch = fis.getChannel();
+			MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+
+			return read(buf);
+		} finally {
+			fis.close();
+		}
+	}
+
+	private static Checkpoint read(ByteBuffer buf) throws IOException {
+		try {
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Not a checkpoint.");
+			}
+
+			short version = buf.getShort();
+
+			if (version != VERSION) {
+				throw new IOException("Unsupported checkpoint version " + version);
+			}
+
+			int generation = buf.getInt();
+			int steps = buf.getInt();
+			String[] titles = GenerationFile.readTitles(buf);
+			int population = buf.getInt();
+			int mazes = titles.length;
+
+			boolean[][] active = new boolean[population][mazes];
+			double[][] pathLength = new double[population][mazes];
+			double[][][] bugState = new double[population][mazes][];
+			double[][][] brainState = new double[population][mazes][];
+
+			for (int i = 0; i < population; i++) {
+				for (int j = 0; j < mazes; j++) {
+					active[i][j] = buf.get() != 0;
+					pathLength[i][j] = buf.getDouble();
+					bugState[i][j] = readDoubles(buf);
+					brainState[i][j] = readDoubles(buf);
+				}
+			}
+
+			double[][] realStats = new double[buf.getInt()][mazes];
+			for (double[] stat : realStats) {
+				for (int j = 0; j < mazes; j++) {
+					stat[j] = buf.getDouble();
+				}
+			}
+
+			long[][] countStats = new long[buf.getInt()][mazes];
+			for (long[] stat : countStats) {
+				for (int j = 0; j < mazes; j++) {
+					stat[j] = buf.getLong();
+				}
+			}
+
+			return new Checkpoint(generation, steps, titles, population, active, pathLength, bugState, brainState,
+					realStats, countStats);
+		} catch (java.nio.BufferUnderflowException bue) {
+			throw new IOException("Truncated checkpoint.");
+		}
+	}
+
+	private static double[] readDoubles(ByteBuffer buf) throws IOException {
+		int n = buf.getInt();
+
+		if (n < 0 || (long) n * 8 > buf.remaining()) {
+			throw new IOException("Truncated checkpoint.");
+		}
+
+		double[] values = new double[n];
+		buf.asDoubleBuffer().get(values);
+		buf.position(buf.position() + n * 8);
+
+		return values;
+	}
+}
@@ -11,6 +11,12 @@ import java.util.*;
  *    Initial version, basic Chromosome implementation with encoding and decoding
  * @version 1.01 December 15, 2013
  *    Cleanup, comments, logger, and related.
+ * @version 1.02 October 19, 2026
+ *    Clone is now truly deep. Crossover and mutation can note their random choices in a {@link Lineage} and be replayed.
+ * @version 1.03 October 19, 2026
+ *    Crossover, mutation and random chromosomes can draw from a given Random, for reproducible breeding on many threads.
+ * @version 1.04 October 19, 2026
+ *    Crossover, mutation and random chromosomes must be given their Random, so none draw outside the run's seed.
  * @see {@link Gene}
  */
 public class Chromosome implements Cloneable
@@ -175,68 +181,113 @@ public class Chromosome implements Cloneable
 	 *   first Chromosome stops contributing fully to the new Chromosome, and the second Chromosome takes over.
 	 * Many standard models of crossover are limited to single point crossover. This function allows you to specify
 	 *   how many times to crossover the chromosomes, so that you can have more or less crossovers, giving lots of
-	 *   control to interested parties.
+	 *   control to interested parties. The random choices made are noted, so the crossover can be replayed.
 	 *
 	 * @param	b		The second Chromosome to involve in crossover. Implied is {@code this} is the first Chromosome.
 	 * @param	times	The number of times to crossover. Must be a counting integer (greater than 0).
+	 * @param	record	Where to note the starting Chromosome and crossover points, or null.
+	 * @param	rand	Where the random choices come from.
 	 * @return			A new Chromosome which is a blend of both original Chromosomes.
 	 * @throws RuntimeException if times is less than one
 	 */
-	public Chromosome crossover(Chromosome b, int times)
+	public Chromosome crossover(Chromosome b, int times, Lineage record, Random rand)
 	{
 		if (times > 0) // need to crossover at least once!
 		{
 			int[] crosspoints = new int[times]; // The points inside the chromosome at which to initiate crossover.
 
-			boolean longer = (this.nGenes >= b.numGenes());
-			int maxPoint = (longer) ? b.numGenes() : this.nGenes; // uses the smaller of the two
-			int longest = (longer) ? this.nGenes : b.numGenes();
+			int maxPoint = Math.min(this.nGenes, b.numGenes()); // uses the smaller of the two
 
 			//random starting chromosome.
-			boolean curChromo = (Math.random() > 0.5) ? true : false ; // true = this, false = b
-
-			Chromosome source = (curChromo) ? this: b;
+			boolean curChromo = (rand.nextDouble() > 0.5) ? true : false ; // true = this, false = b
 
 			// pick the crossover points
 			for (int l = 0; l < times; l++)
 			{
-				crosspoints[l] = (int) (Math.random() * (double) maxPoint);
+				crosspoints[l] = (int) (rand.nextDouble() * (double) maxPoint);
 			}
 
 			// sort them, so that they occur in a line
 			Arrays.sort(crosspoints);
 
-			// The contract of this method will return a chromosome equal in length to the longest chromosome.
-			Chromosome crossed = new Chromosome();
+			if (record != null)
+			{
+				record.recordCrossover(curChromo, crosspoints);
+			}
+
+			return crossover(b, curChromo, crosspoints);
+		}
+
+		throw new RuntimeException("Cannot have less than one length crossover!");
+	}
+
+	/**
+	 * Crossover with the choices already made -- replays a crossover exactly.
+	 *
+	 * @param	b			The second Chromosome to involve in crossover. Implied is {@code this} is the first Chromosome.
+	 * @param	startThis	True to start with genes from {@code this}, false to start with genes from b.
+	 * @param	crosspoints	Sorted gene indexes at which to swap source Chromosome.
+	 * @return				A new Chromosome which is a blend of both original Chromosomes.
+	 */
+	public Chromosome crossover(Chromosome b, boolean startThis, int[] crosspoints)
+	{
+		boolean[] plan = crossoverPlan(this.nGenes, b.numGenes(), startThis, crosspoints);
+
+		// The contract of this method will return a chromosome equal in length to the longest chromosome.
+		Chromosome crossed = new Chromosome();
+
+		for (int i = 0; i < plan.length; i++)
+		{
+			Chromosome source = (plan[i]) ? this: b;
+
+			crossed.addGene(source.getGene(i).clone());
+		}
+
+		return crossed;
+	}
+
+	/**
+	 * Works out which parent each gene of a crossover child comes from. Start with one chromosome, then swap to the
+	 *   other at each crossover point; past the end of the shorter chromosome, the rest comes from the longer.
+	 *
+	 * @param	firstGenes	Number of genes in the first Chromosome.
+	 * @param	secondGenes	Number of genes in the second Chromosome.
+	 * @param	startFirst	True to start with genes from the first Chromosome.
+	 * @param	crosspoints	Sorted gene indexes at which to swap source Chromosome.
+	 * @return				For each gene of the child, true if it comes from the first Chromosome.
+	 */
+	public static boolean[] crossoverPlan(int firstGenes, int secondGenes, boolean startFirst, int[] crosspoints)
+	{
+		boolean longer = (firstGenes >= secondGenes);
+		int maxPoint = (longer) ? secondGenes : firstGenes; // uses the smaller of the two
+		int longest = (longer) ? firstGenes : secondGenes;
+
+		boolean[] plan = new boolean[longest];
+		boolean curChromo = startFirst;
 
-			int j = 0;
-			for (int i = 0; i < longest; i++) // crossover -- start with the one chromosome, then swap to the other.
+		int j = 0;
+		for (int i = 0; i < longest; i++) // crossover -- start with the one chromosome, then swap to the other.
+		{
+			if ((j < crosspoints.length) && ( i < maxPoint))
 			{
-				if ((j < times) && ( i < maxPoint))
-				{
-					/* Must be >= to adjust for instance where multiple cross points are equal.
-					 * In this way, crossovers will happen successively.
-					 */
-					if (i >= crosspoints[j])
-					{
-						curChromo = !curChromo;
-						j++;
-					}
-				}
-				if( i == maxPoint )
+				/* Must be >= to adjust for instance where multiple cross points are equal.
+				 * In this way, crossovers will happen successively.
+				 */
+				if (i >= crosspoints[j])
 				{
-					curChromo = longer;
+					curChromo = !curChromo;
+					j++;
 				}
-
-				source = (curChromo) ? this: b;
-
-				crossed.addGene(source.getGene(i).clone());
+			}
+			if( i == maxPoint )
+			{
+				curChromo = longer;
 			}
 
-			return crossed;
+			plan[i] = curChromo;
 		}
 
-		throw new RuntimeException("Cannot have less than one length crossover!");
+		return plan;
 	}
 
 	/**
@@ -260,23 +311,54 @@ public class Chromosome implements Cloneable
 			throw new RuntimeException("Genes not cloned!");
 		}
 
+		ret.genes = new Vector<Gene>(nGenes);
+
+		for (Gene g : genes)
+		{
+			ret.genes.add(g.clone());
+		}
+
 		return ret;
 	}
 
 	/**
-	 * This uses {@link clone()} with one alteration -- after cloning, a single random gene is mutated.
+	 * This uses {@link clone()} with one alteration -- after cloning, a single random gene is mutated. Which bit was
+	 *   flipped is noted, so the mutation can be replayed.
 	 *
-	 * @return	A new Chromosome having clones of each Gene of the original Chromosome, but with one mutation.
+	 * @param	record	Where to note the mutated gene and bit, or null.
+	 * @param	rand	Where the random choices come from.
+	 * @return			A new Chromosome having clones of each Gene of the original Chromosome, but with one mutation.
 	 * TODO: Only a single mutation? Perhaps should allow multiple mutations, or probability model injection to control mutation.
 	 *         Otherwise multiple mutations leads to huge object churn.
 	 */
-	public Chromosome mutate()
+	public Chromosome mutate(Lineage record, Random rand)
 	{
-		int mutatepoint = (int) (Math.random() * nGenes);
+		int mutatepoint = (int) (rand.nextDouble() * nGenes);
 
 		Chromosome ret = this.clone();
 
-		ret.getGene(mutatepoint).mutate();
+		int bit = ret.getGene(mutatepoint).mutate(rand);
+
+		if (record != null)
+		{
+			record.recordMutation(mutatepoint, bit);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Mutation with the choice already made -- replays a mutation exactly.
+	 *
+	 * @param	gene	The gene to mutate.
+	 * @param	bit		The bit of that gene to flip.
+	 * @return			A new Chromosome having clones of each Gene of the original Chromosome, but with one mutation.
+	 */
+	public Chromosome mutate(int gene, int bit)
+	{
+		Chromosome ret = this.clone();
+
+		ret.getGene(gene).flip(bit);
 
 		return ret;
 	}
@@ -286,16 +368,17 @@ public class Chromosome implements Cloneable
 	 *
 	 * @param	nGenes	Number of random genes to generate
 	 * @param	nSize	Size of each gene to generate.
+	 * @param	rand	Where the random values come from.
 	 * @return			A new Chromosome
 	 * @throws RandomException if unable to generate a gene in the chromosome
 	 */
-	public static Chromosome randomChromosome(int nGenes, int nSize)
+	public static Chromosome randomChromosome(int nGenes, int nSize, Random rand)
 	{
 		Chromosome ret = new Chromosome();
 
 		for (int b = 0; b < nGenes; b ++)
 		{
-			if (!ret.addGene(new Gene(nSize))) {
+			if (!ret.addGene(new Gene(nSize, rand))) {
 				throw new RuntimeException("Failed to generate a gene in the chromosome!");
 			}
 		}
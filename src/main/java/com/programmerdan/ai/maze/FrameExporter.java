@@ -0,0 +1,204 @@
+package com.programmerdan.ai.maze;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.imageio.ImageIO;
+
+/**
+ * Draws {@link RenderFrame}s into images off screen and saves them as a PNG sequence, on a background thread, so a
+ *   run with no display -- or no one watching it -- still leaves pictures of how it went. Needs no window or screen;
+ *   it works on a headless server.
+ *
+ * The simulation only captures the frame. Frames wait in a small bounded queue and are drawn and written in order by
+ *   the exporter thread, with its own {@link MazeRenderer}. {@link offer(RenderFrame)} never waits: if drawing falls
+ *   so far behind that the queue is full, the frame is dropped and counted instead.
+ *
+ * Each frame is drawn as the simulation panel would draw it, at the panel's size, then scaled to the size exported.
+ *   Files are named for generation and step, as {@link fileName(int, int)}, so they sort in the order they were run.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link MazeRenderer}
+ */
+public class FrameExporter implements Runnable {
+
+	/**
+	 * Default number of frames that can wait to be drawn.
+	 */
+	public static final int DEFAULT_CAPACITY = 8;
+
+	/**
+	 * Queued in place of a frame to stop the thread.
+	 */
+	private static final RenderFrame STOP = new RenderFrame(-1, -1, new int[0], new double[0], new double[0],
+			new double[0], new double[0], new double[0], new double[0], 0, new int[0], new int[0], new float[0],
+			new float[0], new float[0], new float[0], new float[0], 0, null, new double[0][]);
+
+	private final File directory;
+	private final MazeRenderer renderer;
+	private final int panelWidth;
+	private final int panelHeight;
+	private final BufferedImage image;
+
+	private final BlockingQueue<RenderFrame> queue;
+	private final Thread thread;
+
+	private volatile int exported = 0;
+	private volatile int dropped = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 * Starts an exporter.
+	 *
+	 * @param	name		Name for the exporter thread.
+	 * @param	directory	Where to save the images; made if missing.
+	 * @param	renderer	Draws the frames; used only by the exporter thread from now on.
+	 * @param	panelWidth	Width of the area the renderer draws, as on screen.
+	 * @param	panelHeight	Height of the area the renderer draws, as on screen.
+	 * @param	width		Width of the images saved, in pixels.
+	 * @param	height		Height of the images saved, in pixels.
+	 * @param	capacity	How many frames can wait to be drawn.
+	 */
+	public FrameExporter(String name, File directory, MazeRenderer renderer, int panelWidth, int panelHeight,
+			int width, int height, int capacity) {
+		if (panelWidth < 1 || panelHeight < 1 || width < 1 || height < 1) {
+			throw new IllegalArgumentException("Export sizes must be positive.");
+		}
+
+		this.directory = directory;
+		this.renderer = renderer;
+		this.panelWidth = panelWidth;
+		this.panelHeight = panelHeight;
+		this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		this.queue = new ArrayBlockingQueue<RenderFrame>(capacity);
+
+		directory.mkdirs();
+
+		thread = new Thread(this, name);
+		thread.setDaemon(true); // a shutdown hook calling close() is what makes exit wait.
+		thread.start();
+	}
+
+	/**
+	 * The file name a frame is saved under.
+	 *
+	 * @param	generation	The frame's generation.
+	 * @param	step		The frame's step.
+	 * @return				The name, padded so names sort by generation, then step.
+	 */
+	public static String fileName(int generation, int step) {
+		return String.format("gen%06d_step%06d.png", generation, step);
+	}
+
+	/**
+	 * Queues a frame to be exported, unless the queue is full.
+	 *
+	 * @param	frame	The frame; it must not be changed after.
+	 * @return			true if queued; false if dropped, or the exporter is closed.
+	 */
+	public boolean offer(RenderFrame frame) {
+		if (closed) {
+			return false;
+		}
+
+		if (!queue.offer(frame)) {
+			dropped++;
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return	frames saved so far.
+	 */
+	public int getExported() {
+		return exported;
+	}
+
+	/**
+	 * @return	frames dropped so far because the queue was full.
+	 */
+	public int getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * Exports everything queued, then stops the exporter thread. Safe to call more than once.
+	 */
+	public void close() {
+		if (!closed) {
+			closed = true;
+
+			boolean interrupted = false;
+
+			while (true) {
+				try {
+					queue.put(STOP);
+					break;
+				} catch (InterruptedException ie) {
+					interrupted = true;
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		try {
+			thread.join();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The exporter thread.
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			RenderFrame frame;
+
+			try {
+				frame = queue.take();
+			} catch (InterruptedException ie) {
+				continue; // only close() stops the exporter.
+			}
+
+			if (frame == STOP) {
+				return;
+			}
+
+			try {
+				draw(frame);
+				ImageIO.write(image, "png", new File(directory, fileName(frame.generation, frame.step)));
+				exported++;
+			} catch (IOException e) {
+				System.out.println("File error" + e.toString() );
+			} catch (RuntimeException re) {
+				System.out.println("Failed to export frame " + frame.generation + "/" + frame.step + ": " + re.toString() );
+			}
+		}
+	}
+
+	private void draw(RenderFrame frame) {
+		Graphics2D g2 = image.createGraphics();
+
+		try {
+			g2.setColor(Color.WHITE);
+			g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+			g2.scale((double) image.getWidth() / panelWidth, (double) image.getHeight() / panelHeight);
+
+			renderer.draw(g2, frame, panelWidth, panelHeight, false);
+		} finally {
+			g2.dispose();
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.programmerdan.ai.maze;
 
+import java.util.Random;
+
 /**
  * Gene subclass. Every {@link Chromosome} is composed of many Genes.
  *   Each Gene is stored as a sequence of binary values, this allows easy mutations.
@@ -9,6 +11,12 @@ package com.programmerdan.ai.maze;
  *   Initial release
  * @version 1.01 December 17, 2013
  *   Refactor into its own class.
+ * @version 1.02 October 19, 2026
+ *   Clone copies the backing array; mutate reports the flipped bit.
+ * @version 1.03 October 19, 2026
+ *   Random genes and mutation can draw from a given Random, so breeding can run on many threads reproducibly.
+ * @version 1.04 October 19, 2026
+ *   Random genes and mutation must be given their Random, so none draw outside the run's seed.
  *
  */
 public class Gene implements Cloneable
@@ -16,16 +24,17 @@ public class Gene implements Cloneable
 	private boolean[] geneValues;
 
 	/**
-	 * Builds a random Gene of size {@code size}.
+	 * Builds a random Gene of size {@code size}, drawing from {@code rand}.
 	 *
 	 * @param	size	the size of the random Gene.
-	 * @see {@link fillGenes()}
+	 * @param	rand	where the random values come from.
+	 * @see {@link fillGenes(Random)}
 	 */
-	public Gene(int size)
+	public Gene(int size, Random rand)
 	{
 		geneValues = new boolean[size];
 
-		fillGenes();
+		fillGenes(rand);
 	}
 
 	/**
@@ -139,11 +148,11 @@ public class Gene implements Cloneable
 	/**
 	 * Fill up the new empty gene -- an initialization method -- with random values.
 	 */
-	private void fillGenes()
+	private void fillGenes(Random rand)
 	{
 		for (int a = 0; a < geneValues.length; a++)
 		{
-			geneValues[a] = (Math.random() < .5) ? false : true;
+			geneValues[a] = (rand.nextDouble() < .5) ? false : true;
 		}
 	}
 
@@ -267,20 +276,36 @@ public class Gene implements Cloneable
 	}
 
 	/**
-	 * Mutate the gene at some random point. This mutation is in-place, meaning that
+	 * Mutate the gene at some random point, picked from {@code rand}. This mutation is in-place, meaning that
 	 *   the active Gene is modified.
+	 *
+	 * @param	rand	where the random point comes from.
+	 * @return			The bit that was flipped.
 	 */
-	public void mutate()
+	public int mutate(Random rand)
 	{
 		// pick a random spot to mutate.
 
-		int b = (int) Math.floor(Math.random() * (double) geneValues.length);
+		int b = (int) Math.floor(rand.nextDouble() * (double) geneValues.length);
+
+		flip(b);
+
+		return b;
+	}
 
+	/**
+	 * Mutate the gene at a given point, in-place.
+	 *
+	 * @param	b	The bit to flip.
+	 */
+	public void flip(int b)
+	{
 		geneValues[b] = !geneValues[b]; // flip the bit!
 	}
 
 	/**
-	 * Clone the gene -- make an exact duplicate, using the boolean array that backs the Gene.
+	 * Clone the gene -- make an exact duplicate, with its own copy of the boolean array that backs the Gene,
+	 *   so mutating the clone leaves the original alone.
 	 *
 	 * @return a new Gene that duplicates this Gene.
 	 *
@@ -297,6 +322,8 @@ public class Gene implements Cloneable
 			throw new RuntimeException("Gene clone not supported.");
 		}
 
+		ret.geneValues = geneValues.clone();
+
 		return ret;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,745 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Every saved generation of a run in one append-only file, instead of one .gen file per generation.
+ *
+ * File Format (big endian):
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * records, one per generation, in the order appended, with an index block after every INDEX_EVERY of them:
+ *   record:
+ *     int     RECORD
+ *     int     generation
+ *     int     payload length
+ *     byte[]  payload -- the generation in the {@link GenerationFile} binary format (a keyframe), or in the
+ *               {@link GenerationDelta} format against an earlier record
+ *     int     CRC32 of the payload
+ *   index block, of the records since the block before:
+ *     int     INDEX
+ *     int     # entries
+ *     long    offset of the block before, or 0 for none
+ *     int     generation   \  once per record
+ *     long    offset       /  (of the record's RECORD marker)
+ *     int     CRC32 of the block up to here
+ * trailer:
+ *   long    offset of the last index block, or 0 for none
+ *   int     TRAILER
+ * </pre>
+ *
+ * Nothing but the trailer is ever written over, so each append costs the same however long the run: the record,
+ *   a new trailer over the old, and now and then a block of the latest entries. Opening follows the trailer back
+ *   through the chain of blocks, checking each block's checksum and that each entry starts a record of its
+ *   generation, then reads forward over the few records after the last block.
+ *
+ * If a run dies part way through an append, the trailer will be missing, or an old one left over the new record's
+ *   bytes. Reading forward from the last block stops at the torn record, the first one whose checksum fails with
+ *   no good record or block anywhere after it; the torn tail is dropped and a fresh trailer written. If the trailer
+ *   or a block is damaged, or a bad record has good ones after it, every record is read from the front instead,
+ *   stepping over each damaged one to the next good record or block and keeping each one whose checksum holds, and
+ *   one index block listing them all starts a new chain.
+ *   A version 1 archive, indexed by a footer rewritten on every append, is read that way too and carried on as
+ *   version 2.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link GenerationFile}
+ */
+public class GenerationArchive implements Closeable {
+
+	/**
+	 * Marks a generation archive; "GENA".
+	 */
+	public static final int MAGIC = 0x47454E41;
+	/**
+	 * Current format version.
+	 */
+	public static final short VERSION = 2;
+	/**
+	 * Marks the start of a record; "GREC".
+	 */
+	private static final int RECORD = 0x47524543;
+	/**
+	 * Marks the start of an index block; "GIDX".
+	 */
+	private static final int INDEX = 0x47494458;
+	/**
+	 * Marks the end of the trailer; "GTRL".
+	 */
+	private static final int TRAILER = 0x4754524C;
+
+	/**
+	 * Records between index blocks.
+	 */
+	static final int INDEX_EVERY = 16;
+
+	private static final int HEADER_SIZE = 6;
+	private static final int RECORD_OVERHEAD = 16;
+	private static final int BLOCK_OVERHEAD = 20;
+	private static final int ENTRY_SIZE = 12;
+	private static final int TRAILER_SIZE = 12;
+
+	private RandomAccessFile file;
+
+	/**
+	 * Record offset of each generation held.
+	 */
+	private TreeMap<Integer, Long> index = new TreeMap<Integer, Long>();
+	/**
+	 * Records appended since the last index block, as generation and offset pairs; the next block lists them.
+	 */
+	private int[] pendingGen = new int[INDEX_EVERY];
+	private long[] pendingOffset = new long[INDEX_EVERY];
+	private int pending = 0;
+	/**
+	 * Where the last index block starts, or 0 if there is none.
+	 */
+	private long lastBlock = 0;
+	/**
+	 * Where the trailer starts -- the next record goes here.
+	 */
+	private long end;
+	/**
+	 * The generation read last, so reading a run of deltas forward does not rebuild each base from its keyframe.
+	 */
+	private GenerationFile lastRead;
+
+	/**
+	 * Opens an archive, creating it if it does not exist.
+	 *
+	 * @param	fn	The archive file.
+	 * @throws	IOException if the file cannot be read or written, or is not an archive.
+	 */
+	public GenerationArchive(File fn) throws IOException {
+		file = new RandomAccessFile(fn, "rw");
+
+		try {
+			if (file.length() == 0) {
+				file.writeInt(MAGIC);
+				file.writeShort(VERSION);
+				end = HEADER_SIZE;
+				writeTrailer();
+			} else {
+				if (file.length() < HEADER_SIZE || file.readInt() != MAGIC) {
+					throw new IOException("Not a generation archive: " + fn);
+				}
+
+				short version = file.readShort();
+
+				if (version < 1 || version > VERSION) {
+					throw new IOException("Unsupported generation archive version " + version);
+				}
+
+				if (version < VERSION) {
+					file.seek(4);
+					file.writeShort(VERSION); // its records are read from the front, and its footer cut off.
+				}
+
+				if (version < VERSION || !readIndex()) {
+					index.clear();
+					lastBlock = 0;
+					scan(HEADER_SIZE, true);
+
+					if (pending > 0) {
+						writeBlock(); // the old chain is never followed again.
+					}
+				}
+
+				if (pending >= INDEX_EVERY) {
+					writeBlock();
+				}
+
+				writeTrailer(); // over a stale one, or any torn tail.
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Loads the index by following the trailer back through every index block, then reads forward over the records
+	 *   appended since the last block.
+	 *
+	 * @return	true if the index was read, false if the trailer or a block is missing or damaged.
+	 * @throws	IOException if the file cannot be read.
+	 */
+	private boolean readIndex() throws IOException {
+		long len = file.length();
+
+		if (len < HEADER_SIZE + TRAILER_SIZE) {
+			return false;
+		}
+
+		file.seek(len - TRAILER_SIZE);
+
+		long last = file.readLong();
+
+		if (file.readInt() != TRAILER) {
+			return false;
+		}
+
+		ArrayList<Long> starts = new ArrayList<Long>();
+		ArrayList<ByteBuffer> blocks = new ArrayList<ByteBuffer>();
+		long limit = len - TRAILER_SIZE;
+
+		for (long at = last; at != 0; ) {
+			ByteBuffer buf = readBlock(at, limit);
+
+			if (buf == null) {
+				return false;
+			}
+
+			starts.add(at);
+			blocks.add(buf);
+			limit = at;
+			at = buf.getLong(8);
+		}
+
+		for (int b = blocks.size() - 1; b >= 0; b--) { // oldest first, so a later record replaces an earlier one.
+			ByteBuffer buf = blocks.get(b);
+			int count = buf.getInt(4);
+
+			buf.position(16);
+
+			for (int i = 0; i < count; i++) {
+				int gen = buf.getInt();
+				long offset = buf.getLong();
+
+				if (offset < HEADER_SIZE || offset + RECORD_OVERHEAD > starts.get(b)) {
+					index.clear();
+					return false;
+				}
+
+				file.seek(offset);
+
+				if (file.readInt() != RECORD || file.readInt() != gen) {
+					index.clear();
+					return false;
+				}
+
+				put(gen, offset);
+			}
+		}
+
+		lastBlock = last;
+
+		if (!scan((last == 0) ? HEADER_SIZE : last + blocks.get(0).capacity(), false)) {
+			index.clear();
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads an index block and checks it: its marker, that it fits before limit and points back before itself, and
+	 *   its checksum.
+	 *
+	 * @return	the whole block, or null if it is not a good one.
+	 * @throws	IOException if the file cannot be read.
+	 */
+	private ByteBuffer readBlock(long at, long limit) throws IOException {
+		if (at < HEADER_SIZE || at + BLOCK_OVERHEAD > limit) {
+			return null;
+		}
+
+		file.seek(at);
+
+		int marker = file.readInt();
+		int count = file.readInt();
+		long prev = file.readLong();
+
+		if (marker != INDEX || count < 0 || at + BLOCK_OVERHEAD + (long) count * ENTRY_SIZE > limit
+				|| (prev != 0 && (prev < HEADER_SIZE || prev >= at))) {
+			return null;
+		}
+
+		byte[] block = new byte[BLOCK_OVERHEAD + count * ENTRY_SIZE];
+
+		file.seek(at);
+		file.readFully(block);
+
+		CRC32 crc = new CRC32();
+		crc.update(block, 0, block.length - 4);
+
+		ByteBuffer buf = ByteBuffer.wrap(block);
+
+		if (buf.getInt(block.length - 4) != (int) crc.getValue()) {
+			return null;
+		}
+
+		return buf;
+	}
+
+	/**
+	 * Walks the records and index blocks from pos to the end of the file, indexing each record whose checksum
+	 *   holds. Where it stops is where the next record goes: the end of the file, or a torn tail -- something
+	 *   neither a good record nor a good block, with nothing good after it.
+	 *
+	 * @param	recover	true to step over damage to the next good record or block, and over index blocks without
+	 *					  following them, so every record found is pending; false to stop at damage that is not a
+	 *					  torn tail, and to take each index block only if it follows the last.
+	 * @return	false if it stopped at damage that is not a torn tail; the archive must then be read with recover.
+	 * @throws	IOException if the file cannot be read.
+	 */
+	private boolean scan(long pos, boolean recover) throws IOException {
+		long len = file.length();
+
+		pending = 0;
+
+		while (pos < len) {
+			int size = recordSize(pos, len);
+
+			if (size >= 0) {
+				file.seek(pos + 4);
+				put(file.readInt(), pos);
+
+				pos += RECORD_OVERHEAD + size;
+				continue;
+			}
+
+			ByteBuffer block = readBlock(pos, len);
+
+			if (block != null && (recover || block.getLong(8) == lastBlock)) {
+				if (!recover) {
+					lastBlock = pos;
+					pending = 0; // it lists them.
+				}
+
+				pos += block.capacity();
+				continue;
+			}
+
+			long next = resync(pos, len);
+
+			if (next < 0) {
+				break; // torn tail.
+			}
+
+			if (!recover) {
+				return false;
+			}
+
+			pos = next;
+		}
+
+		end = pos;
+
+		return true;
+	}
+
+	/**
+	 * Checks the record at pos: its marker, that it fits before len, and its checksum.
+	 *
+	 * @return	the payload length, or -1 if there is no good record at pos.
+	 * @throws	IOException if the file cannot be read.
+	 */
+	private int recordSize(long pos, long len) throws IOException {
+		if (pos < HEADER_SIZE || pos + RECORD_OVERHEAD > len) {
+			return -1;
+		}
+
+		file.seek(pos);
+
+		if (file.readInt() != RECORD) {
+			return -1;
+		}
+
+		file.readInt();
+		int size = file.readInt();
+
+		if (size < 0 || pos + RECORD_OVERHEAD + size > len) {
+			return -1;
+		}
+
+		byte[] payload = new byte[size];
+		file.readFully(payload);
+
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+
+		return (file.readInt() == (int) crc.getValue()) ? size : -1;
+	}
+
+	/**
+	 * Tests if a good record or index block starts at pos.
+	 */
+	private boolean isGood(long pos, long len) throws IOException {
+		return recordSize(pos, len) >= 0 || readBlock(pos, len) != null;
+	}
+
+	/**
+	 * Finds where reading can go on past damage at pos: after the record there, if its length still holds and a
+	 *   good record or block follows it, or else the next good record or block found by searching for their markers.
+	 *
+	 * @return	the offset to go on from, or -1 if nothing good follows -- pos starts a torn tail.
+	 * @throws	IOException if the file cannot be read.
+	 */
+	private long resync(long pos, long len) throws IOException {
+		if (pos + 12 <= len) {
+			file.seek(pos);
+
+			if (file.readInt() == RECORD) {
+				file.readInt();
+				long next = pos + RECORD_OVERHEAD + file.readInt();
+
+				if (next > pos && next < len && isGood(next, len)) {
+					return next; // just its payload or checksum is bad.
+				}
+			}
+		}
+
+		byte[] chunk = new byte[65536];
+
+		for (long at = pos + 1; at + 4 <= len; at += chunk.length - 3) {
+			int n = (int) Math.min(chunk.length, len - at);
+
+			file.seek(at);
+			file.readFully(chunk, 0, n);
+
+			ByteBuffer buf = ByteBuffer.wrap(chunk, 0, n);
+
+			for (int i = 0; i + 4 <= n; i++) {
+				int marker = buf.getInt(i);
+
+				if ((marker == RECORD || marker == INDEX) && isGood(at + i, len)) {
+					return at + i;
+				}
+			}
+
+			if (n < chunk.length) {
+				break;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Notes where a generation is, and that the next index block must list it; a later record of the same
+	 *   generation replaces an earlier one.
+	 */
+	private void put(int gen, long offset) {
+		index.put(gen, offset);
+
+		if (pending == pendingGen.length) {
+			pendingGen = Arrays.copyOf(pendingGen, pending * 2);
+			pendingOffset = Arrays.copyOf(pendingOffset, pending * 2);
+		}
+
+		pendingGen[pending] = gen;
+		pendingOffset[pending] = offset;
+		pending++;
+	}
+
+	/**
+	 * Writes an index block of the records since the last one at {@link end}.
+	 *
+	 * @throws	IOException if the file cannot be written.
+	 */
+	private void writeBlock() throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(BLOCK_OVERHEAD + pending * ENTRY_SIZE);
+
+		buf.putInt(INDEX);
+		buf.putInt(pending);
+		buf.putLong(lastBlock);
+
+		for (int i = 0; i < pending; i++) {
+			buf.putInt(pendingGen[i]);
+			buf.putLong(pendingOffset[i]);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buf.array(), 0, buf.position());
+
+		buf.putInt((int) crc.getValue());
+
+		file.seek(end);
+		file.write(buf.array());
+
+		lastBlock = end;
+		end += buf.capacity();
+		pending = 0;
+	}
+
+	/**
+	 * Writes the trailer at {@link end} and cuts the file off after it.
+	 *
+	 * @throws	IOException if the file cannot be written.
+	 */
+	private void writeTrailer() throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(TRAILER_SIZE);
+
+		buf.putLong(lastBlock);
+		buf.putInt(TRAILER);
+
+		file.seek(end);
+		file.write(buf.array());
+		file.setLength(end + TRAILER_SIZE);
+	}
+
+	/**
+	 * Number of generations held.
+	 *
+	 * @return	the number of generations in the archive.
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Tests if a generation is held.
+	 *
+	 * @param	generation	The generation number.
+	 * @return				true if the archive has it.
+	 */
+	public boolean contains(int generation) {
+		return index.containsKey(generation);
+	}
+
+	/**
+	 * The highest generation held -- where to resume a run.
+	 *
+	 * @return	the latest generation, or -1 if the archive is empty.
+	 */
+	public int latestGeneration() {
+		return index.isEmpty() ? -1 : index.lastKey();
+	}
+
+	/**
+	 * Every generation held.
+	 *
+	 * @return	the generation numbers, ascending.
+	 */
+	public int[] generations() {
+		int[] ret = new int[index.size()];
+		int i = 0;
+
+		for (Integer gen : index.keySet()) {
+			ret[i++] = gen;
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Reads one generation, mapping just its record. A delta record is rebuilt from its base, which may itself
+	 *   be a delta, back to the nearest keyframe.
+	 *
+	 * @param	generation	The generation number.
+	 * @return				The generation.
+	 * @throws	IOException if the record cannot be read or is damaged.
+	 * @throws	NoSuchElementException if the archive does not hold that generation, or a base it needs.
+	 */
+	public GenerationFile read(int generation) throws IOException {
+		if (lastRead != null && lastRead.getGeneration() == generation) {
+			return lastRead;
+		}
+
+		ByteBuffer buf = record(generation);
+		GenerationFile ret;
+
+		if (GenerationDelta.isDelta(buf)) {
+			ret = GenerationDelta.apply(buf, read(GenerationDelta.baseOf(buf)));
+		} else {
+			ret = GenerationFile.read(buf);
+		}
+
+		lastRead = ret;
+
+		return ret;
+	}
+
+	/**
+	 * Tests if a generation is stored as a delta.
+	 *
+	 * @param	generation	The generation number.
+	 * @return				true if it is a delta, false if a keyframe.
+	 * @throws	IOException if the record cannot be read or is damaged.
+	 * @throws	NoSuchElementException if the archive does not hold that generation.
+	 */
+	public boolean isDelta(int generation) throws IOException {
+		return GenerationDelta.isDelta(record(generation));
+	}
+
+	/**
+	 * Maps the payload of a generation's record.
+	 */
+	private ByteBuffer record(int generation) throws IOException {
+		Long offset = index.get(generation);
+
+		if (offset == null) {
+			throw new NoSuchElementException("Generation " + generation + " is not archived.");
+		}
+
+		file.seek(offset);
+
+		if (file.readInt() != RECORD || file.readInt() != generation) {
+			throw new IOException("Damaged archive record for generation " + generation);
+		}
+
+		int size = file.readInt();
+
+		return file.getChannel().map(FileChannel.MapMode.READ_ONLY, offset + 12, size);
+	}
+
+	/**
+	 * Appends a generation. If the generation is already held, the new record replaces it in the index.
+	 *
+	 * @param	generation	The generation number.
+	 * @param	seed		The run's random seed.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	Every bug's chromosome.
+	 * @throws	IOException if the file cannot be written.
+	 */
+	public void append(int generation, long seed, String[] mazeTitles, Chromosome[] population) throws IOException {
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+		GenerationFile.write(payload, generation, seed, mazeTitles, population);
+
+		appendRecord(generation, payload.toByteArray());
+	}
+
+	/**
+	 * Appends a generation as lineage against a base generation already in the archive; see {@link GenerationDelta}.
+	 *
+	 * @param	generation	The generation number.
+	 * @param	base		The generation the lineage parent indexes refer to.
+	 * @param	seed		The run's random seed.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	Every bug's chromosome.
+	 * @param	lineage		Every bug's lineage, parallel to population.
+	 * @throws	IOException if the file cannot be written.
+	 * @throws	NoSuchElementException if the base generation is not archived.
+	 */
+	public void appendDelta(int generation, int base, long seed, String[] mazeTitles, Chromosome[] population,
+			Lineage[] lineage) throws IOException {
+		if (!contains(base)) {
+			throw new NoSuchElementException("Base generation " + base + " is not archived.");
+		}
+
+		ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+		GenerationDelta.write(payload, generation, base, seed, mazeTitles, population, lineage);
+
+		appendRecord(generation, payload.toByteArray());
+	}
+
+	/**
+	 * Appends a record holding an already encoded generation, keyframe or delta.
+	 *
+	 * @param	generation	The generation number.
+	 * @param	payload		The generation in the {@link GenerationFile} binary format.
+	 * @throws	IOException if the file cannot be written.
+	 */
+	public void appendRecord(int generation, byte[] payload) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+
+		ByteBuffer buf = ByteBuffer.allocate(RECORD_OVERHEAD + payload.length);
+
+		buf.putInt(RECORD);
+		buf.putInt(generation);
+		buf.putInt(payload.length);
+		buf.put(payload);
+		buf.putInt((int) crc.getValue());
+
+		long offset = end;
+
+		if (lastRead != null && lastRead.getGeneration() == generation) {
+			lastRead = null; // replaced.
+		}
+
+		file.seek(offset);
+		file.write(buf.array());
+
+		end = offset + buf.capacity();
+
+		put(generation, offset);
+
+		if (pending >= INDEX_EVERY) {
+			writeBlock();
+		}
+
+		writeTrailer();
+	}
+
+	/**
+	 * Indexes any records since the last index block, so the next open need not read them, and closes the archive
+	 *   file.
+	 *
+	 * @throws	IOException if writing the index or closing fails.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (pending > 0) {
+				writeBlock();
+				writeTrailer();
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Packs the per-generation files of a run (root + N + ".gen", either format) into the run's archive,
+	 *   root + ".genarc". Generations already archived are skipped.
+	 *
+	 * @param	args	The run's file rootname.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 1) {
+			System.out.println("Usage: GenerationArchive <rootname>");
+			System.out.println("  Packs rootname0.gen, rootname1.gen, ... into rootname.genarc");
+			return;
+		}
+
+		try {
+			GenerationArchive archive = new GenerationArchive(new File(args[0] + ".genarc"));
+			File tmp = File.createTempFile("convert", ".gen");
+
+			try {
+				int packed = 0;
+
+				for (int a = 0; ; a++) {
+					File fn = new File(args[0] + String.valueOf(a) + ".gen");
+
+					if (!fn.exists()) break;
+					if (archive.contains(a)) continue;
+
+					if (!GenerationFile.isBinary(fn)) {
+						GenerationFile.toBinary(fn, tmp);
+						fn = tmp;
+					}
+
+					byte[] payload = new byte[(int) fn.length()];
+					DataInputStream in = new DataInputStream( new FileInputStream( fn ) );
+
+					try {
+						in.readFully(payload);
+					} finally {
+						in.close();
+					}
+
+					archive.appendRecord(GenerationFile.read(ByteBuffer.wrap(payload)).getGeneration(), payload);
+					packed++;
+				}
+
+				System.out.println("Archived " + packed + " generations, latest " + archive.latestGeneration());
+			} finally {
+				archive.close();
+				tmp.delete();
+			}
+		} catch (IOException e) {
+			System.out.println("File error" + e.toString() );
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * A generation stored against the generation it was bred from. Instead of every chromosome in full, each bug is
+ *   saved as its {@link Lineage} -- parent indexes, crossover start and points, mutated bits -- which is a few dozen
+ *   bytes against the hundreds or thousands of a packed chromosome. Only bugs with no parents (fresh random ones)
+ *   are stored in full.
+ *
+ * File Format (big endian):
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * int     generation
+ * int     base generation -- the one parent indexes refer to
+ * long    seed -- as in {@link GenerationFile}; version 2 on
+ * int     # mazes, then each title as in {@link GenerationFile}
+ * int     # bugs (population)
+ * int     gene width, in bits
+ * int     genes per chromosome
+ * per bug:
+ *   byte    kind, {@link Lineage.Kind} ordinal
+ *   RANDOM: byte[]  the packed chromosome, as in {@link GenerationFile}
+ *   CLONE:  int     parent
+ *   CROSS:  int     first parent
+ *           int     second parent
+ *           byte    1 to start with the first parent, 0 the second
+ *           int     # crossover points
+ *           int[]   crossover points
+ *   CLONE, CROSS:
+ *           int     # mutations
+ *           int[]   gene, bit pairs
+ * </pre>
+ *
+ * Rebuilding works on the packed bits of the base generation directly, with no per-gene objects.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link GenerationArchive}
+ */
+public final class GenerationDelta {
+
+	/**
+	 * Marks a delta generation; "GEND".
+	 */
+	public static final int MAGIC = 0x47454E44;
+	/**
+	 * Current format version.
+	 */
+	public static final short VERSION = 2;
+
+	/**
+	 * Static methods only.
+	 */
+	private GenerationDelta() {
+	}
+
+	/**
+	 * Tests if a buffer holds a delta generation.
+	 *
+	 * @param	buf	The buffer, from its position.
+	 * @return		true if it starts with {@link MAGIC}.
+	 */
+	public static boolean isDelta(ByteBuffer buf) {
+		return buf.remaining() >= 4 && buf.getInt(buf.position()) == MAGIC;
+	}
+
+	/**
+	 * Writes a generation as lineage against its base generation.
+	 *
+	 * @param	os			Where to write. Flushed but left open.
+	 * @param	generation	The generation number.
+	 * @param	base		The generation the parent indexes refer to.
+	 * @param	seed		The run's random seed.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	Every bug's chromosome; only those with no parents are written.
+	 * @param	lineage		Every bug's lineage, parallel to population.
+	 * @throws	IOException if the stream fails.
+	 * @throws	IllegalArgumentException if the chromosomes are not all the same shape.
+	 */
+	public static void write(OutputStream os, int generation, int base, long seed, String[] mazeTitles,
+			Chromosome[] population, Lineage[] lineage) throws IOException {
+		int genes = (population.length > 0) ? population[0].numGenes() : 0;
+		int width = (genes > 0) ? population[0].getGene(0).encodingFieldSize() : 0;
+
+		byte[] packed = new byte[GenerationFile.packedSize(genes, width)];
+
+		DataOutputStream out = new DataOutputStream( new BufferedOutputStream( os ) );
+
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeInt(generation);
+		out.writeInt(base);
+		out.writeLong(seed);
+		GenerationFile.writeTitles(out, mazeTitles);
+		out.writeInt(population.length);
+		out.writeInt(width);
+		out.writeInt(genes);
+
+		for (int i = 0; i < population.length; i++) {
+			Lineage l = lineage[i];
+
+			out.writeByte(l.getKind().ordinal());
+
+			switch (l.getKind()) {
+				case RANDOM:
+					GenerationFile.pack(population[i], genes, width, packed);
+					out.write(packed);
+					continue;
+				case CLONE:
+					out.writeInt(l.getFirst());
+					break;
+				case CROSS:
+					out.writeInt(l.getFirst());
+					out.writeInt(l.getSecond());
+					out.writeByte(l.startsFirst() ? 1 : 0);
+
+					int[] points = l.getCrosspoints();
+					out.writeInt(points.length);
+
+					for (int p : points) {
+						out.writeInt(p);
+					}
+					break;
+			}
+
+			out.writeInt(l.numMutations());
+
+			for (int m = 0; m < l.numMutations(); m++) {
+				out.writeInt(l.getMutationGene(m));
+				out.writeInt(l.getMutationBit(m));
+			}
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * The generation a delta was bred from, without decoding it.
+	 *
+	 * @param	delta	The delta, from its position.
+	 * @return			The base generation number.
+	 * @throws	IOException if the buffer is not a delta generation this code understands.
+	 */
+	public static int baseOf(ByteBuffer delta) throws IOException {
+		ByteBuffer buf = delta.slice();
+
+		checkHeader(buf);
+		buf.getInt(); // generation
+
+		return buf.getInt();
+	}
+
+	/**
+	 * Reads and checks the magic number and version.
+	 *
+	 * @return	the version.
+	 */
+	private static short checkHeader(ByteBuffer buf) throws IOException {
+		if (buf.remaining() < 6 || buf.getInt() != MAGIC) {
+			throw new IOException("Not a delta generation.");
+		}
+
+		short version = buf.getShort();
+
+		if (version < 1 || version > VERSION) {
+			throw new IOException("Unsupported delta generation version " + version);
+		}
+
+		return version;
+	}
+
+	/**
+	 * Rebuilds a generation from its delta and its base.
+	 *
+	 * @param	delta	The delta, from its position.
+	 * @param	base	The generation it was bred from.
+	 * @return			The rebuilt generation.
+	 * @throws	IOException if the delta is malformed or does not match the base.
+	 */
+	public static GenerationFile apply(ByteBuffer delta, GenerationFile base) throws IOException {
+		ByteBuffer buf = delta.slice();
+
+		try {
+			short version = checkHeader(buf);
+
+			int generation = buf.getInt();
+			int baseGen = buf.getInt();
+			boolean hasSeed = (version >= 2) || base.hasSeed();
+			long seed = (version >= 2) ? buf.getLong() : base.getSeed();
+			String[] titles = GenerationFile.readTitles(buf);
+			int population = buf.getInt();
+			int width = buf.getInt();
+			int genes = buf.getInt();
+
+			if (baseGen != base.getGeneration() || width != base.getGeneWidth() || genes != base.getGeneCount()) {
+				throw new IOException("Delta generation " + generation + " does not match its base generation.");
+			}
+
+			int stride = GenerationFile.packedSize(genes, width);
+
+			byte[] parents = new byte[base.getPopulation() * stride];
+
+			for (int i = 0; i < base.getPopulation(); i++) {
+				base.copyPacked(i, parents, i * stride);
+			}
+
+			byte[] packed = new byte[population * stride];
+
+			for (int i = 0; i < population; i++) {
+				int off = i * stride;
+				int kind = buf.get();
+
+				if (kind == Lineage.Kind.RANDOM.ordinal()) {
+					buf.get(packed, off, stride);
+					continue;
+				} else if (kind == Lineage.Kind.CLONE.ordinal()) {
+					System.arraycopy(parents, parent(buf, base) * stride, packed, off, stride);
+				} else if (kind == Lineage.Kind.CROSS.ordinal()) {
+					int first = parent(buf, base) * stride;
+					int second = parent(buf, base) * stride;
+					boolean startFirst = buf.get() != 0;
+
+					int[] points = new int[buf.getInt()];
+
+					for (int p = 0; p < points.length; p++) {
+						points[p] = buf.getInt();
+					}
+
+					boolean[] plan = Chromosome.crossoverPlan(genes, genes, startFirst, points);
+
+					for (int g = 0; g < genes; g++) {
+						copyBits(parents, plan[g] ? first : second, packed, off, (long) g * width, width);
+					}
+				} else {
+					throw new IOException("Unknown lineage kind " + kind);
+				}
+
+				int mutations = buf.getInt();
+
+				for (int m = 0; m < mutations; m++) {
+					long bit = (long) buf.getInt() * width + buf.getInt();
+
+					packed[off + (int) (bit >>> 3)] ^= (byte) ( 0x80 >>> (int) (bit & 7) );
+				}
+			}
+
+			return GenerationFile.wrap(generation, seed, hasSeed, titles, population, width, genes, packed);
+		} catch (java.nio.BufferUnderflowException bue) {
+			throw new IOException("Truncated delta generation.");
+		}
+	}
+
+	/**
+	 * Reads a parent index and checks it against the base population.
+	 */
+	private static int parent(ByteBuffer buf, GenerationFile base) throws IOException {
+		int p = buf.getInt();
+
+		if (p < 0 || p >= base.getPopulation()) {
+			throw new IOException("Delta parent " + p + " is outside the base generation.");
+		}
+
+		return p;
+	}
+
+	/**
+	 * Copies a run of bits at the same offset between two packed chromosomes.
+	 *
+	 * @param	src		Source bytes.
+	 * @param	srcOff	Start of the source chromosome.
+	 * @param	dst		Destination bytes.
+	 * @param	dstOff	Start of the destination chromosome.
+	 * @param	bit		First bit to copy, from the start of the chromosome.
+	 * @param	count	Number of bits to copy.
+	 */
+	private static void copyBits(byte[] src, int srcOff, byte[] dst, int dstOff, long bit, int count) {
+		for (long end = bit + count; bit < end; bit++) {
+			int b = (int) (bit >>> 3);
+			int mask = 0x80 >>> (int) (bit & 7);
+
+			if ( (src[srcOff + b] & mask) != 0 ) {
+				dst[dstOff + b] |= (byte) mask;
+			} else {
+				dst[dstOff + b] &= (byte) ~mask;
+			}
+		}
+	}
+}
@@ -0,0 +1,608 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * A saved generation in the binary .gen format. Holds the same things as the text format written by
+ *   {@link Simulation} -- the generation, the mazes trained against and every bug's {@link Chromosome} -- but
+ *   stores each chromosome as packed bits instead of one encoded line of text per bug.
+ *
+ * File Format (big endian):
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * int     generation
+ * long    seed -- the run's random seed, which the generation after is bred from; version 2 on
+ * int     # mazes
+ *   short   title length, in bytes
+ *   byte[]  title, UTF-8
+ *   ...     (once per maze)
+ * int     # bugs (population)
+ * int     gene width, in bits
+ * int     genes per chromosome
+ * byte[]  packed chromosomes, one after another, each (genes * width) bits, most significant bit first,
+ *           padded out to a whole byte.
+ * </pre>
+ *
+ * Reading maps the file and decodes bits straight from the mapped buffer, so no Strings or intermediate
+ *   objects are built per gene; any single chromosome can be read without touching the others.
+ * The text format is still understood: {@link main(String[])} converts either way. It has no seed, so
+ *   converting from text writes a version 1 file. A version 1 file reads as seed 0, and {@link hasSeed()} is false.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+public class GenerationFile {
+
+	/**
+	 * Marks a binary generation file; "GENB".
+	 */
+	public static final int MAGIC = 0x47454E42;
+	/**
+	 * Current format version.
+	 */
+	public static final short VERSION = 2;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private int generation;
+	private long seed;
+	private boolean hasSeed;
+	private String[] mazeTitles;
+	private int population;
+	private int geneWidth;
+	private int geneCount;
+
+	/**
+	 * Bytes per packed chromosome.
+	 */
+	private int stride;
+	/**
+	 * Offset of the first packed chromosome.
+	 */
+	private int dataStart;
+	/**
+	 * The mapped file.
+	 */
+	private ByteBuffer data;
+
+	/**
+	 * Use {@link open(File)}.
+	 */
+	private GenerationFile() {
+	}
+
+	/**
+	 * Tests if a file is in the binary format, by its magic number.
+	 *
+	 * @param	fn	The file to test.
+	 * @return		True if the file starts with {@link MAGIC}, false otherwise (including too short to tell).
+	 * @throws	IOException if the file cannot be read.
+	 */
+	public static boolean isBinary(File fn) throws IOException {
+		if (fn.length() < 4) {
+			return false;
+		}
+
+		DataInputStream in = new DataInputStream( new FileInputStream( fn ) );
+
+		try {
+			return in.readInt() == MAGIC;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Maps a binary generation file and reads its header.
+	 *
+	 * @param	fn	The file to open.
+	 * @return		The generation; chromosomes are decoded on demand.
+	 * @throws	IOException if the file cannot be read, is not a binary generation file, or is a version this
+	 *				  code does not understand.
+	 */
+	public static GenerationFile open(File fn) throws IOException {
+		GenerationFile gf = new GenerationFile();
+
+		FileInputStream fis = new FileInputStream( fn );
+
+		try {
+			FileChannel ch = fis.getChannel();
+			MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // stays valid after close.
+
+			gf.readHeader(buf);
+		} finally {
+			fis.close();
+		}
+
+		return gf;
+	}
+
+	/**
+	 * Reads a generation held in a buffer, such as a record of a {@link GenerationArchive}.
+	 *
+	 * @param	buf	The generation, in the binary format, from its position to its limit. Not copied.
+	 * @return		The generation; chromosomes are decoded on demand.
+	 * @throws	IOException if the buffer does not hold a binary generation this code understands.
+	 */
+	public static GenerationFile read(ByteBuffer buf) throws IOException {
+		GenerationFile gf = new GenerationFile();
+
+		gf.readHeader(buf.slice());
+
+		return gf;
+	}
+
+	/**
+	 * Parses the header, leaving the buffer ready for chromosome reads.
+	 *
+	 * @param	buf	The whole file.
+	 * @throws	IOException if the header is malformed.
+	 */
+	private void readHeader(ByteBuffer buf) throws IOException {
+		try {
+			if (buf.getInt() != MAGIC) {
+				throw new IOException("Not a binary generation file.");
+			}
+
+			short version = buf.getShort();
+
+			if (version < 1 || version > VERSION) {
+				throw new IOException("Unsupported generation file version " + version);
+			}
+
+			generation = buf.getInt();
+			hasSeed = version >= 2;
+			seed = hasSeed ? buf.getLong() : 0L;
+			mazeTitles = readTitles(buf);
+
+			population = buf.getInt();
+			geneWidth = buf.getInt();
+			geneCount = buf.getInt();
+		} catch (java.nio.BufferUnderflowException bue) {
+			throw new IOException("Truncated generation file header.");
+		}
+
+		stride = packedSize(geneCount, geneWidth);
+		dataStart = buf.position();
+		data = buf;
+
+		if ( (long) dataStart + (long) stride * population > buf.limit() ) {
+			throw new IOException("Truncated generation file, expected " + population + " chromosomes.");
+		}
+	}
+
+	/**
+	 * Bytes needed to pack one chromosome.
+	 *
+	 * @param	genes	Genes per chromosome.
+	 * @param	width	Bits per gene.
+	 * @return			Packed size, in bytes.
+	 */
+	static int packedSize(int genes, int width) {
+		return (int) ( ( (long) genes * width + 7 ) / 8 );
+	}
+
+	/**
+	 * The generation number.
+	 *
+	 * @return	the generation saved in this file.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * The run's random seed.
+	 *
+	 * @return	the seed saved with this generation; 0 if none was.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Whether a seed was saved with this generation. Version 1 files, and deltas over them, have none.
+	 *
+	 * @return	true if {@link getSeed()} is the run's seed, false if it is only a placeholder 0.
+	 */
+	public boolean hasSeed() {
+		return hasSeed;
+	}
+
+	/**
+	 * The titles of the mazes this generation trained against, as {@link SimulationMap#getTitle()}.
+	 *
+	 * @return	the maze titles, in maze order.
+	 */
+	public String[] getMazeTitles() {
+		return mazeTitles.clone();
+	}
+
+	/**
+	 * The number of chromosomes saved.
+	 *
+	 * @return	the population size.
+	 */
+	public int getPopulation() {
+		return population;
+	}
+
+	/**
+	 * The size of every gene.
+	 *
+	 * @return	bits per gene.
+	 */
+	public int getGeneWidth() {
+		return geneWidth;
+	}
+
+	/**
+	 * The size of every chromosome.
+	 *
+	 * @return	genes per chromosome.
+	 */
+	public int getGeneCount() {
+		return geneCount;
+	}
+
+	/**
+	 * Decodes one gene straight from the file.
+	 *
+	 * @param	bug		Which chromosome, [0, population).
+	 * @param	gene	Which gene of it, [0, geneCount).
+	 * @param	out		Filled with the gene's bits; at least {@link getGeneWidth()} long.
+	 */
+	public void readGene(int bug, int gene, boolean[] out) {
+		long bit = (long) gene * geneWidth;
+		int base = dataStart + bug * stride;
+
+		for (int a = 0; a < geneWidth; a++, bit++) {
+			out[a] = ( data.get( base + (int) (bit >>> 3) ) & ( 0x80 >>> (int) (bit & 7) ) ) != 0;
+		}
+	}
+
+	/**
+	 * Builds the {@link Chromosome} of one bug.
+	 *
+	 * @param	bug		Which chromosome, [0, population).
+	 * @return			A new Chromosome.
+	 */
+	public Chromosome toChromosome(int bug) {
+		if (bug < 0 || bug >= population) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Chromosome ret = new Chromosome();
+		boolean[] scratch = new boolean[geneWidth];
+
+		for (int g = 0; g < geneCount; g++) {
+			readGene(bug, g, scratch);
+			ret.addGene(new Gene(scratch)); // Gene copies the array.
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Writes a generation in the binary format.
+	 *
+	 * @param	fn			The file to write.
+	 * @param	generation	The generation number.
+	 * @param	seed		The run's random seed.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	Every bug's chromosome. All must have the same number of genes, all of the same width.
+	 * @throws	IOException if the file cannot be written.
+	 * @throws	IllegalArgumentException if the chromosomes are not all the same shape.
+	 */
+	public static void write(File fn, int generation, long seed, String[] mazeTitles, Chromosome[] population)
+			throws IOException {
+		OutputStream out = new FileOutputStream( fn );
+
+		try {
+			write(out, generation, seed, mazeTitles, population);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes a generation in the binary format to a stream. The stream is flushed but left open.
+	 *
+	 * @param	os			Where to write.
+	 * @param	generation	The generation number.
+	 * @param	seed		The run's random seed.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	Every bug's chromosome. All must have the same number of genes, all of the same width.
+	 * @throws	IOException if the stream fails.
+	 * @throws	IllegalArgumentException if the chromosomes are not all the same shape.
+	 */
+	public static void write(OutputStream os, int generation, long seed, String[] mazeTitles, Chromosome[] population)
+			throws IOException {
+		write(os, generation, true, seed, mazeTitles, population);
+	}
+
+	/**
+	 * Writes a generation in the binary format to a stream; without a seed, as version 1.
+	 */
+	private static void write(OutputStream os, int generation, boolean hasSeed, long seed, String[] mazeTitles,
+			Chromosome[] population) throws IOException {
+		int genes = (population.length > 0) ? population[0].numGenes() : 0;
+		int width = (genes > 0) ? population[0].getGene(0).encodingFieldSize() : 0;
+
+		byte[] packed = new byte[packedSize(genes, width)];
+
+		DataOutputStream out = new DataOutputStream( new BufferedOutputStream( os ) );
+
+		writeHeader(out, generation, hasSeed, seed, mazeTitles, population.length, width, genes);
+
+		for (Chromosome c : population) {
+			pack(c, genes, width, packed);
+			out.write(packed);
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * Writes everything up to the packed chromosomes. Without a seed, the header is version 1's.
+	 */
+	private static void writeHeader(DataOutputStream out, int generation, boolean hasSeed, long seed,
+			String[] mazeTitles, int population, int width, int genes) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeShort(hasSeed ? VERSION : 1);
+		out.writeInt(generation);
+
+		if (hasSeed) {
+			out.writeLong(seed);
+		}
+
+		writeTitles(out, mazeTitles);
+		out.writeInt(population);
+		out.writeInt(width);
+		out.writeInt(genes);
+	}
+
+	/**
+	 * Writes a count of maze titles, then each as a length and UTF-8 bytes.
+	 *
+	 * @param	out			Where to write.
+	 * @param	mazeTitles	The titles.
+	 * @throws	IOException if the stream fails.
+	 */
+	static void writeTitles(DataOutputStream out, String[] mazeTitles) throws IOException {
+		out.writeInt(mazeTitles.length);
+
+		for (String title : mazeTitles) {
+			byte[] b = title.getBytes(UTF8);
+			out.writeShort(b.length);
+			out.write(b);
+		}
+	}
+
+	/**
+	 * Reads maze titles written by {@link writeTitles(DataOutputStream, String[])}.
+	 *
+	 * @param	buf	Positioned at the title count; left just past the last title.
+	 * @return		The titles.
+	 */
+	static String[] readTitles(ByteBuffer buf) {
+		String[] titles = new String[buf.getInt()];
+
+		for (int i = 0; i < titles.length; i++) {
+			byte[] title = new byte[buf.getShort() & 0xFFFF];
+			buf.get(title);
+			titles[i] = new String(title, UTF8);
+		}
+
+		return titles;
+	}
+
+	/**
+	 * Packs a chromosome's bits, most significant bit first.
+	 *
+	 * @param	c		The chromosome.
+	 * @param	genes	The number of genes it must have.
+	 * @param	width	The number of bits each gene must have.
+	 * @param	packed	Filled with the packed bits; {@link packedSize(int, int)} long.
+	 * @throws	IllegalArgumentException if the chromosome is not that shape.
+	 */
+	static void pack(Chromosome c, int genes, int width, byte[] packed) {
+		if (c.numGenes() != genes) {
+			throw new IllegalArgumentException("Every chromosome must have " + genes + " genes.");
+		}
+
+		java.util.Arrays.fill(packed, (byte) 0);
+
+		long bit = 0;
+
+		for (int g = 0; g < genes; g++) {
+			boolean[] vals = c.getGene(g).getGene();
+
+			if (vals.length != width) {
+				throw new IllegalArgumentException("Every gene must be " + width + " bits wide.");
+			}
+
+			for (int a = 0; a < width; a++, bit++) {
+				if (vals[a]) {
+					packed[(int) (bit >>> 3)] |= (byte) ( 0x80 >>> (int) (bit & 7) );
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds a generation from chromosomes that are already packed.
+	 *
+	 * @param	generation	The generation number.
+	 * @param	seed		The run's random seed.
+	 * @param	hasSeed		Whether seed is the run's seed, rather than a placeholder for none.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	The number of chromosomes.
+	 * @param	width		Bits per gene.
+	 * @param	genes		Genes per chromosome.
+	 * @param	packed		The packed chromosomes, one after another, each {@link packedSize(int, int)} bytes.
+	 * @return				The generation.
+	 * @throws	IOException if packed is too short.
+	 */
+	static GenerationFile wrap(int generation, long seed, boolean hasSeed, String[] mazeTitles, int population,
+			int width, int genes, byte[] packed) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(packed.length + 64);
+		DataOutputStream out = new DataOutputStream( bytes );
+
+		writeHeader(out, generation, hasSeed, seed, mazeTitles, population, width, genes);
+		out.write(packed);
+		out.flush();
+
+		return read(ByteBuffer.wrap(bytes.toByteArray()));
+	}
+
+	/**
+	 * Bytes needed to pack one chromosome of this generation.
+	 *
+	 * @return	Packed chromosome size, in bytes.
+	 */
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Copies one chromosome's packed bits.
+	 *
+	 * @param	bug		Which chromosome, [0, population).
+	 * @param	out		Where to copy to; {@link getStride()} bytes from off.
+	 * @param	off		Offset into out.
+	 */
+	public void copyPacked(int bug, byte[] out, int off) {
+		ByteBuffer view = data.duplicate();
+
+		view.position(dataStart + bug * stride);
+		view.get(out, off, stride);
+	}
+
+	/**
+	 * Writes a generation in the original text format: CRLF lines of the generation, maze count, each maze title,
+	 *   bug count, then one {@link Chromosome#toEncodedString()} per bug.
+	 *
+	 * @param	fn			The file to write.
+	 * @param	generation	The generation number.
+	 * @param	mazeTitles	Titles of the mazes trained against.
+	 * @param	population	Every bug's chromosome.
+	 * @throws	IOException if the file cannot be written.
+	 */
+	public static void writeText(File fn, int generation, String[] mazeTitles, Chromosome[] population) throws IOException {
+		BufferedWriter out = new BufferedWriter( new FileWriter( fn ) );
+
+		try {
+			out.write(String.valueOf(generation) + "\r\n");
+			out.write(String.valueOf(mazeTitles.length) + "\r\n");
+
+			for (String title : mazeTitles) {
+				out.write(title + "\r\n");
+			}
+
+			out.write(String.valueOf(population.length) + "\r\n");
+
+			for (Chromosome c : population) {
+				out.write(c.toEncodedString() + "\r\n");
+			}
+
+			out.flush();
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Converts a text generation file to binary. Chromosomes are decoded exactly as {@link Simulation} has
+	 *   always loaded them.
+	 *
+	 * @param	text	The text file to read.
+	 * @param	binary	The binary file to write.
+	 * @throws	IOException if either file fails, or the text file is malformed.
+	 */
+	public static void toBinary(File text, File binary) throws IOException {
+		BufferedReader in = new BufferedReader( new FileReader( text ) );
+
+		try {
+			int gen = Integer.parseInt(in.readLine());
+			String[] titles = new String[Integer.parseInt(in.readLine())];
+
+			for (int i = 0; i < titles.length; i++) {
+				titles[i] = in.readLine();
+			}
+
+			Chromosome[] pop = new Chromosome[Integer.parseInt(in.readLine())];
+
+			for (int i = 0; i < pop.length; i++) {
+				pop[i] = new Chromosome();
+				pop[i].setGenesEncoded(in.readLine());
+			}
+
+			OutputStream out = new FileOutputStream( binary );
+
+			try {
+				write(out, gen, false, 0L, titles, pop); // text carries no seed.
+			} finally {
+				out.close();
+			}
+		} catch (NumberFormatException nfe) {
+			throw new IOException("Malformed text generation file: " + nfe.getMessage());
+		} catch (NullPointerException npe) {
+			throw new IOException("Truncated text generation file.");
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Converts a binary generation file to text.
+	 *
+	 * @param	binary	The binary file to read.
+	 * @param	text	The text file to write.
+	 * @throws	IOException if either file fails, or the binary file is malformed.
+	 */
+	public static void toText(File binary, File text) throws IOException {
+		GenerationFile gf = open(binary);
+
+		Chromosome[] pop = new Chromosome[gf.getPopulation()];
+
+		for (int i = 0; i < pop.length; i++) {
+			pop[i] = gf.toChromosome(i);
+		}
+
+		writeText(text, gf.getGeneration(), gf.mazeTitles, pop);
+	}
+
+	/**
+	 * Converter. Reads a generation file in either format and writes it out in the other.
+	 *
+	 * @param	args	The file to read, then the file to write.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.out.println("Usage: GenerationFile <in.gen> <out.gen>");
+			System.out.println("  Converts a text generation file to binary, or a binary one to text.");
+			return;
+		}
+
+		File in = new File(args[0]);
+		File out = new File(args[1]);
+
+		try {
+			if (isBinary(in)) {
+				toText(in, out);
+				System.out.println("Wrote text generation " + out);
+			} else {
+				toBinary(in, out);
+				System.out.println("Wrote binary generation " + out);
+			}
+		} catch (IOException e) {
+			System.out.println("File error" + e.toString() );
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.programmerdan.ai.maze;
+
+import java.io.File;
+
+/**
+ * Everything needed to save one generation, taken at the generation boundary so it can be written while the
+ *   simulation carries on. All arrays are private copies, and {@link Chromosome}s and {@link Lineage}s are never
+ *   changed once a generation is bred, so a snapshot can be handed to another thread as is.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link GenerationWriter}
+ */
+public final class GenerationSnapshot {
+
+	/**
+	 * The generation number.
+	 */
+	public final int generation;
+	/**
+	 * The run's random seed.
+	 */
+	public final long seed;
+	/**
+	 * Maze titles, in maze order.
+	 */
+	public final String[] titles;
+	/**
+	 * Every bug's chromosome.
+	 */
+	public final Chromosome[] dna;
+	/**
+	 * How each bug was bred from generation {@link lineageBase}, or null if unknown.
+	 */
+	public final Lineage[] lineage;
+	/**
+	 * The generation lineage parent indexes refer to.
+	 */
+	public final int lineageBase;
+
+	/**
+	 * Per maze statistics file to append a row to; null entries (or a null array) get no row.
+	 */
+	public final File[] statistics;
+
+	public final double[] minFitness;
+	public final double[] maxFitness;
+	public final double[] avgFitness;
+
+	public final double[] minProgress;
+	public final double[] maxProgress;
+	public final double[] avgProgress;
+
+	public final long[] minStep;
+	public final long[] maxStep;
+	public final double[] avgStep;
+
+	/**
+	 * Builds a snapshot, copying every array passed in.
+	 *
+	 * @param	generation	The generation number.
+	 * @param	seed		The run's random seed.
+	 * @param	titles		Maze titles.
+	 * @param	dna			Every bug's chromosome.
+	 * @param	lineage		Every bug's lineage, or null.
+	 * @param	lineageBase	The generation lineage refers to.
+	 * @param	statistics	Per maze statistics files, or null.
+	 * @param	fitness		Per maze min, max and average fitness.
+	 * @param	progress	Per maze min, max and average path progress.
+	 * @param	minStep		Per maze fewest steps to solve.
+	 * @param	maxStep		Per maze most steps to solve.
+	 * @param	avgStep		Per maze average steps to solve.
+	 */
+	public GenerationSnapshot(int generation, long seed, String[] titles, Chromosome[] dna, Lineage[] lineage,
+			int lineageBase, File[] statistics, double[][] fitness, double[][] progress, long[] minStep, long[] maxStep,
+			double[] avgStep) {
+		this.generation = generation;
+		this.seed = seed;
+		this.titles = titles.clone();
+		this.dna = dna.clone();
+		this.lineage = (lineage == null) ? null : lineage.clone();
+		this.lineageBase = lineageBase;
+		this.statistics = (statistics == null) ? null : statistics.clone();
+
+		this.minFitness = fitness[0].clone();
+		this.maxFitness = fitness[1].clone();
+		this.avgFitness = fitness[2].clone();
+
+		this.minProgress = progress[0].clone();
+		this.maxProgress = progress[1].clone();
+		this.avgProgress = progress[2].clone();
+
+		this.minStep = minStep.clone();
+		this.maxStep = maxStep.clone();
+		this.avgStep = avgStep.clone();
+	}
+}
@@ -0,0 +1,180 @@
+package com.programmerdan.ai.maze;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Saves generations on a background thread, so the simulation can start on the next generation as soon as it has
+ *   bred it instead of waiting on the disk.
+ *
+ * Snapshots are queued in a small bounded queue and written in order. If the disk falls so far behind that the
+ *   queue is full, {@link submit(GenerationSnapshot)} waits for room rather than let unsaved generations pile up in
+ *   memory. {@link flush()} is the durability barrier: when it returns, everything submitted before it is written.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+public class GenerationWriter implements Runnable {
+
+	/**
+	 * Does the actual writing; called on the writer thread, one snapshot at a time.
+	 */
+	public interface Persister {
+		/**
+		 * Write one generation.
+		 *
+		 * @param	snap	The generation to write.
+		 * @throws	IOException if writing fails; it is reported and the writer moves on.
+		 */
+		public void persist(GenerationSnapshot snap) throws IOException;
+	}
+
+	/**
+	 * Default number of generations that can wait to be written.
+	 */
+	public static final int DEFAULT_CAPACITY = 4;
+
+	/**
+	 * Queued in place of a snapshot to stop the thread.
+	 */
+	private static final GenerationSnapshot STOP = new GenerationSnapshot(-1, 0L, new String[0], new Chromosome[0],
+			null, -1, null, new double[3][0], new double[3][0], new long[0], new long[0], new double[0]);
+
+	private final Persister persister;
+	private final BlockingQueue<GenerationSnapshot> queue;
+	private final Thread thread;
+
+	/**
+	 * Guards {@link submitted} and {@link written}.
+	 */
+	private final Object lock = new Object();
+	private long submitted = 0;
+	private long written = 0;
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Starts a writer.
+	 *
+	 * @param	name		Name for the writer thread.
+	 * @param	persister	Writes each snapshot.
+	 * @param	capacity	How many snapshots can wait to be written.
+	 */
+	public GenerationWriter(String name, Persister persister, int capacity) {
+		this.persister = persister;
+		this.queue = new ArrayBlockingQueue<GenerationSnapshot>(capacity);
+
+		thread = new Thread(this, name);
+		thread.setDaemon(true); // a shutdown hook calling close() is what makes exit wait.
+		thread.start();
+	}
+
+	/**
+	 * Queues a generation to be written, waiting for room if the queue is full.
+	 *
+	 * @param	snap	The generation to write.
+	 * @throws	IllegalStateException if the writer is closed.
+	 */
+	public void submit(GenerationSnapshot snap) {
+		if (closed) {
+			throw new IllegalStateException("Generation writer is closed.");
+		}
+
+		synchronized (lock) {
+			submitted++;
+		}
+
+		put(snap);
+	}
+
+	private void put(GenerationSnapshot snap) {
+		boolean interrupted = false;
+
+		while (true) {
+			try {
+				queue.put(snap);
+				break;
+			} catch (InterruptedException ie) {
+				interrupted = true; // a save must not be dropped; keep trying, then pass the interrupt on.
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until every snapshot submitted so far has been written.
+	 */
+	public void flush() {
+		synchronized (lock) {
+			long target = submitted;
+			boolean interrupted = false;
+
+			while (written < target && thread.isAlive()) {
+				try {
+					lock.wait(100);
+				} catch (InterruptedException ie) {
+					interrupted = true;
+				}
+			}
+
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Writes everything queued, then stops the writer thread. Safe to call more than once.
+	 */
+	public void close() {
+		if (!closed) {
+			closed = true;
+			put(STOP);
+		}
+
+		flush();
+
+		try {
+			thread.join();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The writer thread.
+	 */
+	@Override
+	public void run() {
+		while (true) {
+			GenerationSnapshot snap;
+
+			try {
+				snap = queue.take();
+			} catch (InterruptedException ie) {
+				continue; // only close() stops the writer, so nothing queued is lost.
+			}
+
+			if (snap == STOP) {
+				return;
+			}
+
+			try {
+				persister.persist(snap);
+			} catch (IOException e) {
+				System.out.println("File error" + e.toString() );
+			} catch (RuntimeException re) {
+				System.out.println("Failed to save generation " + snap.generation + ": " + re.toString() );
+			}
+
+			synchronized (lock) {
+				written++;
+				lock.notifyAll();
+			}
+		}
+	}
+}
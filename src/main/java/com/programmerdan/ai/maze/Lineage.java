@@ -0,0 +1,189 @@
+package com.programmerdan.ai.maze;
+
+/**
+ * How one bug's {@link Chromosome} was bred from the previous generation: which parents it came from, and every
+ *   random choice made along the way (crossover start and points, mutated bits). Replaying those choices against
+ *   the parents rebuilds the chromosome exactly, so a generation can be stored as lineage instead of in full.
+ *
+ * Parents are positions in the previous generation, as saved.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link GenerationDelta}
+ */
+public class Lineage {
+
+	/**
+	 * How a chromosome came to be.
+	 */
+	public enum Kind {
+		/** No parents; the chromosome has to be stored in full. */
+		RANDOM,
+		/** A copy of one parent. */
+		CLONE,
+		/** A crossover of two parents. */
+		CROSS
+	}
+
+	private static final int[] NONE = new int[0];
+
+	private Kind kind;
+	private int first;
+	private int second;
+
+	private boolean startFirst = true;
+	private int[] crosspoints = NONE;
+
+	/**
+	 * Mutations, as gene, bit pairs, in the order applied.
+	 */
+	private int[] mutations = NONE;
+	private int numMutations = 0;
+
+	/**
+	 * Lineage of a chromosome with no parents.
+	 */
+	public Lineage() {
+		this(Kind.RANDOM, -1, -1);
+	}
+
+	/**
+	 * Lineage of a clone.
+	 *
+	 * @param	parent	Index of the parent in the previous generation.
+	 */
+	public Lineage(int parent) {
+		this(Kind.CLONE, parent, -1);
+	}
+
+	/**
+	 * Lineage of a crossover.
+	 *
+	 * @param	first	Index of the first parent (the one crossover was called on) in the previous generation.
+	 * @param	second	Index of the second parent in the previous generation.
+	 */
+	public Lineage(int first, int second) {
+		this(Kind.CROSS, first, second);
+	}
+
+	private Lineage(Kind kind, int first, int second) {
+		this.kind = kind;
+		this.first = first;
+		this.second = second;
+	}
+
+	/**
+	 * Notes the choices of a crossover; see {@link Chromosome#crossover(Chromosome, boolean, int[])}.
+	 *
+	 * @param	startFirst	True if the child starts with genes from the first parent.
+	 * @param	crosspoints	Sorted gene indexes at which the source swaps. Copied.
+	 */
+	public void recordCrossover(boolean startFirst, int[] crosspoints) {
+		this.startFirst = startFirst;
+		this.crosspoints = crosspoints.clone();
+	}
+
+	/**
+	 * Notes a mutation; see {@link Chromosome#mutate(int, int)}.
+	 *
+	 * @param	gene	The gene mutated.
+	 * @param	bit		The bit of that gene flipped.
+	 */
+	public void recordMutation(int gene, int bit) {
+		if (numMutations * 2 == mutations.length) {
+			int[] grown = new int[Math.max(2, mutations.length * 2)];
+			System.arraycopy(mutations, 0, grown, 0, mutations.length);
+			mutations = grown;
+		}
+
+		mutations[numMutations * 2] = gene;
+		mutations[numMutations * 2 + 1] = bit;
+		numMutations++;
+	}
+
+	/**
+	 * @return	how the chromosome came to be.
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return	the (first) parent's index, or -1 if there is none.
+	 */
+	public int getFirst() {
+		return first;
+	}
+
+	/**
+	 * @return	the second parent's index, or -1 if there is none.
+	 */
+	public int getSecond() {
+		return second;
+	}
+
+	/**
+	 * @return	true if a crossover child starts with genes from the first parent.
+	 */
+	public boolean startsFirst() {
+		return startFirst;
+	}
+
+	/**
+	 * @return	the crossover points, sorted; empty unless a crossover.
+	 */
+	public int[] getCrosspoints() {
+		return crosspoints.clone();
+	}
+
+	/**
+	 * @return	the number of mutations applied after cloning or crossover.
+	 */
+	public int numMutations() {
+		return numMutations;
+	}
+
+	/**
+	 * @param	m	Which mutation, in the order applied.
+	 * @return		the gene it mutated.
+	 */
+	public int getMutationGene(int m) {
+		return mutations[m * 2];
+	}
+
+	/**
+	 * @param	m	Which mutation, in the order applied.
+	 * @return		the bit of the gene it flipped.
+	 */
+	public int getMutationBit(int m) {
+		return mutations[m * 2 + 1];
+	}
+
+	/**
+	 * Rebuilds the chromosome this lineage describes.
+	 *
+	 * @param	parents	The previous generation, as saved.
+	 * @return			A new Chromosome.
+	 * @throws	IllegalStateException if this lineage has no parents to rebuild from.
+	 */
+	public Chromosome replay(Chromosome[] parents) {
+		Chromosome ret;
+
+		switch (kind) {
+			case CLONE:
+				ret = parents[first].clone();
+				break;
+			case CROSS:
+				ret = parents[first].crossover(parents[second], startFirst, crosspoints);
+				break;
+			default:
+				throw new IllegalStateException("Random chromosomes cannot be replayed.");
+		}
+
+		for (int m = 0; m < numMutations; m++) {
+			ret.getGene(getMutationGene(m)).flip(getMutationBit(m));
+		}
+
+		return ret;
+	}
+}
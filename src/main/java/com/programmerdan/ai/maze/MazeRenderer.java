@@ -0,0 +1,312 @@
+package com.programmerdan.ai.maze;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the simulation from {@link RenderFrame}s. Everything that does not change while the mazes are up -- walls,
+ *   path lines, start and finish zones, and the labels of the figures table -- is drawn once into an image of the
+ *   panel's size and reused until the size changes; each frame only adds the bugs and the figures.
+ *
+ * Bug colours come from a fixed palette over fitness, so drawing allocates no colours. Drawing through a scaled
+ *   Graphics2D, as for a larger export, draws the static layer at the scaled resolution, so it stays sharp.
+ *
+ * A level of detail frame (see {@link RenderFrame}) is drawn as a heatmap over each maze, with only its fittest bugs
+ *   drawn individually. Each frame's density is added into a per maze raster of the same grid after the raster fades
+ *   a little, so where bugs have been lingers as a trail; the cost of a frame depends on the grid, not on the
+ *   population.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link Simulation}
+ */
+public class MazeRenderer {
+
+	/**
+	 * Share of the trail raster kept from one frame to the next.
+	 */
+	public static final float TRAIL_FADE = 0.9f;
+
+	private static final int SHADES = 256;
+	private static final double HEADING = 4; // heading lines are this many steps long.
+
+	private final int mazes;
+	private final SimpleLine[][] walls;
+	private final SimpleLine[][] paths;
+	private final double[] nearThreshold;
+	private final double[] pathLength;
+
+	private final double[] scale;
+	private final double[] xOffset;
+	private final double[] yOffset;
+	private final int border;
+
+	private final Color[] shade = new Color[SHADES];
+	private final Color[] darkShade = new Color[SHADES];
+
+	private BufferedImage staticLayer;
+
+	private RenderFrame heatFrame;		// the last frame added to the trail rasters.
+	private float[][] heat;				// per maze, faded density per cell.
+	private BufferedImage[] heatImage;
+	private int[] heatPixels;
+
+	/**
+	 * Takes what it needs from the mazes; they are not read again.
+	 *
+	 * @param	maze	The mazes.
+	 * @param	scale	Per maze, pixels per maze unit.
+	 * @param	xOffset	Per maze, X pixel offset.
+	 * @param	yOffset	Per maze, Y pixel offset.
+	 * @param	border	Pixel border added to every offset.
+	 * @param	low		RGB of the least fit colour.
+	 * @param	span	RGB change from the least to the most fit colour.
+	 */
+	public MazeRenderer(SimulationMap[] maze, double[] scale, double[] xOffset, double[] yOffset, int border,
+			float[] low, float[] span) {
+		this.mazes = maze.length;
+		this.walls = new SimpleLine[mazes][];
+		this.paths = new SimpleLine[mazes][];
+		this.nearThreshold = new double[mazes];
+		this.pathLength = new double[mazes];
+
+		for (int j = 0; j < mazes; j++) {
+			walls[j] = maze[j].getWalls();
+			paths[j] = maze[j].getPaths();
+			nearThreshold[j] = maze[j].getNearThreshold();
+			pathLength[j] = maze[j].getPathLength();
+		}
+
+		this.scale = scale.clone();
+		this.xOffset = xOffset.clone();
+		this.yOffset = yOffset.clone();
+		this.border = border;
+
+		for (int k = 0; k < SHADES; k++) {
+			float t = (float) k / (float) (SHADES - 1);
+
+			shade[k] = new Color(clamp(low[0] + t * span[0]), clamp(low[1] + t * span[1]), clamp(low[2] + t * span[2]));
+			darkShade[k] = shade[k].darker();
+		}
+	}
+
+	private static float clamp(float c) {
+		return Math.max(0f, Math.min(1f, c));
+	}
+
+	private int px(int maze, double x) {
+		return (int) xOffset[maze] + border + (int) (scale[maze] * x);
+	}
+
+	private int py(int maze, double y) {
+		return (int) yOffset[maze] + border + (int) (scale[maze] * y);
+	}
+
+	/**
+	 * @param	fitness		A fitness, 0 to 1.
+	 * @return				its palette entry.
+	 */
+	protected int shadeOf(double fitness) {
+		return (int) Math.max(0, Math.min(SHADES - 1, Math.round(fitness * (SHADES - 1))));
+	}
+
+	/**
+	 * Draws a frame.
+	 *
+	 * @param	g2		Where to draw.
+	 * @param	frame	The frame.
+	 * @param	width	Width of the area drawn.
+	 * @param	height	Height of the area drawn.
+	 * @param	labels	true to label each bug with its index, as when paused.
+	 */
+	public void draw(Graphics2D g2, RenderFrame frame, int width, int height, boolean labels) {
+		g2.setFont(g2.getFont().deriveFont(10f)); // sets the font to size 8.
+
+		int m = g2.getFontMetrics().getAscent(); // sets the multipler for font spacing.
+
+		AffineTransform t = g2.getTransform();
+
+		g2.drawImage(staticLayer(g2.getFont(), width, height, t.getScaleX(), t.getScaleY()), 0, 0, width, height, null);
+
+		g2.setColor(Color.BLACK);
+		g2.drawString(Integer.toString(frame.step), 10,m);
+		g2.drawString(Integer.toString(frame.generation), 10,2*m);
+
+		if (!frame.isDetailed()) {
+			drawHeat(g2, frame);
+		}
+
+		drawBugs(g2, frame, labels);
+
+		g2.setColor(Color.BLACK);
+
+		for (int e = 0; e < mazes; e++) {
+			g2.drawString(Integer.toString(frame.actors[e]), border + e * 100,3*m);
+			g2.drawString(Double.toString(Math.round(frame.avgPath[e] * 100000.0) / 100000.0), border + e * 100,5*m);
+			g2.drawString(Double.toString(Math.round(frame.maxPath[e] * 100000.0) / 100000.0), border + e * 100,6*m);
+			g2.drawString(Double.toString(Math.round(frame.avgProgress[e] * 100000.0) / 1000.0), border + e * 100,7*m);
+			g2.drawString(Double.toString(Math.round(frame.maxProgress[e] * 100000.0) / 1000.0), border + e * 100,8*m);
+			g2.drawString(Double.toString(Math.round(frame.avgFitness[e] * 100000.0) / 1000.0), border + e * 100,9*m);
+			g2.drawString(Double.toString(Math.round(frame.maxFitness[e] * 100000.0) / 1000.0), border + e * 100,10*m);
+		}
+	}
+
+	/**
+	 * Draws every bug in a frame: a dot coloured by fitness, and a line along its heading.
+	 */
+	protected void drawBugs(Graphics2D g2, RenderFrame frame, boolean labels) {
+		for (int k = 0; k < frame.count; k++) {
+			int e = frame.maze[k];
+			double x = frame.x[k];
+			double y = frame.y[k];
+			int s = shadeOf(frame.fitness[k]);
+
+			g2.setColor(shade[s]);
+			g2.fillOval(px(e, x - .5), py(e, y - .5), (int) (scale[e] * 1), (int) (scale[e] * 1));
+
+			g2.setColor(darkShade[s]);
+			g2.drawLine(px(e, x), py(e, y), px(e, x + HEADING * frame.vx[k]), py(e, y + HEADING * frame.vy[k]));
+
+			if (labels) {
+				g2.drawString(Integer.toString(frame.bug[k]), px(e, x), py(e, y));
+			}
+		}
+	}
+
+	/**
+	 * Adds a level of detail frame to the trail rasters, if not already, and draws them over the mazes.
+	 */
+	protected void drawHeat(Graphics2D g2, RenderFrame frame) {
+		int grid = frame.grid;
+		int cells = grid * grid;
+
+		if (frame != heatFrame) {
+			boolean fresh = heatFrame == null || heatFrame.generation != frame.generation || heatFrame.grid != grid;
+
+			if (heat == null || heat[0].length != cells) {
+				heat = new float[mazes][cells];
+				heatImage = new BufferedImage[mazes];
+				heatPixels = new int[cells];
+			}
+
+			for (int e = 0; e < mazes; e++) {
+				float[] h = heat[e];
+				int[] d = frame.density[e];
+				float max = 1f;
+
+				for (int c = 0; c < cells; c++) {
+					h[c] = (fresh ? 0f : h[c] * TRAIL_FADE) + d[c];
+					if (h[c] > max) max = h[c];
+				}
+
+				// yellow where bugs have been, to red where most are, on a log scale so a crowded start does not
+				// wash out every other cell; a trail fades out once it is under a twentieth of a bug.
+				double top = Math.log1p(max);
+
+				for (int c = 0; c < cells; c++) {
+					if (h[c] < 0.05f) {
+						heatPixels[c] = 0;
+						continue;
+					}
+
+					float t = (float) (Math.log1p(h[c]) / top);
+					int alpha = 60 + (int) (160f * t);
+					int green = (int) (200f * (1f - t));
+
+					heatPixels[c] = (alpha << 24) | (255 << 16) | (green << 8);
+				}
+
+				if (heatImage[e] == null) {
+					heatImage[e] = new BufferedImage(grid, grid, BufferedImage.TYPE_INT_ARGB);
+				}
+				heatImage[e].setRGB(0, 0, grid, grid, heatPixels, 0, grid);
+			}
+
+			heatFrame = frame;
+		}
+
+		for (int e = 0; e < mazes; e++) {
+			double[] ext = frame.extent[e];
+			int x0 = px(e, ext[0]);
+			int y0 = py(e, ext[2]);
+
+			g2.drawImage(heatImage[e], x0, y0, px(e, ext[1]) - x0, py(e, ext[3]) - y0, null);
+		}
+	}
+
+	/**
+	 * The static layer for an area of this size, at this scale, drawn if not already.
+	 */
+	private BufferedImage staticLayer(Font font, int width, int height, double scaleX, double scaleY) {
+		int w = Math.max(1, (int) Math.ceil(width * scaleX));
+		int h = Math.max(1, (int) Math.ceil(height * scaleY));
+
+		if (staticLayer == null || staticLayer.getWidth() != w || staticLayer.getHeight() != h) {
+			staticLayer = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+
+			Graphics2D g2 = staticLayer.createGraphics();
+
+			g2.scale(scaleX, scaleY);
+			g2.setColor(Color.WHITE);
+			g2.fillRect(0, 0, width, height);
+			g2.setFont(font);
+
+			drawStatic(g2, g2.getFontMetrics().getAscent());
+
+			g2.dispose();
+		}
+
+		return staticLayer;
+	}
+
+	private void drawStatic(Graphics2D g2, int m) {
+		for (int b = 0; b < mazes; b++) {
+			g2.setColor(Color.BLACK);
+
+			for (SimpleLine l : walls[b]) {
+				g2.drawLine(px(b, l.x1()), py(b, l.y1()), px(b, l.x2()), py(b, l.y2()));
+			}
+
+			g2.setColor(Simulation.lightBlue);
+
+			for (SimpleLine l : paths[b]) {
+				g2.drawLine(px(b, l.x1()), py(b, l.y1()), px(b, l.x2()), py(b, l.y2()));
+			}
+
+			// draw first and last "zone"
+
+			if (paths[b].length > 0) {
+				int d = (int) (2.0 * nearThreshold[b] * scale[b]);
+				SimpleLine first = paths[b][0];
+				SimpleLine last = paths[b][paths[b].length - 1];
+
+				g2.setColor(Color.GREEN);
+				g2.drawOval(px(b, first.x1() - nearThreshold[b]), py(b, first.y1() - nearThreshold[b]), d, d);
+
+				g2.setColor(Color.BLUE);
+				g2.drawOval(px(b, last.x2() - nearThreshold[b]), py(b, last.y2() - nearThreshold[b]), d, d);
+			}
+		}
+
+		g2.setColor(Color.BLACK);
+
+		g2.drawString("Active:", border,m);
+
+		g2.drawString("Maze:", border - 50,2*m);
+
+		g2.drawString("Actors:", border - 50,3*m);
+		g2.drawString("Path:", border - 50,4*m);
+		g2.drawString("AvgPath:", border - 50,5*m);
+		g2.drawString("MaxPath:", border - 50,6*m);
+		g2.drawString("AvgProg:", border - 50,7*m);
+		g2.drawString("MaxProg:", border - 50,8*m);
+		g2.drawString("AvgFit:", border - 50,9*m);
+		g2.drawString("MaxFit:", border - 50,10*m);
+
+		for (int e = 0; e < mazes; e++) {
+			g2.drawString("M" + Integer.toString(e), border + e * 100,2*m);
+			g2.drawString(Double.toString(pathLength[e]), border + e * 100,4*m);
+		}
+	}
+}
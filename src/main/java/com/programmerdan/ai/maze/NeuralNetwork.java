@@ -1,6 +1,7 @@
 package com.programmerdan.ai.maze;
 
 import java.io.*;
+import java.util.Vector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +30,12 @@ import org.slf4j.LoggerFactory;
  *   Initial version.
  * @version 1.01 December 14, 2013
  *   Revised version, improved comments and the like.
+ * @version 1.02 October 19, 2026
+ *   Network state export and import, for checkpoints.
+ * @version 1.03 October 19, 2026
+ *   Dropped a stray debug print drawn at random.
+ * @version 1.04 October 19, 2026
+ *   Network factors can be read into a caller's array, e.g. a fresh one to keep.
  *
  * @see {@link Neuron}
  */
@@ -132,16 +139,30 @@ public class NeuralNetwork
 	 * This debug function returns an array of all the weights and factors in the network at the time of the call.
 	 * It probably won't be useful except where in-depth knowledge of the network construction is available.
 	 *
+	 * The array returned is reused by the next call; see {@link getNetworkFactors(double[])} for one to keep.
+	 *
 	 * @return	an array of doubles, holding all factors. Element 0 is learning, 1 is forgetting, followed
 	 *			  successively by input weights and activation thresholds for each layer, starting with
 	 *            input layer, then hidden layers, finally output layer.
 	 **/
 	public double[] getNetworkFactors()
 	{
-		if (networkFactors == null) {
-			networkFactors = new double[factorSize + diagnosticSize];
+		networkFactors = getNetworkFactors(networkFactors);
+
+		return networkFactors;
+	}
+
+	/**
+	 * As {@link getNetworkFactors()}, but into the given array.
+	 *
+	 * @param	nf	Where to put the factors; if null or the wrong length, a new array is made.
+	 * @return		the array holding the factors.
+	 **/
+	public double[] getNetworkFactors(double[] nf)
+	{
+		if (nf == null || nf.length != factorSize + diagnosticSize) {
+			nf = new double[factorSize + diagnosticSize];
 		}
-		double[] nf = networkFactors;
 
 		nf[0] = alpha;
 		nf[1] = phi;
@@ -187,13 +208,82 @@ public class NeuralNetwork
 			nf[ nfi++ ] = outputLayer[k].getOutput();
 		}
 
-		if (Math.random() < .001) {
-			System.out.println("" + nf.length + ": " + nfi);
+		return nf;
+	}
+
+	/**
+	 * Captures everything about the network that changes as it runs: each Neuron's learned input weights and its
+	 *   current output, input handlers first, then input layer, hidden layers and output layer. Together with the
+	 *   Chromosome the network was built from, this is enough to carry on exactly where it left off.
+	 *
+	 * @return	a new array holding the state of every Neuron, in order.
+	 * @see {@link Neuron#getState(double[], int)}
+	 */
+	public double[] getState()
+	{
+		Neuron[] all = allNeurons();
+
+		int size = 0;
+		for (Neuron n : all)
+			size += n.stateSize();
+
+		double[] state = new double[size];
+
+		int off = 0;
+		for (Neuron n : all)
+			off = n.getState(state, off);
+
+		return state;
+	}
+
+	/**
+	 * Restores state captured by {@link getState()} from a network built the same way.
+	 *
+	 * @param	state	The saved state.
+	 * @throws	IllegalArgumentException if the state does not fit this network.
+	 */
+	public void setState(double[] state)
+	{
+		Neuron[] all = allNeurons();
+
+		int size = 0;
+		for (Neuron n : all)
+			size += n.stateSize();
+
+		if (size != state.length)
+			throw new IllegalArgumentException("Network state has " + state.length + " values, expected " + size);
+
+		int off = 0;
+		for (Neuron n : all)
+			off = n.setState(state, off);
+	}
+
+	/**
+	 * Every Neuron of the network in step order, input handlers first.
+	 */
+	private Neuron[] allNeurons()
+	{
+		Vector<Neuron> all = new Vector<Neuron>();
+
+		for (int k = 0; k < nInputs; k ++)
+			all.add(inputHandlers[k]);
+
+		for (int k = 0; k < nInputs; k ++)
+			all.add(inputLayer[k]);
+
+		if (hasHidden)
+		{
+			for (int k = 0; k < nHidden; k ++)
+			{
+				for (int i = 0; i < hiddenLayers[k].length; i ++)
+					all.add(hiddenLayers[k][i]);
+			}
 		}
 
-		networkFactors = nf;
+		for (int k = 0; k < nOutputs; k ++)
+			all.add(outputLayer[k]);
 
-		return nf;
+		return all.toArray(new Neuron[all.size()]);
 	}
 
 	/**
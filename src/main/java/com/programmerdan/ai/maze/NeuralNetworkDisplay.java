@@ -1,47 +1,105 @@
 package com.programmerdan.ai.maze;
 
-import java.awt.geom.*;
+import java.awt.image.BufferedImage;
 import javax.swing.*;
-import java.util.*;
 import java.awt.*;
 import java.awt.event.*;
 
 /**
  * A display panel for a NeuralNetwork.
  *
+ * The panel never reads a live network. It is handed {@link Snapshot}s, taken on the thread that runs the network,
+ *   and draws the latest into an offscreen image. Only the thresholds, outputs and values whose drawn colour or text
+ *   differs from the snapshot drawn before are redrawn; a snapshot that changes nothing visible costs nothing. The
+ *   weight lines between two layers fan in and cross, so if any of them changes colour the whole band between the
+ *   layers is cleared and redrawn, and the thresholds its lines end on with it.
  *
  * @author Daniel Boston <programmerdan@gmail.com>
  *
  * @version 1.0 Jan 25, 2015
  *   Initial Version
+ * @version 1.01 October 19, 2026
+ *   The network shown can be swapped, so one display serves whichever bug is inspected.
+ * @version 1.02 October 19, 2026
+ *   Draws immutable snapshots instead of the live network, redrawing only what changed; no refresh thread.
  *
  * @see {@link NeuralNetwork}
  */
-public class NeuralNetworkDisplay extends JPanel implements MouseListener, Runnable {
+public class NeuralNetworkDisplay extends JPanel implements MouseListener {
+
+	/**
+	 * An immutable copy of a network's shape, weights, thresholds and outputs, as laid out by
+	 *   {@link NeuralNetwork#getNetworkFactors()}.
+	 */
+	public static final class Snapshot {
+		public final int inputs;
+		public final int hiddens;
+		public final int hiddenSize;
+		public final int outputs;
+
+		private final double[] factors;
+
+		/**
+		 * Copies a network. Call on the thread that runs it.
+		 *
+		 * @param	network		The network.
+		 */
+		public Snapshot(NeuralNetwork network) {
+			inputs = network.getNumInputs();
+			hiddens = network.getNumHidden();
+			hiddenSize = network.getSizeHidden();
+			outputs = network.getNumOutputs();
+
+			factors = network.getNetworkFactors(null); // a new array, not the network's reused one.
+		}
 
-	private boolean running;
-	private boolean active;
+		/**
+		 * @param	other	Another snapshot, or null.
+		 * @return			true if both are of networks of the same shape.
+		 */
+		public boolean sameShape(Snapshot other) {
+			return other != null && other.inputs == inputs && other.hiddens == hiddens
+					&& other.hiddenSize == hiddenSize && other.outputs == outputs && other.factors.length == factors.length;
+		}
+	}
 
-	private NeuralNetwork network;
+	private volatile boolean active;
 
-	public NeuralNetworkDisplay(NeuralNetwork network) {
-		this.network = network;
-		running = true;
+	private volatile Snapshot latest;	// handed over, not yet drawn.
+	private Snapshot drawn;				// in the offscreen image; only touched while painting.
+	private BufferedImage offscreen;
+
+	public NeuralNetworkDisplay() {
 		active = false;
 
 		this.setBackground(Color.WHITE);
 	}
 
+	/**
+	 * Hands over a snapshot to draw at the next repaint; ignored while the display is not active. Safe from any
+	 *   thread.
+	 *
+	 * @param	snap	The snapshot.
+	 */
+	public void show(Snapshot snap) {
+		if (!active) {
+			return;
+		}
+
+		latest = snap;
+		this.repaint();
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
 	public boolean toggleActive() {
 		active = !active;
 
 		return active;
 	}
 
-	public void finished() {
-		running = false;
-	}
-
 	// Fulfill the contract of MouseListener
     public void mousePressed(MouseEvent e) {
     }
@@ -55,164 +113,256 @@ public class NeuralNetworkDisplay extends JPanel implements MouseListener, Runna
     public void mouseExited(MouseEvent e) {
     }
 
-	// Was there a click? Is so, pause the simulation or unpause.
+	// Was there a click? Is so, freeze the display or unfreeze.
     public void mouseClicked(MouseEvent e) {
-		System.out.println(active);
 		if (active)
 			active = false;
 		else
 			active = true;
     }
 
-    public void run() {
-		while (running) {
-			if (active) {
-				this.repaint();
-			}
-			try {
-				Thread.sleep(1000/30);
-			} catch (InterruptedException ie) {
-				// do nothing.
+    public void paint(Graphics g)
+    {
+        super.paint(g); // clears the screen.
+
+		Snapshot snap = latest;
+
+		if (snap == null) {
+			return;
+		}
+
+		int w = Math.max(1, getWidth());
+		int h = Math.max(1, getHeight());
+
+		if (offscreen == null || offscreen.getWidth() != w || offscreen.getHeight() != h) {
+			offscreen = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+			drawn = null;
+		}
+
+		if (snap != drawn) {
+			Graphics2D g2 = offscreen.createGraphics();
+
+			if (!snap.sameShape(drawn)) {
+				g2.setColor(Color.WHITE);
+				g2.fillRect(0, 0, w, h);
+				drawn = null;
 			}
+
+			draw(g2, snap.factors, (drawn == null) ? null : drawn.factors, snap);
+
+			g2.dispose();
+			drawn = snap;
 		}
+
+		g.drawImage(offscreen, 0, 0, null);
 	}
 
-    public void paint(Graphics g)
-    {
-		Graphics2D g2 = (Graphics2D) g;
+	/**
+	 * The colour of a factor scaled to [-1/2, 1/2]: red for negative, green for positive, blue for zero, fading to
+	 *   white towards the ends. Opaque, so redrawing a shape replaces what was there.
+	 */
+	private static int rgb(double factor) {
+		float a = 1f - Math.min(1f, Math.abs((float) factor * 2f));
 
-        super.paint(g2); // clears the screen.
+		int r = (int) (255f * ((factor < 0.0 ? 1f : 0f) * a + (1f - a)));
+		int gr = (int) (255f * ((factor > 0.0 ? 1f : 0f) * a + (1f - a)));
+		int b = (int) (255f * ((factor == 0.0 ? 1f : 0f) * a + (1f - a)));
 
-        g2.setFont(g2.getFont().deriveFont(10f)); // sets the font to size 8.
+		return (r << 16) | (gr << 8) | b;
+	}
 
-        int m = g2.getFontMetrics().getAscent(); // sets the multipler for font spacing.
+	private static String value(double v) {
+		return Double.toString(Math.round(v * 1000000.0) / 1000000.0);
+	}
 
-        g2.setColor(Color.BLACK);
+	/**
+	 * Sets the colour for factor k, scaled by 1/scale, and tells if it must be drawn: always when drawing from
+	 *   scratch, else only if its colour moved.
+	 */
+	private static boolean colour(Graphics2D g2, double[] f, double[] prev, int k, double scale) {
+		int c = rgb(f[k] / scale);
 
-		double[] factors = network.getNetworkFactors();
+		if (prev != null && c == rgb(prev[k] / scale)) {
+			return false;
+		}
 
-		String LF = "Learning (\u03b1): " + Double.toString(Math.round(factors[0] * 1000000.0) / 1000000.0);
+		g2.setColor(new Color(c));
+		return true;
+	}
 
-		int LFwidth = g2.getFontMetrics().stringWidth(LF);
+	/**
+	 * Tells if any weight of a band between two layers moved colour, or if there is nothing to compare with. Each of
+	 *   the band's targets has sources weights, then its threshold and output, from factor base on.
+	 */
+	private static boolean band(double[] f, double[] prev, int base, int targets, int sources, double scale) {
+		if (prev == null) {
+			return true;
+		}
 
-		g2.drawString(LF, 10, m);
-		g2.drawString("Forgetting (\u03a6): " + Double.toString(Math.round(factors[1] * 1000000.0) / 1000000.0), 20 + LFwidth, m);
+		for (int j = 0; j < targets; j++) {
+			for (int i = 0; i < sources; i++) {
+				int k = base + j * (sources + 2) + i;
+
+				if (rgb(f[k] / scale) != rgb(prev[k] / scale)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Clears a band between two layers, from x up to (not including) x2, down through the given number of rows.
+	 */
+	private static void clear(Graphics2D g2, int x, int x2, int n, int rows) {
+		g2.setColor(Color.WHITE);
+		g2.fillRect(x, n, x2 - x, n * rows);
+	}
+
+	private static boolean text(double[] f, double[] prev, int k) {
+		return prev == null || Math.round(f[k] * 1000000.0) != Math.round(prev[k] * 1000000.0);
+	}
+
+	/**
+	 * Draws a value in a field of fixed width, clearing what was there.
+	 */
+	private static void field(Graphics2D g2, String s, int x, int top, int width, int height, int baseline) {
+		Shape clip = g2.getClip();
+
+		g2.clipRect(x, top, width, height);
+		g2.setColor(Color.WHITE);
+		g2.fillRect(x, top, width, height);
+		g2.setColor(Color.BLACK);
+		g2.drawString(s, x, baseline);
+
+		g2.setClip(clip);
+	}
+
+	/**
+	 * Walks the factors in {@link NeuralNetwork#getNetworkFactors()} order, drawing each element that changed since
+	 *   prev, or every element if prev is null. A band whose weights changed is drawn as if prev were null, with the
+	 *   thresholds after it, just as a full draw would layer them.
+	 */
+	private void draw(Graphics2D g2, double[] f, double[] prev, Snapshot net)
+	{
+        g2.setFont(this.getFont().deriveFont(10f)); // sets the font to size 8.
+
+        int m = g2.getFontMetrics().getAscent(); // sets the multipler for font spacing.
 
 		int nf = 2;
 		int n = (int) (m*1.5);
 		int mm = 6;
 		int fieldWidth = 50;
 		int bO = 3*mm+fieldWidth; // base offset
-		float factor = 0f; // factor for computation.
-		double MW = Neuron.MAXWEIGHT;
-		Color clr;
+		double MW = 2.0 * Neuron.MAXWEIGHT;
 
-		for (int i = 0; i < network.getNumInputs(); i++) {
-			// raw input
-			factor = (float) ( factors[nf++] / 2.0);
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
+		if (text(f, prev, 0) || text(f, prev, 1)) {
+			field(g2, "Learning (\u03b1): " + value(f[0]) + "   Forgetting (\u03a6): " + value(f[1]), 10, 0, getWidth(), n, m);
+		}
 
-			String IV = Double.toString(Math.round(factors[nf-1] * 1000000.0) / 1000000.0);
-			int IVwidth = g2.getFontMetrics().stringWidth(IV);
-			g2.drawString(IV, 10, n*(1+i)+m);
-			if (IVwidth > fieldWidth) {
-				g2.clearRect(10+fieldWidth, n*(1+i), IVwidth - fieldWidth, m);
+		for (int i = 0; i < net.inputs; i++) {
+			// raw input
+			if (text(f, prev, nf)) {
+				field(g2, value(f[nf]), 10, n*(1+i), fieldWidth, n, n*(1+i)+m);
+			}
+			if (colour(g2, f, prev, nf, 2.0)) {
+				g2.fillOval(bO - m/2, n*(1+i), m, m);
 			}
-			g2.fillOval(bO - m/2, n*(1+i), m, m);
+			nf++;
 
-			// weight
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.drawLine(bO + m/2, n*(1+i)+m/2, bO + 4*m, n*(1+i)+m/2);
+			// weight; a line of its own, ending on the threshold.
+			boolean line = colour(g2, f, prev, nf++, MW);
+			if (line) {
+				g2.drawLine(bO + m/2, n*(1+i)+m/2, bO + 4*m, n*(1+i)+m/2);
+			}
 
 			// activation (theta)
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.fillArc(bO + 4*m, n*(1+i), m, m, 90, 180);
+			if (colour(g2, f, line ? null : prev, nf++, MW)) {
+				g2.fillArc(bO + 4*m, n*(1+i), m, m, 90, 180);
+			}
 
 			// adjusted input (output into the brain
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.fillArc(bO + 4*m, n*(1+i), m, m, 90, -180);
+			if (colour(g2, f, prev, nf++, MW)) {
+				g2.fillArc(bO + 4*m, n*(1+i), m, m, 90, -180);
+			}
+		}
+
+		double[] was = band(f, prev, nf, net.hiddenSize, net.inputs, MW) ? null : prev;
+		if (was == null && prev != null) {
+			clear(g2, bO + 5*m, bO + (5+mm)*m, n, Math.max(net.inputs, net.hiddenSize));
 		}
 
-		for (int j=0; j < network.getSizeHidden(); j++) {
-			for (int i=0; i < network.getNumInputs(); i++) {
+		for (int j=0; j < net.hiddenSize; j++) {
+			for (int i=0; i < net.inputs; i++) {
 				// weight
-				factor = (float) ( factors[nf++] / (2.0 * MW));
-				clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-				g2.setColor(clr);
-				g2.drawLine(bO + 5*m, n*(1+i)+m/2, bO + (5+mm)*m, n*(1+j)+m/2);
+				if (colour(g2, f, was, nf++, MW)) {
+					g2.drawLine(bO + 5*m, n*(1+i)+m/2, bO + (5+mm)*m, n*(1+j)+m/2);
+				}
 			}
 			// activation (theta)
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.fillArc(bO + (5+mm)*m, n*(1+j), m, m, 90, 180);
+			if (colour(g2, f, was, nf++, MW)) {
+				g2.fillArc(bO + (5+mm)*m, n*(1+j), m, m, 90, 180);
+			}
 
 			// inner output
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.fillArc(bO + (5+mm)*m, n*(1+j), m, m, 90, -180);
+			if (colour(g2, f, prev, nf++, MW)) {
+				g2.fillArc(bO + (5+mm)*m, n*(1+j), m, m, 90, -180);
+			}
 		}
 
-		for (int k=1; k < network.getNumHidden(); k++) {
-			for (int j=0; j < network.getSizeHidden(); j++) {
-				for (int i=0; i < network.getSizeHidden(); i++) {
+		for (int k=1; k < net.hiddens; k++) {
+			was = band(f, prev, nf, net.hiddenSize, net.hiddenSize, MW) ? null : prev;
+			if (was == null && prev != null) {
+				clear(g2, bO + (5+((1+mm)*k))*m, bO + ((5+mm)+((1+mm)*k))*m, n, net.hiddenSize);
+			}
+
+			for (int j=0; j < net.hiddenSize; j++) {
+				for (int i=0; i < net.hiddenSize; i++) {
 					// weight
-					factor = (float) ( factors[nf++] / (2.0 * MW));
-					clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-					g2.setColor(clr);
-					g2.drawLine(bO + (5+((1+mm)*k))*m, n*(1+i)+m/2, bO + ((5+mm)+((1+mm)*k))*m, n*(1+j)+m/2);
+					if (colour(g2, f, was, nf++, MW)) {
+						g2.drawLine(bO + (5+((1+mm)*k))*m, n*(1+i)+m/2, bO + ((5+mm)+((1+mm)*k))*m, n*(1+j)+m/2);
+					}
 				}
 				// activation (theta)
-				factor = (float) ( factors[nf++] / (2.0 * MW));
-				clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-				g2.setColor(clr);
-				g2.fillArc(bO + ((5+mm)+((1+mm)*k))*m, n*(1+j), m, m, 90, 180);
+				if (colour(g2, f, was, nf++, MW)) {
+					g2.fillArc(bO + ((5+mm)+((1+mm)*k))*m, n*(1+j), m, m, 90, 180);
+				}
 
 				// inner output
-				factor = (float) ( factors[nf++] / (2.0 * MW));
-				clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-				g2.setColor(clr);
-				g2.fillArc(bO + ((5+mm)+((1+mm)*k))*m, n*(1+j), m, m, 90, -180);
+				if (colour(g2, f, prev, nf++, MW)) {
+					g2.fillArc(bO + ((5+mm)+((1+mm)*k))*m, n*(1+j), m, m, 90, -180);
+				}
 			}
 		}
 
-		int sM = ((6+mm)+((1+mm)*(network.getNumHidden()-1)))*m;
+		int sM = ((6+mm)+((1+mm)*(net.hiddens-1)))*m;
+
+		was = band(f, prev, nf, net.outputs, net.hiddenSize, MW) ? null : prev;
+		if (was == null && prev != null) {
+			clear(g2, bO + sM, bO + sM+mm*m, n, Math.max(net.hiddenSize, net.outputs));
+		}
 
-		for (int j=0; j < network.getNumOutputs(); j++) {
-			for (int i=0; i < network.getSizeHidden(); i++) {
+		for (int j=0; j < net.outputs; j++) {
+			for (int i=0; i < net.hiddenSize; i++) {
 				// weight
-				factor = (float) ( factors[nf++] / (2.0 * MW));
-				clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-				g2.setColor(clr);
-				g2.drawLine(bO + sM, n*(1+i)+m/2, bO + sM+mm*m, n*(1+j)+m/2);
+				if (colour(g2, f, was, nf++, MW)) {
+					g2.drawLine(bO + sM, n*(1+i)+m/2, bO + sM+mm*m, n*(1+j)+m/2);
+				}
 			}
 			// activation (theta)
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.fillArc(bO + sM+mm*m, n*(1+j), m, m, 90, 180);
+			if (colour(g2, f, was, nf++, MW)) {
+				g2.fillArc(bO + sM+mm*m, n*(1+j), m, m, 90, 180);
+			}
 
 			// final output
-			factor = (float) ( factors[nf++] / (2.0 * MW));
-			clr = new Color( factor<0f?1f:0f,factor>0f?1f:0f,factor==0f?1f:0f,1f-Math.abs(factor*2f));
-			g2.setColor(clr);
-			g2.fillArc(bO + sM+mm*m, n*(1+j), m, m, 90, -180);
-
-			//g2.setColor(Color.BLACK);
-			String OV = Double.toString(Math.round(factors[nf-1] * 1000000.0) / 1000000.0);
-			int OVwidth = g2.getFontMetrics().stringWidth(OV);
-			g2.drawString(OV, bO + sM+(mm+2)*m, n*(1+j)+m);
-			if (OVwidth > fieldWidth) {
-				g2.clearRect(bO + sM+(mm+2)*m + fieldWidth, n*(1+j), OVwidth - fieldWidth, m);
+			if (colour(g2, f, prev, nf, MW)) {
+				g2.fillArc(bO + sM+mm*m, n*(1+j), m, m, 90, -180);
+			}
+			if (text(f, prev, nf)) {
+				field(g2, value(f[nf]), bO + sM+(mm+2)*m, n*(1+j), fieldWidth, n, n*(1+j)+m);
 			}
+			nf++;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -18,6 +18,8 @@ import org.slf4j.LoggerFactory;
  *   Original release
  * @version 1.01 December 14, 2013
  *   Refining comments, restructing file, and cleaning up.
+ * @version 1.02 October 19, 2026
+ *   State export and import, so a learning Neuron can be checkpointed and restored.
  *
  * @see {@link NeuralNetwork} for how these Neurons link together
  * @see {@link ActivationFunction} for a listing of activation functions usable by these Neurons.
@@ -186,6 +188,46 @@ public class Neuron {
 		log.debug("Neuron {} update output to {}", this.hashCode(), outputValue);
 	}
 
+	/**
+	 * The number of values {@link getState(double[], int)} stores: one per linked input weight, plus the output.
+	 *
+	 * @return	the size of this Neuron's state.
+	 */
+	public int stateSize() {
+		return inCount + 1;
+	}
+
+	/**
+	 * Copies the state that changes as this Neuron runs -- the input weights, as modified by learning, and the
+	 *   current output -- into an array.
+	 *
+	 * @param	state	Where to store the state.
+	 * @param	off		The index to start storing at.
+	 * @return			The index just past the stored state.
+	 */
+	public int getState(double[] state, int off) {
+		if (inCount > 0) {
+			System.arraycopy(inListWeight, 0, state, off, inCount);
+		}
+		state[off + inCount] = outputValue;
+		return off + inCount + 1;
+	}
+
+	/**
+	 * Restores state saved by {@link getState(double[], int)} from a Neuron wired up the same way.
+	 *
+	 * @param	state	The saved state.
+	 * @param	off		The index the state starts at.
+	 * @return			The index just past this Neuron's state.
+	 */
+	public int setState(double[] state, int off) {
+		if (inCount > 0) {
+			System.arraycopy(state, off, inListWeight, 0, inCount);
+		}
+		outputValue = state[off + inCount];
+		return off + inCount + 1;
+	}
+
 	/**
 	 * Add an input to this Neuron. You can add inputs up until the maximum inputs you specified in constructing the neuron.
 	 *  Each input must have a weight.
@@ -0,0 +1,119 @@
+package com.programmerdan.ai.maze;
+
+/**
+ * What the simulation looked like after one step: where each running bug was and where it was headed, how fit it
+ *   was, and the per maze figures shown beside the mazes. Taken on the simulation thread, at most at the display's
+ *   frame rate, so drawing never reads live bugs. All arrays are filled before the frame is handed over and never
+ *   changed after, so a frame can be drawn from any thread.
+ *
+ * Bugs are kept in flat arrays, one entry per bug still running a maze, grouped by maze. A level of detail frame,
+ *   for large populations, instead counts the running bugs of each maze into a fixed grid over the maze, and keeps
+ *   entries only for the fittest few of each maze; its size does not depend on the population.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link MazeRenderer}
+ */
+public final class RenderFrame {
+
+	/**
+	 * The generation.
+	 */
+	public final int generation;
+	/**
+	 * Steps taken so far this generation.
+	 */
+	public final int step;
+
+	/**
+	 * Per maze: bugs still running; average and longest path travelled; average best and average current progress;
+	 *   average and best fitness.
+	 */
+	public final int[] actors;
+	public final double[] avgPath;
+	public final double[] maxPath;
+	public final double[] avgProgress;
+	public final double[] maxProgress;
+	public final double[] avgFitness;
+	public final double[] maxFitness;
+
+	/**
+	 * Number of bug entries.
+	 */
+	public final int count;
+
+	/**
+	 * Per entry: maze, bug index, position, heading ({@link Bug#getTrueVector()}) and fitness.
+	 */
+	final int[] maze;
+	final int[] bug;
+	final float[] x;
+	final float[] y;
+	final float[] vx;
+	final float[] vy;
+	final float[] fitness;
+
+	/**
+	 * Level of detail: cells per side of each maze's grid; 0 if every running bug has an entry.
+	 */
+	public final int grid;
+	/**
+	 * Level of detail: per maze, running bugs per cell, row by row; null if every running bug has an entry.
+	 */
+	final int[][] density;
+	/**
+	 * Per maze, its extent as min X, max X, min Y, max Y in maze units; the level of detail grid covers it.
+	 */
+	final double[][] extent;
+
+	/**
+	 * Builds a frame around arrays filled by the caller, who must not touch them afterwards.
+	 */
+	RenderFrame(int generation, int step, int[] actors, double[] avgPath, double[] maxPath, double[] avgProgress,
+			double[] maxProgress, double[] avgFitness, double[] maxFitness, int count, int[] maze, int[] bug,
+			float[] x, float[] y, float[] vx, float[] vy, float[] fitness, int grid, int[][] density,
+			double[][] extent) {
+		this.generation = generation;
+		this.step = step;
+		this.actors = actors;
+		this.avgPath = avgPath;
+		this.maxPath = maxPath;
+		this.avgProgress = avgProgress;
+		this.maxProgress = maxProgress;
+		this.avgFitness = avgFitness;
+		this.maxFitness = maxFitness;
+		this.count = count;
+		this.maze = maze;
+		this.bug = bug;
+		this.x = x;
+		this.y = y;
+		this.vx = vx;
+		this.vy = vy;
+		this.fitness = fitness;
+		this.grid = grid;
+		this.density = density;
+		this.extent = extent;
+	}
+
+	/**
+	 * @return	true if every running bug has an entry; false for a level of detail frame.
+	 */
+	public boolean isDetailed() {
+		return density == null;
+	}
+
+	/**
+	 * The grid cell of a point along one axis, clamped to the grid.
+	 *
+	 * @param	lo		Least coord of the grid, in maze units.
+	 * @param	hi		Greatest coord of the grid, in maze units.
+	 * @param	v		The coord.
+	 * @param	grid	Cells per side.
+	 * @return			The cell's column or row.
+	 */
+	static int cell(double lo, double hi, double v, int grid) {
+		int c = (int) ((v - lo) / (hi - lo) * grid);
+
+		return (c < 0) ? 0 : (c >= grid) ? grid - 1 : c;
+	}
+}
@@ -0,0 +1,211 @@
+package com.programmerdan.ai.maze;
+
+/**
+ * Batch segment math over walls held as four parallel arrays (structure of arrays) instead of
+ *   {@link SimpleLine} objects. One segment (a sight ray, a motion vector) is tested against many walls at once.
+ *
+ * The bulk of the work -- the four orientation cross products per wall -- is done in a plain loop over primitive
+ *   arrays with no branches or calls, which the JIT can turn into SIMD instructions. A second, cheap pass reads
+ *   off the signs. Every expression is evaluated in the same order as {@link java.awt.geom.Line2D#relativeCCW},
+ *   {@link java.awt.geom.Line2D#linesIntersect} and {@link java.awt.geom.Line2D#ptSegDist}, and the rare
+ *   collinear cases go through the same tie breaking, so the answers match Line2D exactly.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+public final class SegmentKernel {
+
+	/**
+	 * Static methods only.
+	 */
+	private SegmentKernel() {
+	}
+
+	/**
+	 * Computes the four orientation cross products of a segment against walls [0, n). For wall k:
+	 *   c1[k] and c2[k] place the wall's first and second points relative to the segment, c3[k] and c4[k]
+	 *   place the segment's first and second points relative to the wall.
+	 *
+	 * @param	x1	The start X coord of the segment
+	 * @param	y1	The start Y coord of the segment
+	 * @param	x2	The end X coord of the segment
+	 * @param	y2	The end Y coord of the segment
+	 * @param	wx1	Wall start X coords
+	 * @param	wy1	Wall start Y coords
+	 * @param	wx2	Wall end X coords
+	 * @param	wy2	Wall end Y coords
+	 * @param	n	Number of walls to process
+	 * @param	c1	Output, wall start relative to segment
+	 * @param	c2	Output, wall end relative to segment
+	 * @param	c3	Output, segment start relative to wall
+	 * @param	c4	Output, segment end relative to wall
+	 */
+	public static void crossTerms(double x1, double y1, double x2, double y2,
+			double[] wx1, double[] wy1, double[] wx2, double[] wy2, int n,
+			double[] c1, double[] c2, double[] c3, double[] c4) {
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+
+		for (int k = 0; k < n; k++) {
+			double ex = wx2[k] - wx1[k];
+			double ey = wy2[k] - wy1[k];
+
+			c1[k] = (wx1[k] - x1) * dy - (wy1[k] - y1) * dx;
+			c2[k] = (wx2[k] - x1) * dy - (wy2[k] - y1) * dx;
+			c3[k] = (x1 - wx1[k]) * ey - (y1 - wy1[k]) * ex;
+			c4[k] = (x2 - wx1[k]) * ey - (y2 - wy1[k]) * ex;
+		}
+	}
+
+	/**
+	 * Finds every wall in [0, n) that a segment intersects (touching counts), same as
+	 *   {@link java.awt.geom.Line2D#linesIntersect} against each wall.
+	 *
+	 * @param	x1		The start X coord of the segment
+	 * @param	y1		The start Y coord of the segment
+	 * @param	x2		The end X coord of the segment
+	 * @param	y2		The end Y coord of the segment
+	 * @param	wx1		Wall start X coords
+	 * @param	wy1		Wall start Y coords
+	 * @param	wx2		Wall end X coords
+	 * @param	wy2		Wall end Y coords
+	 * @param	n		Number of walls to process
+	 * @param	scratch	Four work arrays of at least n entries each.
+	 * @param	hits	Output, filled with the positions of intersected walls in ascending order.
+	 * @return			The number of walls intersected.
+	 */
+	public static int intersections(double x1, double y1, double x2, double y2,
+			double[] wx1, double[] wy1, double[] wx2, double[] wy2, int n,
+			double[][] scratch, int[] hits) {
+		double[] c1 = scratch[0];
+		double[] c2 = scratch[1];
+		double[] c3 = scratch[2];
+		double[] c4 = scratch[3];
+
+		crossTerms(x1, y1, x2, y2, wx1, wy1, wx2, wy2, n, c1, c2, c3, c4);
+
+		int count = 0;
+
+		for (int k = 0; k < n; k++) {
+			if (c1[k] != 0.0 && c2[k] != 0.0 && c3[k] != 0.0 && c4[k] != 0.0) {
+				// general position, only the signs matter.
+				if ( (c1[k] > 0.0) != (c2[k] > 0.0) && (c3[k] > 0.0) != (c4[k] > 0.0) ) {
+					hits[count++] = k;
+				}
+			} else if ( relativeCCW(x1, y1, x2, y2, wx1[k], wy1[k]) * relativeCCW(x1, y1, x2, y2, wx2[k], wy2[k]) <= 0
+					&& relativeCCW(wx1[k], wy1[k], wx2[k], wy2[k], x1, y1) * relativeCCW(wx1[k], wy1[k], wx2[k], wy2[k], x2, y2) <= 0 ) {
+				hits[count++] = k; // collinear touch, resolved exactly as Line2D does.
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Tests if a segment intersects any wall in [0, n).
+	 *
+	 * @param	x1		The start X coord of the segment
+	 * @param	y1		The start Y coord of the segment
+	 * @param	x2		The end X coord of the segment
+	 * @param	y2		The end Y coord of the segment
+	 * @param	wx1		Wall start X coords
+	 * @param	wy1		Wall start Y coords
+	 * @param	wx2		Wall end X coords
+	 * @param	wy2		Wall end Y coords
+	 * @param	n		Number of walls to process
+	 * @param	scratch	Four work arrays of at least n entries each.
+	 * @return			True if any wall is intersected.
+	 */
+	public static boolean intersectsAny(double x1, double y1, double x2, double y2,
+			double[] wx1, double[] wy1, double[] wx2, double[] wy2, int n,
+			double[][] scratch) {
+		double[] c1 = scratch[0];
+		double[] c2 = scratch[1];
+		double[] c3 = scratch[2];
+		double[] c4 = scratch[3];
+
+		crossTerms(x1, y1, x2, y2, wx1, wy1, wx2, wy2, n, c1, c2, c3, c4);
+
+		for (int k = 0; k < n; k++) {
+			if (c1[k] != 0.0 && c2[k] != 0.0 && c3[k] != 0.0 && c4[k] != 0.0) {
+				if ( (c1[k] > 0.0) != (c2[k] > 0.0) && (c3[k] > 0.0) != (c4[k] > 0.0) ) {
+					return true;
+				}
+			} else if ( relativeCCW(x1, y1, x2, y2, wx1[k], wy1[k]) * relativeCCW(x1, y1, x2, y2, wx2[k], wy2[k]) <= 0
+					&& relativeCCW(wx1[k], wy1[k], wx2[k], wy2[k], x1, y1) * relativeCCW(wx1[k], wy1[k], wx2[k], wy2[k], x2, y2) <= 0 ) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Orientation of a point relative to a segment, exactly as {@link java.awt.geom.Line2D#relativeCCW}.
+	 *
+	 * @param	x1	The start X coord of the segment
+	 * @param	y1	The start Y coord of the segment
+	 * @param	x2	The end X coord of the segment
+	 * @param	y2	The end Y coord of the segment
+	 * @param	px	The point's X coord
+	 * @param	py	The point's Y coord
+	 * @return		1, -1 or 0 as the point is to one side, the other side, or on the segment.
+	 */
+	public static int relativeCCW(double x1, double y1, double x2, double y2, double px, double py) {
+		x2 -= x1;
+		y2 -= y1;
+		px -= x1;
+		py -= y1;
+		double ccw = px * y2 - py * x2;
+		if (ccw == 0.0) {
+			// collinear; which side of the segment's extent is the point on?
+			ccw = px * x2 + py * y2;
+			if (ccw > 0.0) {
+				px -= x2;
+				py -= y2;
+				ccw = px * x2 + py * y2;
+				if (ccw < 0.0) {
+					ccw = 0.0;
+				}
+			}
+		}
+		return (ccw < 0.0) ? -1 : ((ccw > 0.0) ? 1 : 0);
+	}
+
+	/**
+	 * Distance from a point to a wall segment, exactly as {@link java.awt.geom.Line2D#ptSegDist}.
+	 *
+	 * @param	x1	The start X coord of the wall
+	 * @param	y1	The start Y coord of the wall
+	 * @param	x2	The end X coord of the wall
+	 * @param	y2	The end Y coord of the wall
+	 * @param	px	The point's X coord
+	 * @param	py	The point's Y coord
+	 * @return		The distance from the point to the nearest point on the wall.
+	 */
+	public static double ptSegDist(double x1, double y1, double x2, double y2, double px, double py) {
+		x2 -= x1;
+		y2 -= y1;
+		px -= x1;
+		py -= y1;
+		double dotprod = px * x2 + py * y2;
+		double projlenSq;
+		if (dotprod <= 0.0) {
+			projlenSq = 0.0;
+		} else {
+			px = x2 - px;
+			py = y2 - py;
+			dotprod = px * x2 + py * y2;
+			if (dotprod <= 0.0) {
+				projlenSq = 0.0;
+			} else {
+				projlenSq = dotprod * dotprod / (x2 * x2 + y2 * y2);
+			}
+		}
+		double lenSq = px * px + py * py - projlenSq;
+		if (lenSq < 0) {
+			lenSq = 0;
+		}
+		return Math.sqrt(lenSq);
+	}
+}
@@ -0,0 +1,214 @@
+package com.programmerdan.ai.maze;
+
+import java.util.Random;
+
+/**
+ * Picks parents for the next generation from a generation's fitnesses, held as a primitive array indexed by bug.
+ *   Nothing is boxed and no full ranking is built.
+ *
+ * Fitter means higher fitness by {@link Double#compare(double, double)}; among equal fitnesses the lower index
+ *   counts as fitter. This is the order the old TreeMap of fitness to bug lists gave, so {@link top(double[], int)}
+ *   returns the same pool, in the same order, as walking that map down from its last key.
+ *
+ * The truncation pool of the fittest k is found with a quickselect, then only those k are sorted: O(n + k log k)
+ *   instead of O(n log n). Rank selection picks within that pool with linearly falling weights, in O(1) a pick.
+ *   Tournament selection needs no pool at all: each pick is the fittest of a few bugs drawn from the whole
+ *   population, so a generation costs O(n).
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+public final class Selection {
+
+	/**
+	 * How parents are picked.
+	 */
+	public enum Mode {
+		/** Uniformly from the fittest share of the population. */
+		TRUNCATION,
+		/** From the fittest share, the fittest most often; weights fall linearly with rank. */
+		RANK,
+		/** The fittest of a few bugs drawn at random from the whole population. */
+		TOURNAMENT
+	}
+
+	/**
+	 * Ranges this short are sorted by insertion.
+	 */
+	private static final int INSERTION = 16;
+
+	/**
+	 * Static methods only.
+	 */
+	private Selection() {
+	}
+
+	/**
+	 * @return	true if bug a is fitter than bug b.
+	 */
+	static boolean fitter(double[] fitness, int a, int b) {
+		int c = Double.compare(fitness[a], fitness[b]);
+
+		return c > 0 || (c == 0 && a < b);
+	}
+
+	/**
+	 * Finds the fittest bugs.
+	 *
+	 * @param	fitness		Fitness per bug.
+	 * @param	k			How many to find; at most fitness.length.
+	 * @return				The indexes of the k fittest bugs, fittest first.
+	 */
+	public static int[] top(double[] fitness, int k) {
+		int n = fitness.length;
+		int[] idx = new int[n];
+
+		for (int a = 0; a < n; a++) {
+			idx[a] = a;
+		}
+
+		if (k < n) {
+			select(fitness, idx, 0, n - 1, k);
+		}
+
+		sort(fitness, idx, 0, k - 1);
+
+		int[] pool = new int[k];
+		System.arraycopy(idx, 0, pool, 0, k);
+
+		return pool;
+	}
+
+	/**
+	 * Picks a position in a pool sorted fittest first, with weights k, k - 1, ..., 1 for positions 0 to k - 1.
+	 *
+	 * @param	k	Size of the pool.
+	 * @param	u	A uniform draw in [0, 1).
+	 * @return		The position picked.
+	 */
+	public static int rank(int k, double u) {
+		// the weights before position p sum to p(2k + 1 - p) / 2; solve for the last p where that is at most u times
+		// the total, k(k + 1) / 2, then correct for rounding.
+		double b = 2.0 * k + 1.0;
+		double target = u * k * (k + 1.0) / 2.0;
+		int p = (int) ((b - Math.sqrt(b * b - 8.0 * target)) / 2.0);
+
+		if (p > 0 && p * (b - p) / 2.0 > target) {
+			p--;
+		} else if (p + 1 < k && (p + 1) * (b - p - 1) / 2.0 <= target) {
+			p++;
+		}
+
+		return (p < 0) ? 0 : (p < k) ? p : k - 1;
+	}
+
+	/**
+	 * Runs a tournament among bugs drawn with replacement from the whole population.
+	 *
+	 * @param	fitness		Fitness per bug.
+	 * @param	size		Bugs drawn; at least 1.
+	 * @param	rand		Where the draws come from.
+	 * @return				The index of the fittest bug drawn.
+	 */
+	public static int tournament(double[] fitness, int size, Random rand) {
+		int n = fitness.length;
+		int best = (int) (rand.nextDouble() * n);
+
+		for (int t = 1; t < size; t++) {
+			int b = (int) (rand.nextDouble() * n);
+
+			if (fitter(fitness, b, best)) {
+				best = b;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Rearranges idx[lo..hi] so that the k fittest of it are in idx[lo..lo + k - 1], in no particular order.
+	 */
+	private static void select(double[] fitness, int[] idx, int lo, int hi, int k) {
+		int target = lo + k; // first position not among the fittest.
+
+		while (hi - lo >= INSERTION) {
+			int p = partition(fitness, idx, lo, hi);
+
+			if (p == target || p == target - 1) {
+				return;
+			} else if (p < target) {
+				lo = p + 1;
+			} else {
+				hi = p - 1;
+			}
+		}
+
+		insertion(fitness, idx, lo, hi);
+	}
+
+	/**
+	 * Sorts idx[lo..hi] fittest first. Recurses into the shorter side only, so the stack stays shallow.
+	 */
+	private static void sort(double[] fitness, int[] idx, int lo, int hi) {
+		while (hi - lo >= INSERTION) {
+			int p = partition(fitness, idx, lo, hi);
+
+			if (p - lo < hi - p) {
+				sort(fitness, idx, lo, p - 1);
+				lo = p + 1;
+			} else {
+				sort(fitness, idx, p + 1, hi);
+				hi = p - 1;
+			}
+		}
+
+		insertion(fitness, idx, lo, hi);
+	}
+
+	/**
+	 * Partitions idx[lo..hi] around the median of its first, middle and last entries: fitter before, less fit after.
+	 *
+	 * @return	where the pivot ends up.
+	 */
+	private static int partition(double[] fitness, int[] idx, int lo, int hi) {
+		int mid = (lo + hi) >>> 1;
+
+		if (fitter(fitness, idx[mid], idx[lo])) swap(idx, mid, lo);
+		if (fitter(fitness, idx[hi], idx[lo])) swap(idx, hi, lo);
+		if (fitter(fitness, idx[hi], idx[mid])) swap(idx, hi, mid);
+
+		swap(idx, mid, hi); // the median, as pivot, waits at the end.
+
+		int pivot = idx[hi];
+		int store = lo;
+
+		for (int a = lo; a < hi; a++) {
+			if (fitter(fitness, idx[a], pivot)) {
+				swap(idx, a, store++);
+			}
+		}
+
+		swap(idx, store, hi);
+
+		return store;
+	}
+
+	private static void insertion(double[] fitness, int[] idx, int lo, int hi) {
+		for (int a = lo + 1; a <= hi; a++) {
+			int v = idx[a];
+			int b = a - 1;
+
+			for ( ; b >= lo && fitter(fitness, v, idx[b]); b--) {
+				idx[b + 1] = idx[b];
+			}
+
+			idx[b + 1] = v;
+		}
+	}
+
+	private static void swap(int[] idx, int a, int b) {
+		int t = idx[a];
+		idx[a] = idx[b];
+		idx[b] = t;
+	}
+}
@@ -0,0 +1,164 @@
+package com.programmerdan.ai.maze;
+
+/**
+ * The eyes of a {@link Bug}: where each eye looks relative to the bug's heading, and how far it can see.
+ *   Each eye feeds two brain inputs, a normalized distance to what it sees and a flag for whether it saw anything.
+ *
+ * The rotation of every eye away from the heading is fixed, so its sine and cosine are worked out once here.
+ *   Casting the rays for a step then takes one sine and cosine of the heading (which the bug already needs to
+ *   move) and a cheap rotation per eye, instead of fresh trig for every eye of every bug on every step.
+ *
+ * A model is immutable, so one can be shared by a whole run, or each genome can carry its own layout.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version, eye layout pulled out of {@link Simulation}.
+ */
+public class SensorModel {
+
+	/**
+	 * Eye offsets from the heading (angles, not in radians).
+	 */
+	private final double[] eyes;
+	/**
+	 * Sight range of each eye.
+	 */
+	private final double[] sight;
+	/**
+	 * Cosine of each eye offset.
+	 */
+	private final double[] eyeCos;
+	/**
+	 * Sine of each eye offset.
+	 */
+	private final double[] eyeSin;
+	/**
+	 * The furthest any eye can see.
+	 */
+	private final double reach;
+
+	/**
+	 * Builds a sensor model where every eye sees the same distance.
+	 *
+	 * @param	eyes			Eye offsets from the heading (angles, not in radians).
+	 * @param	sightDistance	How far every eye can see.
+	 */
+	public SensorModel(double[] eyes, double sightDistance) {
+		this(eyes, uniform(eyes.length, sightDistance));
+	}
+
+	/**
+	 * Builds a sensor model.
+	 *
+	 * @param	eyes	Eye offsets from the heading (angles, not in radians).
+	 * @param	sight	Sight range of each eye; must be the same length as eyes.
+	 * @throws	IllegalArgumentException if eyes and sight differ in length.
+	 */
+	public SensorModel(double[] eyes, double[] sight) {
+		if (eyes.length != sight.length) {
+			throw new IllegalArgumentException("Each eye needs exactly one sight range.");
+		}
+
+		this.eyes = eyes.clone();
+		this.sight = sight.clone();
+
+		eyeCos = new double[eyes.length];
+		eyeSin = new double[eyes.length];
+
+		double far = 0.0;
+
+		for (int i = 0; i < eyes.length; i++) {
+			eyeCos[i] = Math.cos( Math.toRadians( eyes[i] ) );
+			eyeSin[i] = Math.sin( Math.toRadians( eyes[i] ) );
+
+			if (sight[i] > far) far = sight[i];
+		}
+
+		reach = far;
+	}
+
+	/**
+	 * Helper, an array of identical sight ranges.
+	 *
+	 * @param	n		Number of eyes.
+	 * @param	range	The sight range.
+	 * @return			n copies of range.
+	 */
+	private static double[] uniform(int n, double range) {
+		double[] sight = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			sight[i] = range;
+		}
+
+		return sight;
+	}
+
+	/**
+	 * Number of eyes.
+	 *
+	 * @return	the number of eyes in this model.
+	 */
+	public int numEyes() {
+		return eyes.length;
+	}
+
+	/**
+	 * Number of brain inputs fed by this model -- two per eye.
+	 *
+	 * @return	the number of inputs.
+	 */
+	public int numInputs() {
+		return eyes.length * 2;
+	}
+
+	/**
+	 * The offset of an eye from the heading.
+	 *
+	 * @param	i	The eye.
+	 * @return		The offset (an angle, not in radians).
+	 */
+	public double getEye(int i) {
+		return eyes[i];
+	}
+
+	/**
+	 * The sight range of an eye.
+	 *
+	 * @param	i	The eye.
+	 * @return		How far the eye can see.
+	 */
+	public double getSight(int i) {
+		return sight[i];
+	}
+
+	/**
+	 * The furthest any eye can see.
+	 *
+	 * @return	the longest sight range.
+	 */
+	public double getReach() {
+		return reach;
+	}
+
+	/**
+	 * Lays out the sight rays of every eye, from a viewer with a known heading.
+	 *
+	 * @param	x		The viewer's X coord.
+	 * @param	y		The viewer's Y coord.
+	 * @param	cosH	Cosine of the viewer's heading.
+	 * @param	sinH	Sine of the viewer's heading.
+	 * @param	rays	Filled with one ray per eye; must hold at least {@link numEyes()} lines.
+	 */
+	public void castRays(double x, double y, double cosH, double sinH, SimpleLine[] rays) {
+		for (int i = 0; i < eyes.length; i++) {
+			// rotate the heading by the eye offset: cos(h + e), sin(h + e)
+			double c = cosH * eyeCos[i] - sinH * eyeSin[i];
+			double s = sinH * eyeCos[i] + cosH * eyeSin[i];
+
+			rays[i].setX1( x );
+			rays[i].setY1( y );
+			rays[i].setX2( x + sight[i] * c );
+			rays[i].setY2( y + sight[i] * s );
+		}
+	}
+}
@@ -6,6 +6,7 @@ import java.util.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
+import java.util.concurrent.*;
 
 /**
  *  Class: Artificial Intelligence
@@ -53,13 +54,13 @@ public class Simulation extends JPanel implements MouseListener {
 
 	private int simLengthCap = 50000;
 
+	private double collisionResolution = 0.25; // distance field cell size for wall collision, 0.0 tests every wall.
+
 	private Bug[][] Actor;				// This holds the actual bugs
 	private boolean[][] ActorActive;		// This determines if the bug is still searching the maze. If false, fitness is 1.0!
-	private GeneralPath[][] ActorPath;
 	private double[][] ActorPathLength;
 
-	private double[] ActorEyes;
-	private double[] ActorEyeSight;
+	private SensorModel ActorEyes;			// The eyes every bug uses, unless it has its own.
 
 	private SimulationMap[] Maze;
 	private File[] MazeStatistics;
@@ -92,6 +93,22 @@ public class Simulation extends JPanel implements MouseListener {
 	private javax.swing.Timer tick;
 	private int timeStep = 1; // in milliseconds
 
+	private javax.swing.Timer frames;		// repaints at the frame rate, however fast the simulation runs.
+	private int frameRate = 30;				// frames per second.
+	private volatile RenderFrame lastFrame;	// the latest frame captured by the simulation.
+	private RenderFrame paintedFrame;		// the frame last painted.
+	private long lastCapture = 0L;
+	private MazeRenderer renderer;			// caches the mazes' static layer; rebuilt when the mazes are refitted.
+	private int detailLimit = 2000;			// above this many bugs across all mazes, show density and the fittest few.
+	private int detailSprites = 16;			// level of detail: bugs drawn individually per maze.
+	private int detailGrid = 64;			// level of detail: density cells per side of each maze.
+	private double[][] MazeExtent;			// each maze's extent, as fitted; the density grid covers it.
+	private volatile BugPicker picker;		// finds the bugs of the latest frame under the mouse.
+	private FrameExporter exporter;			// saves frames as PNGs in the background; built on the first export.
+	private int exportEvery = GraphicsEnvironment.isHeadless() ? 100 : 0; // export a frame every this many steps, and each generation's last; 0 for never.
+	private int exportWidth = 0;			// exported image size in pixels; 0 for the size of the simulation's window.
+	private int exportHeight = 0;
+
 	private boolean active;
 	private int numSteps;
 	private int generation = 0;
@@ -103,13 +120,40 @@ public class Simulation extends JPanel implements MouseListener {
 
 	private String filename;
 	private BufferedReader fileIn;
-	private BufferedWriter fileOut;
+	private boolean binaryGenerations = true; // save .gen files packed (GenerationFile), or as the original text.
+	private boolean useArchive = true; // save every generation into one GenerationArchive instead of a .gen file each.
+	private GenerationArchive archive;
+	private GenerationWriter writer;		// saves generations in the background.
+	private int keyframeInterval = 10; // archive every generation in full this often; in between, only lineage.
+	private StatisticsSink statistics;		// per maze statistics rows; kept open for the run.
+	private boolean statisticsStore = true; // also record statistics in a queryable StatisticsStore, the .stats directory.
+	private int statisticsFlushEvery = 10; // flush statistics rows every this many generations.
+
+	private Chromosome[] ActorDNA;			// This generation's genomes, one per bug; every maze's bug i shares ActorDNA[i].
+	private java.util.List<Future<Bug[]>> MazeReady; // Bugs of each maze still being built, or null once in place.
+	private ExecutorService builders;
+	private boolean pipelineTurnover = true; // build new bugs on a pool, overlapping with simulation of mazes already built.
+
+	private Lineage[] ActorLineage;			// How each bug of this generation was bred from generation lineageBase.
+	private int lineageBase = -1;
+
+	private int checkpointInterval = 500;	// checkpoint in-flight state every this many steps, so a generation can resume part way; 0 for never.
+	private ExecutorService checkpointer;
+	private Future<?> checkpointing;		// the checkpoint being written, if any.
+
+	private TrajectoryRecorder trajectories; // where bugs have been; replaces whole trails kept on the heap.
+	private TrajectoryRecorder.Mode trajectoryMode = GraphicsEnvironment.isHeadless() ? TrajectoryRecorder.Mode.OFF : TrajectoryRecorder.Mode.RING;
+	private int trajectorySampling = 1;		// record each bug every this many steps.
+	private int trajectoryRing = 64;		// RING: samples kept per bug per maze.
+	private int trajectoryKeyframes = 500;	// FILE: steps between keyframes, where playback can seek to.
 
 	public static void main(String[] args)
 	{
 		try
 		{
-			JFrame display = new JFrame("Daniel's GA/NN Maze Trainer Simulation");
+			boolean headless = GraphicsEnvironment.isHeadless(); // no window; frames are exported instead.
+
+			JFrame display = headless ? null : new JFrame("Daniel's GA/NN Maze Trainer Simulation");
 
 			Keyboard kb = new Keyboard();
 
@@ -150,17 +194,29 @@ public class Simulation extends JPanel implements MouseListener {
 
 			}
 
-			display.add(draw, BorderLayout.CENTER);
+			if (!headless)
+			{
+				display.add(draw, BorderLayout.CENTER);
 
-			display.setSize(draw.getSimSizeX() + 2 * draw.getSimBorder(), draw.getSimSizeY() + 2 * draw.getSimBorder());
+				display.setSize(draw.getSimSizeX() + 2 * draw.getSimBorder(), draw.getSimSizeY() + 2 * draw.getSimBorder());
 
-			display.setVisible(true);
+				display.setVisible(true);
+			}
 
 			draw.init();
 
 			draw.start(); // run the simulation!
+
+			if (headless)
+			{
+				System.out.println("Headless: exporting frames to " + filenameroot + ".frames");
+
+				Thread.currentThread().join(); // nothing on screen keeps the run alive, so this thread does.
+			}
 		} catch (IOException e) {
 			System.out.println("File error" + e.toString() );
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -180,10 +236,34 @@ public class Simulation extends JPanel implements MouseListener {
 	}
 
 	/*
-		This function finds the next saved generation for this filepath.
+		Opens this run's generation archive, filename + ".genarc", if not open already.
+	*/
+	private GenerationArchive archive() throws IOException
+	{
+		if (archive == null)
+			archive = new GenerationArchive(new File(filename + ".genarc"));
+
+		return archive;
+	}
+
+	/*
+		This function finds the next saved generation for this filepath. The archive's index is used when it
+		has anything; otherwise, probe for the old one file per generation layout.
 	*/
 	private boolean findNextFile()
 	{
+		if (useArchive)
+		{
+			try
+			{
+				if (archive().size() > 0)
+				{
+					generation = archive.latestGeneration();
+					return true;
+				}
+			} catch (IOException e) { System.out.println("File error" + e.toString() ); }
+		}
+
 		boolean genExists = false;
 
 		int a = generation;
@@ -201,39 +281,60 @@ public class Simulation extends JPanel implements MouseListener {
 	}
 
 	/*
-		This function loads the last found saved generation.
+		This function loads the last found saved generation. Either format is understood; see GenerationFile.
 	*/
 	private void loadGen()
 	{
 		try
 		{
 			File fn = new File(filename + String.valueOf(generation) + ".gen");
-			if (fn.exists())
+			boolean archived = useArchive && archive().contains(generation);
+
+			if (archived || fn.exists())
 			{
-				fileIn = new BufferedReader( new FileReader( fn ) );
-
-				// File Format:
-				// Generation
-				// # Maze
-				// Maze file
-				// [Min fitness]
-				// [Avg fitness]
-				// [Max fitness]
-				// [# Samples]
-				// Maze file
-				// [Min fitness]
-				// [Avg fitness]
-				// [Max fitness]
-				// [# Samples]
-				// ...
-				// # Bugs
-				// [Bug 1 chromosome]
-				// [Bug 2 chromosome]
-				// ...
-				// [Bug n chromosome]
-
-				generation = Integer.parseInt(fileIn.readLine());
-				MAZES = Integer.parseInt(fileIn.readLine());
+				GenerationFile packed = null;
+				String[] titles;
+
+				if (archived || GenerationFile.isBinary(fn))
+				{
+					packed = archived ? archive.read(generation) : GenerationFile.open(fn);
+
+					generation = packed.getGeneration();
+					if (packed.hasSeed())
+					{
+						seed = packed.getSeed(); // carry on breeding as the run would have.
+					}
+					titles = packed.getMazeTitles();
+					BUGS = packed.getPopulation();
+				}
+				else
+				{
+					fileIn = new BufferedReader( new FileReader( fn ) );
+
+					// File Format:
+					// Generation
+					// # Maze
+					// Maze file
+					// Maze file
+					// ...
+					// # Bugs
+					// [Bug 1 chromosome]
+					// [Bug 2 chromosome]
+					// ...
+					// [Bug n chromosome]
+
+					generation = Integer.parseInt(fileIn.readLine());
+					titles = new String[Integer.parseInt(fileIn.readLine())];
+
+					for ( int i = 0; i < titles.length; i ++)
+					{
+						titles[i] = fileIn.readLine();
+					}
+
+					BUGS = Integer.parseInt(fileIn.readLine());
+				}
+
+				MAZES = titles.length;
 				Maze = new SimulationMap[MAZES];
 				MazeMinFitness = new double[MAZES];
 				MazeMaxFitness = new double[MAZES];
@@ -245,138 +346,148 @@ public class Simulation extends JPanel implements MouseListener {
 
 				for ( int i = 0; i < MAZES; i ++)
 				{
-					Maze[i] = new SimulationMap("./mazes/" + fileIn.readLine() + ".maze");
-
-					/*MazeMinFitness[i] = Double.parseDouble(fileIn.readLine());
-					MazeAvgFitness[i] = Double.parseDouble(fileIn.readLine());
-					MazeMinFitness[i] = Double.parseDouble(fileIn.readLine());
-					MazeSamFitness[i] = Double.parseDouble(fileIn.readLine());
-
-					MazeTotFitness[i] = MazeAvgFitness[i] * MazeSamFitness[i];*/
+					Maze[i] = new SimulationMap("./mazes/" + titles[i] + ".maze");
+					Maze[i].useDistanceField(collisionResolution);
 				}
 
 				fitMazes();
 
-				BUGS = Integer.parseInt(fileIn.readLine());
-
 				Actor = new Bug[BUGS][MAZES];
 				ActorActive = new boolean[BUGS][MAZES];
-				ActorPath = new GeneralPath[BUGS][MAZES];
 				ActorPathLength = new double[BUGS][MAZES];
+				ActorDNA = new Chromosome[BUGS];
 
-				System.out.println("Gen: " + generation + " Bugs: " + BUGS );
+				System.out.println("Gen: " + generation + " Bugs: " + BUGS + " Seed: " + seed );
 
 				for ( int i = 0; i < BUGS; i ++ )
 				{
-					Chromosome chromo = newGenomeEncoded(fileIn.readLine());
+					Chromosome chromo = (packed != null) ? packed.toChromosome(i) : newGenomeEncoded(fileIn.readLine());
+					ActorDNA[i] = chromo;
 
 					for (int j = 0; j < MAZES; j ++ )
 					{
 						ActorActive[i][j] = true;
 
 						Actor[i][j] = newBug(chromo, j);
-						ActorPath[i][j] = new GeneralPath();
-						ActorPath[i][j].moveTo((float) (simBorder + MazeXOffset[j] + MazeScaleFactor[j] * Maze[j].getStartX()),
-										 	   (float) (simBorder + MazeYOffset[j] + MazeScaleFactor[j] * Maze[j].getStartY()));
 						ActorPathLength[i][j] = 0.0;
 					}
 				}
 
+				if (fileIn != null)
+				{
+					fileIn.close();
+					fileIn = null;
+				}
+
 				numSteps = 0;
 			}
 		} catch (IOException e) { System.out.println("File error" + e.toString() ); }
 	}
 
 	/*
-		Save the current generation.
+		Save the current generation, and append its statistics to each maze's statistics file. Only a snapshot
+		is taken here; the writing is done on the writer thread (see writeGen) while simulation goes on.
 	*/
 	private void saveGen()
 	{
-		try
+		String[] titles = new String[MAZES];
+
+		for ( int i = 0; i < MAZES; i++)
 		{
-			File fn = new File(filename + String.valueOf(generation) + ".gen");
-			if (!fn.exists())
-			{
-				fileOut = new BufferedWriter( new FileWriter( fn ) );
-
-				// File Format:
-				// Generation
-				// # Maze
-				// Maze file
-				// [Min fitness]
-				// [Avg fitness]
-				// [Max fitness]
-				// [# Samples]
-				// Maze file
-				// [Min fitness]
-				// [Avg fitness]
-				// [Max fitness]
-				// [# Samples]
-				// ...
-				// # Bugs
-				// [Bug 1 chromosome]
-				// [Bug 2 chromosome]
-				// ...
-				// [Bug n chromosome]
-
-				fileOut.write(String.valueOf(generation) + "\r\n");
-				fileOut.write(String.valueOf(MAZES) + "\r\n");
-
-				for ( int i = 0; i < MAZES; i++)
-				{
-					fileOut.write(Maze[i].getTitle() + "\r\n");
-					/*fileOut.write(MazeMinFitness[i]);
-					fileOut.write("\r\n");
-					fileOut.write(MazeAvgFitness[i]);
-					fileOut.write("\r\n");
-					fileOut.write(MazeMinFitness[i]);
-					fileOut.write("\r\n");
-					fileOut.write(MazeSamFitness[i]);
-					fileOut.write("\r\n");*/
-
-					if (MazeStatistics != null && MazeStatistics[i] != null)
-					{
-						PrintWriter dos = new PrintWriter( new BufferedWriter( new FileWriter( MazeStatistics[i], true ) ) );
-
-						dos.print(String.valueOf(MazeMinFitness[i]));
-						dos.print(",");
-						dos.print(String.valueOf(MazeMaxFitness[i]));
-						dos.print(",");
-						dos.print(String.valueOf(MazeAvgFitness[i]));
-						dos.print(",");
-
-						dos.print(String.valueOf(MazeMinProgress[i]));
-						dos.print(",");
-						dos.print(String.valueOf(MazeMaxProgress[i]));
-						dos.print(",");
-						dos.print(String.valueOf(MazeAvgProgress[i]));
-						dos.print(",");
-
-						dos.print(String.valueOf(MazeMinStep[i]));
-						dos.print(",");
-						dos.print(String.valueOf(MazeMaxStep[i]));
-						dos.print(",");
-						dos.print(String.valueOf(MazeAvgStep[i]));
-						dos.print(",");
-
-						dos.println(String.valueOf(BUGS));
-
-						dos.flush();
-						dos.close();
-					}
-				}
+			titles[i] = Maze[i].getTitle();
+		}
 
-				fileOut.write(String.valueOf(BUGS) + "\r\n");
+		writer().submit(new GenerationSnapshot(generation, seed, titles, ActorDNA, ActorLineage, lineageBase, MazeStatistics,
+				new double[][] {MazeMinFitness, MazeMaxFitness, MazeAvgFitness},
+				new double[][] {MazeMinProgress, MazeMaxProgress, MazeAvgProgress},
+				MazeMinStep, MazeMaxStep, MazeAvgStep));
+	}
 
-				for ( int i = 0; i < BUGS; i ++ )
-				{
-					fileOut.write(Actor[i][0].getDNA().toEncodedString() + "\r\n");
-				}
+	/*
+		Gets the generation writer, starting it if needed. Once started, the archive belongs to the writer thread.
+	*/
+	private GenerationWriter writer()
+	{
+		if (writer == null)
+		{
+			writer = new GenerationWriter("Generation writer " + filename, new GenerationWriter.Persister() {
+						public void persist(GenerationSnapshot snap) throws IOException {
+							writeGen(snap);
+						}
+					}, GenerationWriter.DEFAULT_CAPACITY);
 
-				fileOut.flush();
-				fileOut.close();
-			}
-		} catch (IOException e) { System.out.println("File error" + e.toString() ); }
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+						public void run() {
+							writer.close(); // durability barrier: don't exit with generations unsaved.
+
+							try
+							{
+								if (trajectories != null)
+									trajectories.close();
+							} catch (IOException e) { System.out.println("File error" + e.toString() ); }
+
+							try
+							{
+								statistics().close();
+							} catch (IOException e) { System.out.println("File error" + e.toString() ); }
+
+							if (exporter != null)
+								exporter.close();
+						}
+					});
+		}
+
+		return writer;
+	}
+
+	/*
+		Gets the statistics sink, starting it if needed.
+	*/
+	private synchronized StatisticsSink statistics()
+	{
+		if (statistics == null)
+			statistics = new StatisticsSink(statisticsStore ? new File(filename + ".stats") : null, statisticsFlushEvery);
+
+		return statistics;
+	}
+
+	/*
+		Write a generation snapshot. Runs on the writer thread.
+	*/
+	private void writeGen(GenerationSnapshot snap) throws IOException
+	{
+		File fn = new File(filename + String.valueOf(snap.generation) + ".gen");
+		if (useArchive ? !archive().contains(snap.generation) : !fn.exists())
+		{
+			statistics().write(snap);
+
+			if (useArchive && snap.lineage != null && snap.generation % keyframeInterval != 0 && archive.contains(snap.lineageBase))
+				archive.appendDelta(snap.generation, snap.lineageBase, snap.seed, snap.titles, snap.dna, snap.lineage);
+			else if (useArchive)
+				archive.append(snap.generation, snap.seed, snap.titles, snap.dna);
+			else if (binaryGenerations)
+				GenerationFile.write(fn, snap.generation, snap.seed, snap.titles, snap.dna);
+			else
+				GenerationFile.writeText(fn, snap.generation, snap.titles, snap.dna);
+		}
+	}
+
+	/*
+		Stop the simulation, and wait for every generation so far to be saved.
+	*/
+	public void stop()
+	{
+		active = false;
+		tick.stop();
+		frames.stop();
+
+		if (writer != null)
+		{
+			writer.flush();
+			statistics().flush();
+		}
+
+		awaitCheckpoint();
 	}
 
 	/*
@@ -408,6 +519,7 @@ public class Simulation extends JPanel implements MouseListener {
 		for (int i = 0; i < MAZES; i++)
 		{
 			Maze[i] = new SimulationMap("./mazes/" + mazes[i] + ".maze");
+			Maze[i].useDistanceField(collisionResolution);
 		}
 
 		filename = loadname;
@@ -431,12 +543,10 @@ public class Simulation extends JPanel implements MouseListener {
 
 		Actor = new Bug[BUGS][MAZES];
 		ActorActive = new boolean[BUGS][MAZES];
-		ActorPath = new GeneralPath[BUGS][MAZES];
 		ActorPathLength = new double[BUGS][MAZES];
 
-		ActorEyes = new double[] {15.0, 14.0,13.0,12.0,11.0,10.0,-10.0,-11.0,-12.0,-13.0,-14.0, -15.0}; // bug looks ahead.
-		ActorEyeSight = new double[ActorEyes.length];
-		Arrays.fill(ActorEyeSight, sightDistance); // TODO Sight length should be genomic, not a simulation parameter.
+		// bug looks ahead. TODO Sight length should be genomic, not a simulation parameter.
+		ActorEyes = new SensorModel(new double[] {15.0, 14.0,13.0,12.0,11.0,10.0,-10.0,-11.0,-12.0,-13.0,-14.0, -15.0}, sightDistance);
 
 		MazeMinFitness = new double[MAZES];
 		MazeMaxFitness = new double[MAZES];
@@ -492,6 +602,13 @@ public class Simulation extends JPanel implements MouseListener {
 					}
 				});
 
+		frames = new javax.swing.Timer(1000 / frameRate, new ActionListener(){ // and this one shows it.
+					public void actionPerformed(ActionEvent e) {
+						if (lastFrame != paintedFrame)
+							repaint();
+					}
+				});
+
 		active = false;
 
 		this.addMouseListener(this);
@@ -505,23 +622,29 @@ public class Simulation extends JPanel implements MouseListener {
 		if (findNextFile()) // load when found
 		{
 			loadGen();
+
+			resumeCheckpoint(); // carry on part way through the generation, if it was checkpointed.
 		}
 		else // or create a new runpath.
 		{
 			fitMazes();
 
+			ActorDNA = new Chromosome[BUGS];
+
+			Rng origin = new Rng(seed).stream(0);
+
+			System.out.println("Seed: " + seed);
+
 			for ( int i = 0; i < BUGS; i ++ )
 			{
-				Chromosome genes = newGenome();
+				Chromosome genes = newGenome(origin.stream(i));
+				ActorDNA[i] = genes;
 
 				for (int j = 0; j < MAZES; j++)
 				{
 					ActorActive[i][j] = true;
 
 					Actor[i][j] = newBug(genes, j);
-					ActorPath[i][j] = new GeneralPath();
-					ActorPath[i][j].moveTo((float) (simBorder + MazeXOffset[j] + MazeScaleFactor[j] * Maze[j].getStartX()),
-										   (float) (simBorder + MazeYOffset[j] + MazeScaleFactor[j] * Maze[j].getStartY()));
 					ActorPathLength[i][j] = 0.0;
 				}
 			}
@@ -532,9 +655,116 @@ public class Simulation extends JPanel implements MouseListener {
 			saveGen(); // save origin pathing.
 		}
 
+		beginTrajectories();
+
 		prepareMazeStatistics();
 	}
 
+	/*
+		Choose how trajectories are recorded; call before init(). Headless runs default to OFF, others to RING.
+	*/
+	public void setTrajectories(TrajectoryRecorder.Mode mode, int sampleEvery)
+	{
+		trajectoryMode = mode;
+		trajectorySampling = sampleEvery;
+	}
+
+	/*
+		Choose how frames are exported as PNGs, into the directory filename + ".frames"; call before init().
+		Headless runs default to every 100 steps at the window's size, others to never. A width or height
+		of 0 is the window's own.
+	*/
+	public void setExport(int every, int width, int height)
+	{
+		exportEvery = every;
+		exportWidth = width;
+		exportHeight = height;
+	}
+
+	/*
+		Gets the frame exporter, starting it if needed. It draws with a renderer of its own, for the mazes as fitted.
+	*/
+	private FrameExporter exporter()
+	{
+		if (exporter == null)
+		{
+			int panelX = getSimSizeX() + 2 * getSimBorder(); // the size of the window main() opens.
+			int panelY = getSimSizeY() + 2 * getSimBorder();
+
+			exporter = new FrameExporter("Frame exporter " + filename, new File(filename + ".frames"),
+					new MazeRenderer(Maze, MazeScaleFactor, MazeXOffset, MazeYOffset, getSimBorder(), redFit, adjustFit),
+					panelX, panelY, (exportWidth > 0) ? exportWidth : panelX, (exportHeight > 0) ? exportHeight : panelY,
+					FrameExporter.DEFAULT_CAPACITY);
+
+			writer(); // its shutdown hook closes the exporter too.
+		}
+
+		return exporter;
+	}
+
+	/*
+		The trajectory file for a generation of this filepath.
+	*/
+	private File trajectoryFile(int gen)
+	{
+		return new File(filename + String.valueOf(gen) + ".traj");
+	}
+
+	/*
+		Start recording trajectories for the current generation.
+	*/
+	private void beginTrajectories()
+	{
+		if (trajectories == null)
+			trajectories = new TrajectoryRecorder(trajectoryMode, trajectorySampling, trajectoryRing, trajectoryKeyframes,
+					TrajectoryRecorder.DEFAULT_QUANTUM);
+
+		String[] titles = new String[MAZES];
+		SimpleLine[][] walls = new SimpleLine[MAZES][];
+		SimpleLine[][] paths = new SimpleLine[MAZES][];
+
+		for ( int j = 0; j < MAZES; j++)
+		{
+			titles[j] = Maze[j].getTitle();
+			walls[j] = Maze[j].getWalls();
+			paths[j] = Maze[j].getPaths();
+		}
+
+		try
+		{
+			trajectories.begin(generation, titles, BUGS, walls, paths, trajectoryFile(generation));
+		}
+		catch (IOException e)
+		{
+			System.out.println("File error" + e.toString() );
+
+			trajectories = new TrajectoryRecorder(TrajectoryRecorder.Mode.OFF, 0, 0, 0, TrajectoryRecorder.DEFAULT_QUANTUM);
+		}
+	}
+
+	/*
+		Record where a bug is after this step, if it is sampled. A failing trajectory file turns recording off
+		rather than stop the simulation.
+	*/
+	private void recordTrajectory(int i, int j)
+	{
+		try
+		{
+			trajectories.record(numSteps, i, j, Actor[i][j].getX(), Actor[i][j].getY());
+		}
+		catch (IOException e)
+		{
+			System.out.println("File error" + e.toString() );
+
+			try
+			{
+				trajectories.close();
+			} catch (IOException ce) { }
+
+			trajectories = new TrajectoryRecorder(TrajectoryRecorder.Mode.OFF, 0, 0, 0, TrajectoryRecorder.DEFAULT_QUANTUM);
+		}
+	}
+
 	private void prepareMazeStatistics()
 	{
 		try
@@ -565,35 +795,44 @@ public class Simulation extends JPanel implements MouseListener {
 	{
 		active = true;
 		tick.start();
+		frames.start();
 	}
 
 	private double fitnessThreshold = 0.1; // if any results are below this line ... discard.
 	private double randomPreserve = 0.1; // very small!
 
-	public void gen()
+	private Selection.Mode selection = Selection.Mode.TRUNCATION; // how parents are picked; see Selection.
+	private long seed = new Rng().nextLong(); // the run's seed: every random choice in breeding comes from a stream of it.
+	private int breedBlock = 256;		// children bred per task on the builder pool; see Breeder.
+	private int tournamentSize = 3;		// TOURNAMENT: bugs drawn per pick.
+
+	/*
+		Seed a new run; call before init(). The seed is saved with every generation, and a loaded generation's
+		seed replaces this one; text and version 1 generations have none, so loading one keeps this seed. Given
+		the same seed and the same fitnesses, a generation breeds the same children however many threads breed it.
+	*/
+	public void setSeed(long seed)
 	{
-		TreeMap<Double, Vector<Bug>> fitness = new TreeMap<Double, Vector<Bug>>();
+		this.seed = seed;
+	}
 
-		Vector<Bug> curlist = null;
+	/*
+		Choose how parents are picked for the next generation.
+	*/
+	public void setSelection(Selection.Mode mode, int tournament)
+	{
+		selection = mode;
+		tournamentSize = tournament;
+	}
 
+	public void gen()
+	{
 		double[] fitnessAvg = computeFitness();
 
 		int c = 0; int d = 0;
 
 		for ( int a = 0; a < BUGS; a++ )
 		{
-			if (!fitness.containsKey( fitnessAvg[a] ) )
-			{
-				curlist = new Vector<Bug>();
-				fitness.put( fitnessAvg[a], curlist);
-			}
-			else
-			{
-				curlist = fitness.get( fitnessAvg[a] );
-			}
-
-			curlist.add( Actor[a][0] );
-
 			//if (fitnessAvg[a] >= fitnessThreshold)
 			//{
 			//	c++; // only count it if it's good.
@@ -608,187 +847,165 @@ public class Simulation extends JPanel implements MouseListener {
 
 		// now sorted and limited.
 
+		Chromosome[] next = new Chromosome[BUGS];
+
+		ActorLineage = new Lineage[BUGS];
+		lineageBase = generation;
+
 		if (c == 0 && d == 0) // BAD, no good results. No even marginally acceptable results. Ugh.
 		{
 			System.out.println(generation + " -- No good results. Resetting! ");
 
 			// construct a new random set.
-			Actor = new Bug[BUGS][MAZES];
-			ActorPath = new GeneralPath[BUGS][MAZES];
-
 			for (int a = 0; a < BUGS; a++)
 			{
-				Actor[a][0] = newBug(newGenome(), 0);
-
-				ActorPath[a][0] = new GeneralPath();
-				ActorPath[a][0].moveTo((float) (simBorder + MazeXOffset[0] + MazeScaleFactor[0] * Maze[0].getStartX()),
-									   (float) (simBorder + MazeYOffset[0] + MazeScaleFactor[0] * Maze[0].getStartY()));
-				ActorPathLength[a][0] = 0.0;
-
-				for (int b = 1; b < MAZES; b++)
-				{
-					Actor[a][b] = newBug(Actor[a][0].getDNA(), b);
-					ActorPath[a][b] = new GeneralPath();
-					ActorPath[a][b].moveTo((float) (simBorder + MazeXOffset[b] + MazeScaleFactor[b] * Maze[b].getStartX()),
-										   (float) (simBorder + MazeYOffset[b] + MazeScaleFactor[b] * Maze[b].getStartY()));
-					ActorPathLength[a][b] = 0.0;
-				}
+				next[a] = newGenome(Breeder.childRng(seed, generation, a));
+				ActorLineage[a] = new Lineage();
 			}
 
+			populate(next);
 		}
-		/*else if (c == 0 && d != 0) // some results better than zero.
+		else
 		{
-			System.out.println(generation + " -- No really good results, discarding majority. ");
+			int parentpool = Math.min((int) ((double) BUGS * preservation), c);
+			if (parentpool < 1)
+				parentpool = 1;
 
-			int parentpool = Math.min( (int) ((double) BUGS * preservation), d);
+			breeder().breed(seed, generation, ActorDNA, fitnessAvg, parentpool, next, ActorLineage, builders());
 
-			Actor = new Bug[BUGS][MAZES];
-			ActorPath = new GeneralPath[BUGS][MAZES];
+			populate(next);
 
-			Double key = fitness.lastKey();
+			// the inspected bug, if any, is gone.
+			if (inspector != null)
+				inspector.hide();
+		}
+	}
 
-			curlist = fitness.get(key);
+	/*
+		How the next generation is bred, as set up now. Children are bred in blocks of breedBlock on the builder
+		pool; see Breeder.
+	*/
+	private Breeder breeder()
+	{
+		Breeder b = new Breeder(crossover, crosstime, mutation, randomPreserve);
+		b.setSelection(selection, tournamentSize);
+		b.setBlock(breedBlock);
 
-			for ( int a = 0; a < parentpool; )
-			{
-				for ( Bug b : curlist )
-				{
-					Actor[a][0] = cloneBug(b, 0);
-					Actor[a + parentpool][0] = mutateBug(b, 0); // shocking! Force a mutation? I am playing God!
+		return b;
+	}
 
-					a++;
+	/*
+		Install a new generation's genomes and build its bugs. With pipelined turnover the bugs of each maze --
+		a brain apiece -- are built on the builder pool, and step() waits on a maze only when it gets to it;
+		otherwise they are all built here.
+	*/
+	private void populate(Chromosome[] next)
+	{
+		ActorDNA = next;
+		Actor = new Bug[BUGS][MAZES];
 
-					if (a >= parentpool)
-						break;
-				}
+		for (int b = 0; b < MAZES; b++)
+		{
+			final int midx = b;
+			Callable<Bug[]> build = new Callable<Bug[]>() {
+						public Bug[] call() {
+							return buildMaze(midx);
+						}
+					};
 
-				key = fitness.lowerKey(key);
+			if (pipelineTurnover)
+			{
+				if (MazeReady == null || MazeReady.size() != MAZES)
+					MazeReady = new ArrayList<Future<Bug[]>>(Collections.<Future<Bug[]>>nCopies(MAZES, null));
 
-				if (key != null)
-					curlist = fitness.get(key);
+				MazeReady.set(b, builders().submit(build));
 			}
-
-
-			for (int e = 0; e < BUGS; e++)
+			else
 			{
-				if (Actor[e][0] == null) // if not preserved, fill with random.
-					Actor[e][0] = newBug( newGenome(), 0);
+				installMaze(b, buildMaze(b));
+			}
+		}
+	}
 
-				ActorPath[e][0] = new GeneralPath();
-				ActorPath[e][0].moveTo((float) (simBorder + MazeXOffset[0] + MazeScaleFactor[0] * Maze[0].getStartX()),
-									   (float) (simBorder + MazeYOffset[0] + MazeScaleFactor[0] * Maze[0].getStartY()));
+	/*
+		Build every bug for one maze from this generation's genomes. Runs on a builder thread when pipelined, so
+		it touches nothing shared but the (unchanging) genomes and mazes.
+	*/
+	private Bug[] buildMaze(int midx)
+	{
+		Chromosome[] dna = ActorDNA;
+		Bug[] col = new Bug[dna.length];
 
-				ActorPathLength[e][0] = 0.0;
+		for (int a = 0; a < dna.length; a++)
+		{
+			col[a] = newBug(dna[a], midx);
+		}
 
-				for (int f = 1; f < MAZES; f++)
-				{
-					Actor[e][f] = newBug(Actor[e][0].getDNA(), f);
-					ActorPath[e][f] = new GeneralPath();
-					ActorPath[e][f].moveTo((float) (simBorder + MazeXOffset[f] + MazeScaleFactor[f] * Maze[f].getStartX()),
-										   (float) (simBorder + MazeYOffset[f] + MazeScaleFactor[f] * Maze[f].getStartY()));
-					ActorPathLength[e][f] = 0.0;
-				}
-			}
+		return col;
+	}
 
-		}*/
-		else
+	/*
+		Put one maze's new bugs in place, ready to run.
+	*/
+	private void installMaze(int midx, Bug[] col)
+	{
+		for (int a = 0; a < BUGS; a++)
 		{
-			int parentpool = Math.min((int) ((double) BUGS * preservation), c);
-			if (parentpool < 1)
-				parentpool = 1;
+			Actor[a][midx] = col[a];
+			ActorPathLength[a][midx] = 0.0;
+		}
+	}
 
-			Bug[] Spawn = new Bug[parentpool];
+	/*
+		Wait for a maze's bugs, if they are still being built.
+	*/
+	private void awaitMaze(int midx)
+	{
+		if (MazeReady == null || MazeReady.get(midx) == null)
+			return;
 
-			Double key = fitness.lastKey();
+		Future<Bug[]> ready = MazeReady.set(midx, null);
 
-			curlist = fitness.get(key);
+		boolean interrupted = false;
 
-			for ( int a = 0; a < Spawn.length; )
+		while (true)
+		{
+			try
 			{
-				for ( Bug b : curlist )
-				{
-					Spawn[a] = b;
-
-					a++;
-
-					if (a >= Spawn.length)
-						break;
-				}
-
-				key = fitness.lowerKey(key);
-
-				if (key != null)
-					curlist = fitness.get(key);
+				installMaze(midx, ready.get());
+				break;
 			}
-
-			Bug[][] oldActors = Actor;
-
-			Actor = new Bug[BUGS][MAZES];
-			ActorPath = new GeneralPath[BUGS][MAZES];
-
-			double cCross = 0.0;
-
-			for ( int a = 0; a < BUGS; a ++ )
+			catch (InterruptedException ie)
 			{
-				cCross = (double) Math.random(); // Perform crossover?
-
-				if (cCross < randomPreserve) // pick a random dude to save without respect to fitness
-				{
-					int x1 = (int) (Math.random() * BUGS);
-
-					Actor[a][0] = cloneBug( oldActors[x1][0], 0 );
-				}
-				else if (cCross < crossover && parentpool > 1) // yes!
-				{
-					// perform crossover. Pick two at random.
-					int x1 = 0;
-					int x2 = 1;
-
-					if (parentpool > 2) {
-						x1 = (int) (Math.random() * parentpool);
-						while (x1 == x2) {
-							x2 = (int) (Math.random() * parentpool);
-						}
-					}
-
-					//System.out.println("Crossing: " + x1 + ", " + x2);
-
-					Actor[a][0] = crossBug( Spawn[x1], Spawn[x2], 0 );
-				}
-				else // clone
-				{
-					int x1 = (int) (Math.random() * parentpool);
-
-					//System.out.println("Cloning: " + x1);
-
-					Actor[a][0] = cloneBug( Spawn[x1], 0 );
-
-				}
-
-				ActorPath[a][0] = new GeneralPath();
-				ActorPath[a][0].moveTo((float) (simBorder + MazeXOffset[0] + MazeScaleFactor[0] * Maze[0].getStartX()),
-									   (float) (simBorder + MazeYOffset[0] + MazeScaleFactor[0] * Maze[0].getStartY()));
-				ActorPathLength[a][0] = 0.0;
-
-				for (int b = 1; b < MAZES; b++)
-				{
-					Actor[a][b] = newBug(Actor[a][0].getDNA(), b);
-					ActorPath[a][b] = new GeneralPath();
-					ActorPath[a][b].moveTo((float) (simBorder + MazeXOffset[b] + MazeScaleFactor[b] * Maze[b].getStartX()),
-										   (float) (simBorder + MazeYOffset[b] + MazeScaleFactor[b] * Maze[b].getStartY()));
-					ActorPathLength[a][b] = 0.0;
-				}
+				interrupted = true;
 			}
-
-			// Cleanup old actors
-			for (int a = 0; a < BUGS; a++) {
-				for (int b = 0; b < MAZES; b++) {
-					oldActors[a][b].endDebug();
-				}
+			catch (ExecutionException ee)
+			{
+				throw new RuntimeException("Failed to build bugs for maze " + midx, ee.getCause());
 			}
+		}
+
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
 
-			oldActors = null;
+	/*
+		The pool that builds bugs during turnover; one thread per core, started when first needed.
+	*/
+	private ExecutorService builders()
+	{
+		if (builders == null)
+		{
+			builders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "Bug builder " + filename);
+							t.setDaemon(true);
+							return t;
+						}
+					});
 		}
+
+		return builders;
 	}
 
 	// Step the simulation until step n, then evaluate for the new generation.
@@ -814,6 +1031,8 @@ public class Simulation extends JPanel implements MouseListener {
 
 			saveGen(); // save the new generation.
 
+			beginTrajectories();
+
 			resetStats();
 
 			active = true;
@@ -823,65 +1042,239 @@ public class Simulation extends JPanel implements MouseListener {
 		{
 
 			Bug temp;
-			// run through and Step all the bugs.
-			for ( int i = 0; i < BUGS; i ++ )
+			int running = 0; // bugs still running after this step.
+
+			// run through and Step all the bugs, a maze at a time so each maze senses all its bugs at once.
+			for ( int j = 0; j < MAZES; j ++)
 			{
-				for ( int j = 0; j < MAZES; j ++)
+				// input definition:
+				// input 2k   - eye k distance
+				// input 2k+1 - eye k sees a wall? -1 no 1 yes
+
+				awaitMaze(j); // this maze's new bugs may still be building.
+
+				int sensed = senseMaze(j);
+				running += sensed;
+
+				for ( int s = 0; s < sensed; s ++ )
 				{
-					// need to update inputs ... eeak.
+					int i = senseIdx[s];
 
-					// input definition:
-					// input 0 - "left" eye distance
-					// input 1 - "left" eye sees a wall? -1 no 1 yes
-					// input 2 - "right" eye distance
-					// input 3 - "right" eye sees a wall? -1 no 1 yes
+					temp = Actor[i][j];
 
-					if (ActorActive[i][j])
+					double x = temp.getX();
+					double y = temp.getY();
+
+					temp.setInputs(senseInputs[s]);
+
+					temp.step(Maze[j]);
+
+					x = temp.getX() - x;
+					y = temp.getY() - y;
+
+					ActorPathLength[i][j] += Math.sqrt(Math.pow(x, 2.0) + Math.pow(y, 2.0));
+
+					updateFitness(temp, i, j);
+
+					if (solvedMaze(temp, i, j) )
 					{
-						temp = Actor[i][j];
+						ActorActive[i][j] = false; // solved the maze!
+						running--;
+
+						// Immediately record these intermediate informations.
+
+						if (numSteps < MazeMinStep[j]) MazeMinStep[j] = numSteps;
+						if (numSteps > MazeMaxStep[j]) MazeMaxStep[j] = numSteps;
+						MazeTotStep[j] += numSteps;
+						MazeSamStep[j] ++;
+						MazeAvgStep[j] = (double) MazeTotStep[j] / (double) MazeSamStep[j];
+
+						if (Actor[i][j].getFitness() < MazeMinProgress[j]) MazeMinProgress[j] = Actor[i][j].getFitness();
+						if (Actor[i][j].getFitness() > MazeMaxProgress[j]) MazeMaxProgress[j] = Actor[i][j].getFitness();
+						MazeTotProgress[j] += Actor[i][j].getFitness();
+						MazeSamProgress[j] ++;
+						MazeAvgProgress[j] = (double) MazeTotProgress[j] / (double) MazeSamProgress[j];
+					}
 
-						double x = temp.getX();
-						double y = temp.getY();
+					recordTrajectory(i, j);
+				}
+			}
 
-						setInput(temp, i, j);
+			if (inspector != null)
+				inspector.sample(); // rate limited; copies the inspected brain for its display.
 
-						temp.step(Maze[j]);
+			numSteps ++; // increase the step
 
-						x = temp.getX() - x;
-						y = temp.getY() - y;
+			if (running == 0 && numSteps < simLengthCap)
+				numSteps = simLengthCap; // every bug is done; end the generation.
 
-						ActorPathLength[i][j] += Math.sqrt(Math.pow(x, 2.0) + Math.pow(y, 2.0));
+			captureFrame(); // for the display, which repaints on its own clock.
 
-						updateFitness(temp, i, j);
+			if (checkpointInterval > 0 && numSteps % checkpointInterval == 0)
+				checkpoint();
+		}
+	}
 
-						if (solvedMaze(temp, i, j) )
-						{
-							ActorActive[i][j] = false; // solved the maze!
+	/*
+		The checkpoint file for this filepath.
+	*/
+	private File checkpointFile()
+	{
+		return new File(filename + ".ckpt");
+	}
+
+	/*
+		The per maze statistics a checkpoint carries, real valued then integer, in a fixed order.
+	*/
+	private double[][] realStatistics()
+	{
+		return new double[][] {MazeMinFitness, MazeMaxFitness, MazeAvgFitness, MazeTotFitness,
+				MazeMinProgress, MazeMaxProgress, MazeAvgProgress, MazeTotProgress, MazeAvgStep};
+	}
+
+	private long[][] countStatistics()
+	{
+		return new long[][] {MazeSamFitness, MazeSamProgress, MazeMinStep, MazeMaxStep, MazeTotStep, MazeSamStep};
+	}
+
+	/*
+		Checkpoint the in-flight state of this generation. The state is copied here, between steps; writing it
+		is done on the checkpoint thread. If the last checkpoint is still being written, this one is skipped
+		rather than let copies pile up -- the next interval will catch up.
+	*/
+	private void checkpoint()
+	{
+		if (checkpointing != null && !checkpointing.isDone())
+			return;
+
+		String[] titles = new String[MAZES];
+
+		for ( int j = 0; j < MAZES; j++)
+		{
+			titles[j] = Maze[j].getTitle();
+		}
 
-							// Immediately record these intermediate informations.
+		final Checkpoint ckpt = new Checkpoint(generation, numSteps, titles, BUGS, realStatistics(), countStatistics());
 
-							if (numSteps < MazeMinStep[j]) MazeMinStep[j] = numSteps;
-							if (numSteps > MazeMaxStep[j]) MazeMaxStep[j] = numSteps;
-							MazeTotStep[j] += numSteps;
-							MazeSamStep[j] ++;
-							MazeAvgStep[j] = (double) MazeTotStep[j] / (double) MazeSamStep[j];
+		for ( int i = 0; i < BUGS; i++ )
+		{
+			for ( int j = 0; j < MAZES; j++ )
+			{
+				ckpt.setBug(i, j, ActorActive[i][j], ActorPathLength[i][j], Actor[i][j], ActorActive[i][j]);
+			}
+		}
 
-							if (Actor[i][j].getFitness() < MazeMinProgress[j]) MazeMinProgress[j] = Actor[i][j].getFitness();
-							if (Actor[i][j].getFitness() > MazeMaxProgress[j]) MazeMaxProgress[j] = Actor[i][j].getFitness();
-							MazeTotProgress[j] += Actor[i][j].getFitness();
-							MazeSamProgress[j] ++;
-							MazeAvgProgress[j] = (double) MazeTotProgress[j] / (double) MazeSamProgress[j];
+		if (checkpointer == null)
+		{
+			checkpointer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "Checkpoint writer " + filename);
+							t.setDaemon(true); // the write is atomic, so being cut off only loses this checkpoint.
+							return t;
 						}
+					});
+		}
 
-						ActorPath[i][j].lineTo((float) (simBorder + MazeXOffset[j] + MazeScaleFactor[j] * Actor[i][j].getX()),
-											   (float) (simBorder + MazeYOffset[j] + MazeScaleFactor[j] * Actor[i][j].getY()));
+		checkpointing = checkpointer.submit(new Runnable() {
+					public void run() {
+						try
+						{
+							ckpt.write(checkpointFile());
+						} catch (IOException e) { System.out.println("File error" + e.toString() ); }
 					}
+				});
+	}
+
+	/*
+		Wait for the checkpoint being written, if any.
+	*/
+	private void awaitCheckpoint()
+	{
+		if (checkpointing == null)
+			return;
+
+		try
+		{
+			checkpointing.get();
+		}
+		catch (InterruptedException ie)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException ee)
+		{
+			System.out.println("Checkpoint failed: " + ee.getCause().toString() );
+		}
+	}
+
+	/*
+		Restore the in-flight state of the loaded generation from its checkpoint, if there is one. A checkpoint of
+		any other generation or run is ignored, and the generation starts from step 0.
+	*/
+	private void resumeCheckpoint()
+	{
+		File fn = checkpointFile();
+
+		if (!fn.exists())
+			return;
+
+		try
+		{
+			Checkpoint ckpt = Checkpoint.read(fn);
+
+			if (ckpt.generation != generation || ckpt.population != BUGS || ckpt.steps <= 0 || ckpt.titles.length != MAZES)
+				return;
+
+			for ( int j = 0; j < MAZES; j++)
+			{
+				if (!ckpt.titles[j].equals(Maze[j].getTitle()))
+					return;
+			}
+
+			double[][] real = ckpt.getRealStatistics();
+			long[][] count = ckpt.getCountStatistics();
+
+			if (real.length != realStatistics().length || count.length != countStatistics().length)
+				return;
+
+			for ( int i = 0; i < BUGS; i++ )
+			{
+				for ( int j = 0; j < MAZES; j++ )
+				{
+					ckpt.restoreBug(i, j, Actor[i][j]);
+
+					ActorActive[i][j] = ckpt.isActive(i, j);
+					ActorPathLength[i][j] = ckpt.getPathLength(i, j);
 				}
 			}
 
-			this.repaint(); // draw it.
+			MazeMinFitness = real[0];
+			MazeMaxFitness = real[1];
+			MazeAvgFitness = real[2];
+			MazeTotFitness = real[3];
+			MazeMinProgress = real[4];
+			MazeMaxProgress = real[5];
+			MazeAvgProgress = real[6];
+			MazeTotProgress = real[7];
+			MazeAvgStep = real[8];
+
+			MazeSamFitness = count[0];
+			MazeSamProgress = count[1];
+			MazeMinStep = count[2];
+			MazeMaxStep = count[3];
+			MazeTotStep = count[4];
+			MazeSamStep = count[5];
+
+			numSteps = ckpt.steps;
+
+			System.out.println("Resumed generation " + generation + " at step " + numSteps);
+		}
+		catch (IOException e) { System.out.println("File error" + e.toString() ); }
+		catch (RuntimeException re)
+		{
+			System.out.println("Checkpoint does not fit generation " + generation + ", starting it over: " + re.toString() );
 
-			numSteps ++; // increase the step
+			loadGen(); // undo whatever was restored.
 		}
 	}
 
@@ -906,22 +1299,7 @@ public class Simulation extends JPanel implements MouseListener {
 		{
 			for (int j = 0; j < MAZES; j++)
 			{
-				double x = ActorPathLength[i][j];
-				if (ActorPathLength[i][j] > 0.0)
-					// use a log-normal function here to give us a nice, skewed answer. Basically, bugs that barely travel are bad bugs, and bugs that travel too far are also bad bugs.
-					//curFitness = Maze[j].pathLength() / ActorPathLength[i][j];
-					curFitness = Maze[j].pathTravel(x);
-				else
-					curFitness = 0.0;
-
-				// Fitness is also adjusted by BEST progress and current progress through the maze, without regard to simulation steps.
-				curFitness *= ((Actor[i][j].getFitness() + Actor[i][j].getMaxFitness() * 3.0) / 4.0);
-
-
-				// Finally, we adjust based on expected progress given the number of steps through the simulation.
-				if (ActorActive[i][j]) // but only if the actor is alive at compute time.
-					curFitness *= computeStepFitness(Actor[i][j].getMaxFitness() ); // we base on BEST progress the actor has achieved.
-				// else the factor would be 1.0, so no need to multiply.
+				curFitness = actorFitness(i, j);
 
 				ActorFitness[i] += curFitness;
 				if (MazeMinFitness[j] > curFitness) MazeMinFitness[j] = curFitness;
@@ -953,6 +1331,33 @@ public class Simulation extends JPanel implements MouseListener {
 		return ActorFitness;
 	}
 
+	/*
+		One bug's fitness in one maze, as things stand.
+	*/
+	private double actorFitness(int i, int j)
+	{
+		double curFitness;
+
+		double x = ActorPathLength[i][j];
+		if (ActorPathLength[i][j] > 0.0)
+			// use a log-normal function here to give us a nice, skewed answer. Basically, bugs that barely travel are bad bugs, and bugs that travel too far are also bad bugs.
+			//curFitness = Maze[j].pathLength() / ActorPathLength[i][j];
+			curFitness = Maze[j].pathTravel(x);
+		else
+			curFitness = 0.0;
+
+		// Fitness is also adjusted by BEST progress and current progress through the maze, without regard to simulation steps.
+		curFitness *= ((Actor[i][j].getFitness() + Actor[i][j].getMaxFitness() * 3.0) / 4.0);
+
+
+		// Finally, we adjust based on expected progress given the number of steps through the simulation.
+		if (ActorActive[i][j]) // but only if the actor is alive at compute time.
+			curFitness *= computeStepFitness(Actor[i][j].getMaxFitness() ); // we base on BEST progress the actor has achieved.
+		// else the factor would be 1.0, so no need to multiply.
+
+		return curFitness;
+	}
+
 	/**
 	 * This component of fitness measures the idea that an actor should continue to make progress as the simulation progresses. If the actor's progress does not AT LEAST keep in step with
 	 * the simulation's progress, we introduce a decay to their fitness. Otherwise, this decay factor is 1.0 (no decay). E.g. after 75% of max steps in the simulation, a successful actor
@@ -1027,243 +1432,240 @@ public class Simulation extends JPanel implements MouseListener {
 			return false;
 	}
 
-	SimpleLine[] rays = null;
-
-	private void setInput(Bug cur, int idx, int midx)
+	// Batch sensing buffers, one entry per active bug of the maze being sensed.
+	private int[] senseIdx;
+	private double[] senseX;
+	private double[] senseY;
+	private double[] senseCos;
+	private double[] senseSin;
+	private WallCandidates[] senseNear;
+	private SensorModel[] senseEyes;
+	private double[][] senseInputs;
+
+	// Sense every active bug of maze midx in one call. Fills the sense buffers; returns the number of bugs sensed.
+	private int senseMaze(int midx)
 	{
-		if (rays == null || rays.length != ActorEyes.length) {
-			rays = new SimpleLine[ActorEyes.length];
-
-			for (int i = 0; i < rays.length; i++) {
-				rays[i] = new SimpleLine();
-			}
+		if (senseIdx == null || senseIdx.length != BUGS)
+		{
+			senseIdx = new int[BUGS];
+			senseX = new double[BUGS];
+			senseY = new double[BUGS];
+			senseCos = new double[BUGS];
+			senseSin = new double[BUGS];
+			senseNear = new WallCandidates[BUGS];
+			senseEyes = new SensorModel[BUGS];
+			senseInputs = new double[BUGS][ActorEyes.numInputs()];
 		}
 
-		for (int i = 0; i < rays.length; i++)
+		int count = 0;
+
+		for (int i = 0; i < BUGS; i++)
 		{
-			rays[i].setX1( cur.getX() );
-			rays[i].setY1( cur.getY() );
-			rays[i].setX2( cur.getX() + ( sightDistance * Math.cos( Math.toRadians( cur.getDir() + ActorEyes[i] ) ) ) );
-			rays[i].setY2( cur.getY() + ( sightDistance * Math.sin( Math.toRadians( cur.getDir() + ActorEyes[i] ) ) ) );
-		}
+			if (ActorActive[i][midx])
+			{
+				Bug cur = Actor[i][midx];
 
-		double[] nearPoints = Maze[midx].nearestWalls(rays);
+				senseIdx[count] = i;
+				senseX[count] = cur.getX();
+				senseY[count] = cur.getY();
+				senseCos[count] = cur.getDirCos();
+				senseSin[count] = cur.getDirSin();
+				senseNear[count] = cur.getNearWalls();
+				senseEyes[count] = (cur.getSensors() != null) ? cur.getSensors() : ActorEyes;
 
-		double[] normPoints = SimulationMap.normalizeSight(nearPoints, ActorEyeSight, 1.0, 0.0);
+				if (senseInputs[count].length < senseEyes[count].numInputs())
+					senseInputs[count] = new double[senseEyes[count].numInputs()];
 
-		for (int i = 0; i < rays.length; i++)
-		{
-			//cur.setInput(i, normPoints[i]);
-			cur.setInput(i * 2, normPoints[i]);
-			cur.setInput(i * 2 + 1, ((nearPoints[i] == Double.MAX_VALUE) ? -1.0 : 1.0) );
+				count++;
+			}
 		}
 
-		//cur.setInput(4, ActorPathLength[idx][midx] / (double) simLengthCap);
-
-		//cur.setInput(3, cur.getTrueVel());
+		Maze[midx].senseAll(count, senseX, senseY, senseCos, senseSin, senseNear, senseEyes, senseInputs);
 
-		//cur.setInput(4, cur.getDir());
+		return count;
 	}
 
 	public static Color lightRed = new Color(255,230,230);
 	public static Color lightBlue = new Color(230,230,255);
 
-	// Draw the buggers.
+	// Draw the buggers, from the latest frame the simulation captured.
     public void paint(Graphics g)
     {
 		Graphics2D g2 = (Graphics2D) g;
 
-		double lm = 4; // vector multiplier.
-
         super.paint(g2); // clears the screen.
 
-        g2.setFont(g2.getFont().deriveFont(10f)); // sets the font to size 8.
-
-        int m = g2.getFontMetrics().getAscent(); // sets the multipler for font spacing.
-
-        if (active || numSteps > 0) // if active or already run but paused.
-        {
-	        g2.setColor(Color.BLACK);
-	        g2.drawString(Integer.toString(numSteps), 10,m);
-	        g2.drawString(Integer.toString(generation), 10,2*m);
-
-	        Bug temp;
-	        double[] tVec;
-
-	        int[] a = new int[MAZES];
-	        int fo = 0;
-
-			for (int b = 0; b < MAZES; b++)
-			{
-				g2.setColor(Color.BLACK);
-
-				SimpleLine[] walls = Maze[b].getWalls();
+		RenderFrame frame = lastFrame;
 
-				for (int c = 0; c < walls.length; c++)
-				{
-					g2.drawLine( (int) MazeXOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * walls[c].x1()),
-					             (int) MazeYOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * walls[c].y1()),
-					             (int) MazeXOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * walls[c].x2()),
-					             (int) MazeYOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * walls[c].y2()) );
-				}
-
-				g2.setColor(lightBlue);
-
-				SimpleLine[] paths = Maze[b].getPaths();
+		if (frame == null) // nothing run yet.
+			return;
 
-				for (int c = 0; c < paths.length; c++)
-				{
-					g2.drawLine( (int) MazeXOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[c].x1()),
-					             (int) MazeYOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[c].y1()),
-					             (int) MazeXOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[c].x2()),
-					             (int) MazeYOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[c].y2()) );
-				}
+		if (renderer == null)
+			renderer = new MazeRenderer(Maze, MazeScaleFactor, MazeXOffset, MazeYOffset, getSimBorder(), redFit, adjustFit);
 
-				// draw first and last "zone"
+		renderer.draw(g2, frame, getWidth(), getHeight(), !active);
 
-				g2.setColor(Color.GREEN);
+		paintedFrame = frame;
+	}
 
-				g2.drawOval( (int) MazeXOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[0].x1() - Maze[b].getNearThreshold() * MazeScaleFactor[b]),
-							 (int) MazeYOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[0].y1() - Maze[b].getNearThreshold() * MazeScaleFactor[b]),
-							 (int) (2.0 * Maze[b].getNearThreshold() * MazeScaleFactor[b]), (int) (2.0 * Maze[b].getNearThreshold() * MazeScaleFactor[b]) );
+	/*
+		Capture what the display shows: every running bug's position, heading and fitness, and the per maze
+		figures. Called on the simulation thread after a step: for the display at most at the frame rate, and
+		only while the simulation is on screen; for export every exportEvery steps and at the end of each
+		generation.
+	*/
+	private void captureFrame()
+	{
+		long now = System.nanoTime();
 
-				g2.setColor(Color.BLUE);
+		boolean show = isShowing() && now - lastCapture >= 1000000000L / frameRate;
+		boolean export = exportEvery > 0 && (numSteps % exportEvery == 0 || numSteps > simLengthCap);
 
-				g2.drawOval( (int) MazeXOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[paths.length-1].x2() - Maze[b].getNearThreshold() * MazeScaleFactor[b]),
-							 (int) MazeYOffset[b] + getSimBorder() + (int) (MazeScaleFactor[b] * paths[paths.length-1].y2() - Maze[b].getNearThreshold() * MazeScaleFactor[b]),
-							 (int) (2.0 * Maze[b].getNearThreshold() * MazeScaleFactor[b]), (int) (2.0 * Maze[b].getNearThreshold() * MazeScaleFactor[b]) );
-			}
+		if (!show && !export)
+			return;
 
-			double avgFitness[] = new double[MAZES];
-			double maxFitness[] = new double[MAZES];
-			double avgPath[] = new double[MAZES];
-			double maxPath[] = new double[MAZES];
-			double avgProgress[] = new double[MAZES];
-			double maxProgress[] = new double[MAZES];
-			double curFitness = 0.0;
+		if (show)
+			lastCapture = now;
+
+		int[] actors = new int[MAZES];
+		double[] avgPath = new double[MAZES];
+		double[] maxPath = new double[MAZES];
+		double[] avgProgress = new double[MAZES];
+		double[] maxProgress = new double[MAZES];
+		double[] avgFitness = new double[MAZES];
+		double[] maxFitness = new double[MAZES];
+
+		boolean lod = BUGS * MAZES > detailLimit; // frame cost no longer grows with the population.
+		int sprites = lod ? Math.min(BUGS, detailSprites) : 0;
+		int[][] density = lod ? new int[MAZES][detailGrid * detailGrid] : null;
+		int[] topBug = new int[sprites];
+		double[] topFit = new double[sprites];
+
+		int n = lod ? MAZES * sprites : BUGS * MAZES;
+		int[] maze = new int[n];
+		int[] bug = new int[n];
+		float[] x = new float[n];
+		float[] y = new float[n];
+		float[] vx = new float[n];
+		float[] vy = new float[n];
+		float[] fitness = new float[n];
+
+		int count = 0;
+
+		for (int e = 0; e < MAZES; e++)
+		{
+			maxFitness[e] = Double.MIN_VALUE;
+			maxPath[e] = Double.MIN_VALUE;
 
-			for (int k = 0; k < MAZES; k++)
-			{
-				maxFitness[k] = Double.MIN_VALUE;
-				maxPath[k] = Double.MIN_VALUE;
-			}
+			int top = 0;
 
 			for (int f = 0; f < BUGS; f++)
 			{
-				for (int e = 0; e < MAZES; e++)
-				{
-					double x = ActorPathLength[f][e];
-					if (x > maxPath[e]) maxPath[e] = x;
-					avgPath[e] += x;
-					if (ActorPathLength[f][e] > 0.0)
-						curFitness = Maze[e].pathTravel(x);
-					else
-						curFitness = 0.0;
-
-					curFitness *= ((Actor[f][e].getFitness() + Actor[f][e].getMaxFitness() * 3.0) / 4.0);
-
-					if (ActorActive[f][e])
-						curFitness *= computeStepFitness(Actor[f][e].getMaxFitness() );
-
-					avgProgress[e] += Actor[f][e].getFitness();
-					maxProgress[e] += Actor[f][e].getMaxFitness();
-
-					if (curFitness > maxFitness[e]) maxFitness[e] = curFitness;
+				Bug temp = Actor[f][e];
 
-					avgFitness[e] += curFitness;
+				if (temp == null)
+					continue; // still being built after turnover.
 
-					if (ActorActive[f][e])
-					{
-						temp = Actor[f][e];
-						tVec = temp.getVector();
-
-						//g2.setColor(lightRed);
-						//g2.draw(ActorPath[f][e]);
+				double path = ActorPathLength[f][e];
+				if (path > maxPath[e]) maxPath[e] = path;
+				avgPath[e] += path;
 
-						/*if (curFitness > .3 && curFitness < .5)
-							g2.setColor(Color.ORANGE);
-						else if (curFitness >= .5)
-							g2.setColor(Color.GREEN);
-						else
-							g2.setColor(Color.RED);*/
+				double curFitness = actorFitness(f, e);
 
-						Color acColor = new Color(redFit[0] + (float) curFitness * adjustFit[0],redFit[1] + (float) curFitness * adjustFit[1],redFit[2] + (float) curFitness * adjustFit[2]);
+				avgProgress[e] += temp.getFitness();
+				maxProgress[e] += temp.getMaxFitness();
 
-						g2.setColor(acColor);
+				if (curFitness > maxFitness[e]) maxFitness[e] = curFitness;
+				avgFitness[e] += curFitness;
 
-						g2.fillOval( (int) MazeXOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * (temp.getX() - .5)),
-									 (int) MazeYOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * (temp.getY() - .5)), (int) (MazeScaleFactor[e] * 1), (int) (MazeScaleFactor[e] * 1));
+				if (ActorActive[f][e])
+				{
+					actors[e]++;
 
-						/*g2.setColor(acColor.brighter());
-						g2.drawLine( (int) MazeXOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * temp.getX()),
-									 (int) MazeYOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * temp.getY()),
-									 (int) MazeXOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * (temp.getX() + lm * tVec[0])),
-									 (int) MazeYOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * (temp.getY() + lm * tVec[1])) );*/
+					if (lod)
+					{
+						double[] ext = MazeExtent[e];
 
-						tVec = temp.getTrueVector();
+						density[e][RenderFrame.cell(ext[2], ext[3], temp.getY(), detailGrid) * detailGrid
+								+ RenderFrame.cell(ext[0], ext[1], temp.getX(), detailGrid)]++;
 
-						g2.setColor(acColor.darker());
-						g2.drawLine( (int) MazeXOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * temp.getX()),
-									 (int) MazeYOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * temp.getY()),
-									 (int) MazeXOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * (temp.getX() + lm * tVec[0])),
-									 (int) MazeYOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * (temp.getY() + lm * tVec[1])) );
+						// keep the fittest, best first.
+						if (top < sprites || curFitness > topFit[sprites - 1])
+						{
+							int k = (top < sprites) ? top++ : sprites - 1;
 
-						if (!active)
-							g2.drawString(Integer.toString(f), (int) MazeXOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * temp.getX()),
-															   (int) MazeYOffset[e] + getSimBorder() + (int) (MazeScaleFactor[e] * temp.getY()) );
+							for ( ; k > 0 && topFit[k - 1] < curFitness; k--)
+							{
+								topFit[k] = topFit[k - 1];
+								topBug[k] = topBug[k - 1];
+							}
 
-						a[e] ++;
+							topFit[k] = curFitness;
+							topBug[k] = f;
+						}
+					}
+					else
+					{
+						count = frameEntry(count, e, f, curFitness, maze, bug, x, y, vx, vy, fitness);
 					}
 				}
 			}
 
-			// draw map
-			g2.setColor(Color.BLACK);
-
-			g2.drawString("Active:", getSimBorder(),m);
+			for (int k = 0; k < top; k++)
+				count = frameEntry(count, e, topBug[k], topFit[k], maze, bug, x, y, vx, vy, fitness);
 
-			g2.drawString("Maze:", getSimBorder() - 50,2*m);
+			avgFitness[e] /= (double) BUGS;
+			avgPath[e] /= (double) BUGS;
+			avgProgress[e] /= (double) BUGS;
+			maxProgress[e] /= (double) BUGS;
+		}
 
-			g2.drawString("Actors:", getSimBorder() - 50,3*m);
-			g2.drawString("Path:", getSimBorder() - 50,4*m);
-			g2.drawString("AvgPath:",  getSimBorder() - 50,5*m);
-			g2.drawString("MaxPath:",  getSimBorder() - 50,6*m);
-			g2.drawString("AvgProg:", getSimBorder() - 50,7*m);
-			g2.drawString("MaxProg:", getSimBorder() - 50,8*m);
-			g2.drawString("AvgFit:", getSimBorder() - 50,9*m);
-			g2.drawString("MaxFit:", getSimBorder() - 50,10*m);
+		RenderFrame frame = new RenderFrame(generation, numSteps, actors, avgPath, maxPath, avgProgress, maxProgress,
+				avgFitness, maxFitness, count, maze, bug, x, y, vx, vy, fitness, lod ? detailGrid : 0, density, MazeExtent);
 
-			int aa = 0;
+		if (show)
+		{
+			lastFrame = frame;
+			picker = new BugPicker(frame);
+		}
 
-			for (int e = 0 ; e < MAZES; e++)
-			{
-				avgFitness[e] /= (double) BUGS;
-				avgPath[e] /= (double) BUGS;
-				avgProgress[e] /= (double) BUGS;
-				maxProgress[e] /= (double) BUGS;
-				g2.drawString("M" + Integer.toString(e), getSimBorder() + e * 100,2*m);
-
-				g2.drawString(Integer.toString(a[e]), getSimBorder() + e * 100,3*m);
-				g2.drawString(Double.toString(Maze[e].getPathLength()), getSimBorder() + e * 100,4*m);
-				g2.drawString(Double.toString(Math.round(avgPath[e] * 100000.0) / 100000.0),  getSimBorder() + e * 100,5*m);
-				g2.drawString(Double.toString(Math.round(maxPath[e] * 100000.0) / 100000.0),  getSimBorder() + e * 100,6*m);
-				g2.drawString(Double.toString(Math.round(avgProgress[e] * 100000.0) / 1000.0), getSimBorder() + e * 100,7*m);
-				g2.drawString(Double.toString(Math.round(maxProgress[e] * 100000.0) / 1000.0), getSimBorder() + e * 100,8*m);
-				g2.drawString(Double.toString(Math.round(avgFitness[e] * 100000.0) / 1000.0), getSimBorder() + e * 100,9*m);
-				g2.drawString(Double.toString(Math.round(maxFitness[e] * 100000.0) / 1000.0), getSimBorder() + e * 100,10*m);
-
-				aa+=a[e];
-			}
+		if (export)
+			exporter().offer(frame); // dropped if the exporter is behind; the simulation never waits on it.
+	}
 
-			if ( (aa == 0) && numSteps < simLengthCap)
-				numSteps = simLengthCap;
-		}
+	/*
+		Add bug f of maze e to a frame being captured, at entry k; returns the next entry.
+	*/
+	private int frameEntry(int k, int e, int f, double curFitness, int[] maze, int[] bug, float[] x, float[] y,
+			float[] vx, float[] vy, float[] fitness)
+	{
+		Bug temp = Actor[f][e];
+		double[] tVec = temp.getTrueVector();
+
+		maze[k] = e;
+		bug[k] = f;
+		x[k] = (float) temp.getX();
+		y[k] = (float) temp.getY();
+		vx[k] = (float) tVec[0];
+		vy[k] = (float) tVec[1];
+		fitness[k] = (float) curFitness;
+
+		return k + 1;
 	}
 
 	private void fitMazes()
 	{
 		// do some maths to fit the mazes nicely.
 
+		renderer = null; // its static layer is of the old fit.
+
+		if (exporter != null)
+		{
+			exporter.close(); // likewise; the next export starts one for the new fit.
+			exporter = null;
+		}
+		MazeExtent = new double[MAZES][];
+
 		int squaresX = (int) Math.ceil(Math.sqrt((double)MAZES));
 		int squaresY = (int) Math.ceil((double) MAZES / (double) squaresX);
 
@@ -1281,6 +1683,7 @@ public class Simulation extends JPanel implements MouseListener {
 			for (int k = 0; k < squaresX; k ++)
 			{
 				double[] extent = Maze[i].mapExtent();
+				MazeExtent[i] = extent.clone();
 
 				System.out.println("" + extent);
 
@@ -1318,9 +1721,9 @@ public class Simulation extends JPanel implements MouseListener {
 	public int[] bug_output_classes = new int[]{1,0};
 	public int bug_chromo_size = Bug.estimateChromosome(bug_inputs, bug_hiddenlayersize, bug_hiddenlayers);
 
-	public Chromosome newGenome()
+	public Chromosome newGenome(Random rand)
 	{
-		return Chromosome.randomChromosome(bug_chromo_size, 28);//295,20);//4, 20);
+		return Chromosome.randomChromosome(bug_chromo_size, 28, rand);
 	}
 
 	public Chromosome newGenome(String chromo)
@@ -1339,19 +1742,6 @@ public class Simulation extends JPanel implements MouseListener {
 		return nC;
 	}
 
-	// Create a new random bug.
-	public Bug newBug(int mapidx)
-	{
-		double x = Maze[mapidx].getStartX();
-		double y = Maze[mapidx].getStartY();
-		double dir = 0.0;//( Math.random() * 360.0 );
-		double vel = 0.0;
-		double rot = 1.0; // multiplier of 2x
-		double spe = 1.0; // multiplier of 1x
-		//public Bug(double _x, double _y, double _dir, double _vel, double _rotate, double _speed, int[] _inputs, int _hiddenwidth, int _hiddensize, int[] _outputs, Chromosome _DNA)
-		return new Bug( x, y, dir, vel, rot, spe, bug_inputclasses, bug_hiddenlayersize, bug_hiddenlayers, bug_output_classes, newGenome() );
-	}
-
 	// Create a new bug from a string representation of this chromosome.
 	public Bug newBug(String chromo, int mapidx)
 	{
@@ -1378,63 +1768,6 @@ public class Simulation extends JPanel implements MouseListener {
 		return new Bug( x, y, dir, vel, rot, spe, bug_inputclasses, bug_hiddenlayersize, bug_hiddenlayers, bug_output_classes, chromo );
 	}
 
-	// Cross two bugs.
-	public Bug crossBug(Bug x1, Bug x2, int mapidx)
-	{
-		double x = Maze[mapidx].getStartX();
-		double y = Maze[mapidx].getStartY();
-		double dir = 0.0;//( Math.random() * 360.0 );
-		double vel = 0.0;
-		double rot = 1.0; // multiplier of 2x
-		double spe = 1.0; // multiplier of 1x
-
-		Chromosome newDNA = x1.getDNA().crossover(x2.getDNA(), crosstime); // crossover.
-
-		double mutate = Math.random();
-
-		if (mutate < mutation)
-			newDNA = newDNA.mutate(); // possibly apply mutation.
-
-		return new Bug( x, y, dir, vel, rot, spe, bug_inputclasses, bug_hiddenlayersize, bug_hiddenlayers, bug_output_classes, newDNA );
-	}
-
-	// Clone a bug.
-	public Bug cloneBug(Bug x1, int mapidx)
-	{
-		double x = Maze[mapidx].getStartX();
-		double y = Maze[mapidx].getStartY();
-		double dir = 0.0;//( Math.random() * 360.0 );
-		double vel = 0.0;
-		double rot = 1.0; // multiplier of 2x
-		double spe = 1.0; // multiplier of 1x
-
-		Chromosome newDNA = x1.getDNA().clone();
-
-		double mutate = Math.random();
-
-		if (mutate < mutation)
-			newDNA = newDNA.mutate(); // possibly apply mutation.
-
-		return new Bug( x, y, dir, vel, rot, spe, bug_inputclasses, bug_hiddenlayersize, bug_hiddenlayers, bug_output_classes, newDNA );
-	}
-
-	// Mutate a bug (this is not biologically correct, but does capture our intent.
-	public Bug mutateBug(Bug x1, int mapidx)
-	{
-		double x = Maze[mapidx].getStartX();
-		double y = Maze[mapidx].getStartY();
-		double dir = 0.0;//( Math.random() * 360.0 );
-		double vel = 0.0;
-		double rot = 1.0; // multiplier of 2x
-		double spe = 1.0; // multiplier of 1x
-
-		Chromosome newDNA = x1.getDNA().clone();
-
-		newDNA = newDNA.mutate(); // possibly apply mutation.
-
-		return new Bug( x, y, dir, vel, rot, spe, bug_inputclasses, bug_hiddenlayersize, bug_hiddenlayers, bug_output_classes, newDNA );
-	}
-
 	// Fulfill the contract of MouseListener
     public void mousePressed(MouseEvent e) {
     }
@@ -1448,7 +1781,7 @@ public class Simulation extends JPanel implements MouseListener {
     public void mouseExited(MouseEvent e) {
     }
 
-	private Bug lastDebug;
+	private BrainInspector inspector; // built on the first middle click.
 
 	// Was there a click? Is so, pause the simulation or unpause.
     public void mouseClicked(MouseEvent e) {
@@ -1458,22 +1791,34 @@ public class Simulation extends JPanel implements MouseListener {
 				active = false;
 			else
 				active = true;
+			repaint(); // bugs are labelled while paused.
 		} else if (e.getButton() == MouseEvent.BUTTON2) {
 			System.out.println("Start Debug: " + e.getX() + "," + e.getY());
+
+			BugPicker pick = picker; // the bugs as drawn.
+
+			if (pick == null)
+				return;
+
 			for (int i = 0; i < MAZES; i++) {
-				for (int j = 0; j < BUGS; j++) {
-					int bX = (int) MazeXOffset[i] + getSimBorder() + (int) (MazeScaleFactor[i] * Actor[j][i].getX());
-					int bY = (int) MazeYOffset[i] + getSimBorder() + (int) (MazeScaleFactor[i] * Actor[j][i].getY());
-					System.out.println("Test Bug: " + bX + "," + bY);
-					if ( Math.abs(bX - e.getX()) < 2.0 && Math.abs(bY - e.getY()) < 2.0 ) {
-						System.out.println("Found Bug: " + j);
-						if (lastDebug != null) {
-							lastDebug.toggleDebug();
-						}
-						lastDebug = Actor[j][i];
-						lastDebug.toggleDebug();
-						return;
-					}
+				// back from screen to maze units; look as far as a bug is drawn, and at least two pixels.
+				double x = (e.getX() - (int) MazeXOffset[i] - getSimBorder()) / MazeScaleFactor[i];
+				double y = (e.getY() - (int) MazeYOffset[i] - getSimBorder()) / MazeScaleFactor[i];
+				double radius = Math.max(0.5, 2.0 / MazeScaleFactor[i]);
+				double[] ext = MazeExtent[i];
+
+				if (x < ext[0] - radius || x > ext[1] + radius || y < ext[2] - radius || y > ext[3] + radius)
+					continue; // not this maze.
+
+				int j = pick.nearest(i, x, y, radius);
+
+				if (j >= 0 && Actor[j][i] != null) {
+					System.out.println("Found Bug: " + j);
+					if (inspector == null)
+						inspector = new BrainInspector();
+					inspector.toggle(Actor[j][i]);
+					inspector.sample(); // clicks come on the same thread as steps, so show it now, paused or not.
+					return;
 				}
 			}
 		}
@@ -30,6 +30,30 @@ public class SimulationMap {
 	 * The lines of the wall
 	 */
 	private SimpleLine[] wallLines;
+	/**
+	 * The wall start X coords, parallel to {@link wallLines} (structure of arrays, for {@link SegmentKernel}).
+	 */
+	private double[] wallX1;
+	/**
+	 * The wall start Y coords, parallel to {@link wallLines}.
+	 */
+	private double[] wallY1;
+	/**
+	 * The wall end X coords, parallel to {@link wallLines}.
+	 */
+	private double[] wallX2;
+	/**
+	 * The wall end Y coords, parallel to {@link wallLines}.
+	 */
+	private double[] wallY2;
+	/**
+	 * Work arrays for {@link SegmentKernel}, one entry per wall.
+	 */
+	private double[][] kernelScratch;
+	/**
+	 * Hit list for {@link SegmentKernel}, one entry per wall.
+	 */
+	private int[] kernelHits;
 	/**
 	 * Path lines, or, the solution to the map
 	 */
@@ -48,6 +72,21 @@ public class SimulationMap {
 	 */
 	private int[] lastWallIdx = null;
 
+	/**
+	 * The last nearest visible path vertex found by {@link pathProgress(double, double)}, or -1 if none was visible.
+	 */
+	private int lastPathIdx = -1;
+	/**
+	 * The distance to the last nearest visible path vertex found by {@link pathProgress(double, double)}.
+	 */
+	private double lastPathDist = Double.MAX_VALUE;
+
+	/**
+	 * Optional distance field over the walls, used to clear motion vectors in {@link fixMove(SimpleLine)}
+	 *   without testing every wall. Null when the exact collision mode is in use.
+	 */
+	private DistanceField distanceField = null;
+
 	/**
 	 * Wall buffer -- "constant" parameter saying how close to the wall a movement vector is allowed.
 	 */
@@ -122,6 +161,42 @@ public class SimulationMap {
 		return wallLines;
 	}
 
+	/**
+	 * Accessor for the wall start X coords (structure of arrays form of {@link getWalls()}).
+	 *
+	 * @return	wall start X coords, indexed as the walls are
+	 */
+	public double[] getWallX1() {
+		return wallX1;
+	}
+
+	/**
+	 * Accessor for the wall start Y coords.
+	 *
+	 * @return	wall start Y coords, indexed as the walls are
+	 */
+	public double[] getWallY1() {
+		return wallY1;
+	}
+
+	/**
+	 * Accessor for the wall end X coords.
+	 *
+	 * @return	wall end X coords, indexed as the walls are
+	 */
+	public double[] getWallX2() {
+		return wallX2;
+	}
+
+	/**
+	 * Accessor for the wall end Y coords.
+	 *
+	 * @return	wall end Y coords, indexed as the walls are
+	 */
+	public double[] getWallY2() {
+		return wallY2;
+	}
+
 	/**
 	 * Accessor for the path {@link SimpleLine}s.
 	 *
@@ -140,6 +215,24 @@ public class SimulationMap {
 		return lastWallIdx;
 	}
 
+	/**
+	 * Accessor of the last nearest visible path vertex found by {@link pathProgress(double, double)}
+	 *
+	 * @return	The path vertex index (0 is the start of the path), or -1 if no vertex was visible.
+	 */
+	public int getLastPathIdx() {
+		return lastPathIdx;
+	}
+
+	/**
+	 * Accessor of the distance to the last nearest visible path vertex found by {@link pathProgress(double, double)}
+	 *
+	 * @return	The distance, or {@link Double.MAX_VALUE} if no vertex was visible.
+	 */
+	public double getLastPathDist() {
+		return lastPathDist;
+	}
+
 	/**
 	 * Accessor for {@link pathNearThreshold}
 	 *
@@ -217,6 +310,32 @@ public class SimulationMap {
 	}
 
 
+	/**
+	 * Selects the collision mode used by {@link fixMove(SimpleLine)}. With a positive resolution, a distance field
+	 *   of the walls is precomputed at that grid size and moves far from any wall are cleared by sphere tracing;
+	 *   moves that come near a wall still get the exact test, so results do not change. A resolution of zero or
+	 *   less returns to the exact (test every wall) mode.
+	 *
+	 * @param	resolution	Size of each distance field cell in map units, or 0.0 to disable.
+	 */
+	public void useDistanceField(double resolution) {
+		if (resolution > 0.0) {
+			distanceField = new DistanceField(wallLines, mapExtent(), resolution);
+		} else {
+			distanceField = null;
+		}
+	}
+
+	/**
+	 * Accessor for the distance field, if one is in use.
+	 *
+	 * @return	The {@link DistanceField}, or null in exact collision mode.
+	 */
+	public DistanceField getDistanceField() {
+		return distanceField;
+	}
+
+
 	/* CONSTRUCTORS */
 
 
@@ -314,6 +433,8 @@ public class SimulationMap {
 			wallLines[i] = new SimpleLine(X1,Y1,X2,Y2);
 		}
 
+		buildWallArrays();
+
 		try {
 			numLines  = Integer.parseInt(getLineSafe(br, "Error reading path count line of map file."));
 		} catch (NumberFormatException nfe3) {
@@ -375,6 +496,30 @@ public class SimulationMap {
 	private void initialize(SimpleLine[] wallLines, SimpleLine[] pathLines) {
 		this.wallLines = wallLines;
 		this.pathLines = pathLines;
+
+		buildWallArrays();
+	}
+
+	/**
+	 * Copies the wall lines into parallel coordinate arrays and sizes the kernel work arrays to match.
+	 */
+	private void buildWallArrays() {
+		int n = wallLines.length;
+
+		wallX1 = new double[n];
+		wallY1 = new double[n];
+		wallX2 = new double[n];
+		wallY2 = new double[n];
+
+		for (int j = 0; j < n; j++) {
+			wallX1[j] = wallLines[j].x1();
+			wallY1[j] = wallLines[j].y1();
+			wallX2[j] = wallLines[j].x2();
+			wallY2[j] = wallLines[j].y2();
+		}
+
+		kernelScratch = new double[4][n];
+		kernelHits = new int[n];
 	}
 
 	/* UTILITY METHODS */
@@ -439,6 +584,18 @@ public class SimulationMap {
 	 * @return			A double[] of the same size as rays, containing distances to the nearest walls.
 	 */
 	public double[] nearestWalls(SimpleLine[] rays) {
+		return nearestWalls(rays, null);
+	}
+
+	/**
+	 * As {@link nearestWalls(SimpleLine[])}, but only tests the walls in a neighbor list, which is first brought up
+	 *   to date for the viewer's position and the longest ray. Gives the same answer as testing every wall.
+	 *
+	 * @param	rays		The "rays" to find wall intersections on. All must start at the viewer.
+	 * @param	candidates	The viewer's {@link WallCandidates} for this map, or null to test every wall.
+	 * @return				A double[] of the same size as rays, containing distances to the nearest walls.
+	 */
+	public double[] nearestWalls(SimpleLine[] rays, WallCandidates candidates) {
 		double[] near = null;
 		int[] wallidx = null;
 
@@ -453,17 +610,37 @@ public class SimulationMap {
 		Arrays.fill(near, Double.MAX_VALUE);
 		Arrays.fill(wallidx, -1);
 
-		// Compute over all wall lines.
-		for (int j = 0; j < wallLines.length; j++) {
-			// Compute over all rays, finding closest intersection..
+		int[] cand = null;
+		int count = wallLines.length;
+		double[] wx1 = wallX1, wy1 = wallY1, wx2 = wallX2, wy2 = wallY2;
+
+		if (candidates != null && rays.length > 0) {
+			double reach = 0.0;
+
 			for (int i = 0; i < rays.length; i++) {
-				if ( Line2D.linesIntersect( rays[i].x1(), rays[i].y1(), rays[i].x2(), rays[i].y2(), wallLines[j].x1(), wallLines[j].y1(), wallLines[j].x2(), wallLines[j].y2() ) ) {
-				    // by convention, first point of all rays is the same (viewer)
-					double dis = Line2D.ptSegDist(wallLines[j].x1(), wallLines[j].y1(), wallLines[j].x2(), wallLines[j].y2(),rays[i].x1(), rays[i].y1() );
-					if ( near[i] > dis ) {
-						near[i] = dis;
-						wallidx[i] = j;
-					}
+				double len = Math.sqrt( Math.pow(rays[i].x2() - rays[i].x1(), 2.0) + Math.pow(rays[i].y2() - rays[i].y1(), 2.0) );
+				if (len > reach) reach = len;
+			}
+
+			candidates.prepare(this, rays[0].x1(), rays[0].y1(), reach);
+
+			cand = candidates.getWalls();
+			count = candidates.getCount();
+			wx1 = candidates.getX1(); wy1 = candidates.getY1(); wx2 = candidates.getX2(); wy2 = candidates.getY2();
+		}
+
+		// Compute over all rays, testing each against all (candidate) wall lines at once and keeping the closest intersection.
+		for (int i = 0; i < rays.length; i++) {
+			int hits = SegmentKernel.intersections( rays[i].x1(), rays[i].y1(), rays[i].x2(), rays[i].y2(), wx1, wy1, wx2, wy2, count,
+					kernelScratch, kernelHits );
+
+			for (int h = 0; h < hits; h++) {
+				int k = kernelHits[h];
+				// by convention, first point of all rays is the same (viewer)
+				double dis = SegmentKernel.ptSegDist(wx1[k], wy1[k], wx2[k], wy2[k], rays[i].x1(), rays[i].y1() );
+				if ( near[i] > dis ) {
+					near[i] = dis;
+					wallidx[i] = (cand == null) ? k : cand[k];
 				}
 			}
 		}
@@ -474,6 +651,104 @@ public class SimulationMap {
 		return near;
 	}
 
+	/**
+	 * Rays reused by {@link senseAll}.
+	 */
+	private SimpleLine[] senseRays = null;
+	/**
+	 * Sort keys reused by {@link senseAll}; spatial cell in the high word, bug in the low word.
+	 */
+	private long[] senseOrder = null;
+
+	/**
+	 * Batch sensing. Casts every eye of every given bug against the walls and writes the results straight into
+	 *   an input matrix: for bug b and eye i, {@code inputs[b][2i]} is the distance normalized by the eye's sight range
+	 *   (1.0 if nothing is seen) and {@code inputs[b][2i + 1]} is 1.0 if a wall was seen, -1.0 if not.
+	 * Bugs are visited grouped by spatial cell, so neighbors share the walls (and caches) they look at.
+	 *
+	 * @param	count		Number of bugs to sense; entries [0, count) of the arrays below are used.
+	 * @param	xs			Bug X coords
+	 * @param	ys			Bug Y coords
+	 * @param	cosH		Cosine of each bug's heading
+	 * @param	sinH		Sine of each bug's heading
+	 * @param	candidates	Each bug's {@link WallCandidates} for this map, or null to test every wall.
+	 * @param	sensors		Each bug's {@link SensorModel}; bugs can share one.
+	 * @param	inputs		The input matrix to fill, one row per bug of at least {@link SensorModel#numInputs()} entries.
+	 */
+	public void senseAll(int count, double[] xs, double[] ys, double[] cosH, double[] sinH, WallCandidates[] candidates,
+			SensorModel[] sensors, double[][] inputs) {
+		if (senseOrder == null || senseOrder.length < count) {
+			senseOrder = new long[count];
+		}
+
+		double[] exts = mapExtent();
+		double cell = 0.0;
+
+		for (int b = 0; b < count; b++) {
+			if (sensors[b].getReach() > cell) cell = sensors[b].getReach();
+		}
+
+		if (cell <= 0.0) cell = 1.0;
+
+		int cellsX = (int) Math.ceil( (exts[1] - exts[0]) / cell ) + 1;
+
+		for (int b = 0; b < count; b++) {
+			long cx = (long) Math.max(0.0, Math.min( Math.floor( (xs[b] - exts[0]) / cell ), cellsX ) );
+			long cy = (long) Math.max(0.0, Math.floor( (ys[b] - exts[2]) / cell ) );
+
+			senseOrder[b] = ( (cy * (cellsX + 1) + cx) << 32 ) | b;
+		}
+
+		Arrays.sort(senseOrder, 0, count);
+
+		for (int o = 0; o < count; o++) {
+			int b = (int) (senseOrder[o] & 0xFFFFFFFFl);
+			SensorModel eyes = sensors[b];
+
+			if (senseRays == null || senseRays.length != eyes.numEyes()) {
+				senseRays = new SimpleLine[eyes.numEyes()];
+
+				for (int i = 0; i < senseRays.length; i++) {
+					senseRays[i] = new SimpleLine();
+				}
+			}
+
+			eyes.castRays(xs[b], ys[b], cosH[b], sinH[b], senseRays);
+
+			double[] near = nearestWalls(senseRays, (candidates == null) ? null : candidates[b]);
+			double[] row = inputs[b];
+
+			for (int i = 0; i < near.length; i++) {
+				double range = eyes.getSight(i);
+
+				row[i * 2] = (near[i] > range) ? 1.0 : near[i] / range; // as normalizeSight(near, sight, 1.0, 0.0)
+				row[i * 2 + 1] = (near[i] == Double.MAX_VALUE) ? -1.0 : 1.0;
+			}
+		}
+	}
+
+	/**
+	 * Finds every wall that comes within a radius of a point, for building neighbor lists.
+	 *
+	 * @param	x		The point's X coord
+	 * @param	y		The point's Y coord
+	 * @param	radius	The distance of interest
+	 * @param	out		Filled with the indexes of nearby walls, in ascending order. Must hold as many entries as there are walls.
+	 * @return			The number of walls found.
+	 * @see				{@link WallCandidates}
+	 */
+	public int candidateWalls(double x, double y, double radius, int[] out) {
+		int count = 0;
+
+		for (int j = 0; j < wallLines.length; j++) {
+			if ( SegmentKernel.ptSegDist(wallX1[j], wallY1[j], wallX2[j], wallY2[j], x, y) <= radius ) {
+				out[count++] = j;
+			}
+		}
+
+		return count;
+	}
+
 	/**
 	 * Simple test function for vector intersection against a wall.
 	 *
@@ -484,12 +759,7 @@ public class SimulationMap {
 	 * @return		True if the vector intersects any wall, false otherwise.
 	 */
 	public boolean intersectsWall(double x1, double y1, double x2, double y2) {
-		for (int i = 0; i < wallLines.length; i++) {
-			if ( Line2D.linesIntersect(x1, y1, x2, y2, wallLines[i].x1(), wallLines[i].y1(), wallLines[i].x2(), wallLines[i].y2() ) )
-				return true;
-		}
-
-		return false;
+		return SegmentKernel.intersectsAny(x1, y1, x2, y2, wallX1, wallY1, wallX2, wallY2, wallLines.length, kernelScratch);
 	}
 
 	/**
@@ -505,29 +775,54 @@ public class SimulationMap {
 
 	/**
 	 * Returns a "shortened" vector based on wall location, useful to foreshorten vectors that would otherwise pass through walls.
+	 * If a distance field is in use (see {@link useDistanceField(double)}) vectors far from any wall are passed back untested.
 	 *
 	 * @param	vector	The vector to shorten
 	 * @return			The shortened vector (a new SimpleLine)
 	 */
 	public SimpleLine fixMove(SimpleLine vector) {
+		return fixMove(vector, null);
+	}
+
+	/**
+	 * As {@link fixMove(SimpleLine)}, but only tests the walls in a neighbor list, which is first brought up to date
+	 *   for the vector. Gives the same answer as testing every wall.
+	 *
+	 * @param	vector		The vector to shorten
+	 * @param	candidates	The mover's {@link WallCandidates} for this map, or null to test every wall.
+	 * @return				The shortened vector (a new SimpleLine)
+	 */
+	public SimpleLine fixMove(SimpleLine vector, WallCandidates candidates) {
 		double near = 1.0; // max extent of interest for our parametric is 1.0
-		double dis = 0.0;
 		int wallidx = -1;
 
-		double x1, x2, x3, x4, x5, xt, xa, y1, y2, y3, y4, y5, yt, ya;
-		double ds, de;
+		double x1, x2, x3, x4, x5, y1, y2, y3, y4, y5;
 
-		x1 = vector.x1(); x2 = vector.x2(); xa = x2;
-		y1 = vector.y1(); y2 = vector.y2(); ya = y2;
+		x1 = vector.x1(); x2 = vector.x2();
+		y1 = vector.y1(); y2 = vector.y2();
+
+		if (distanceField != null && distanceField.isClear(x1, y1, x2, y2)) {
+			return vector; // nowhere near a wall, no adjustments.
+		}
+
+		int[] cand = null;
+		int count = wallLines.length;
+
+		if (candidates != null) {
+			candidates.prepare(this, x1, y1, Math.sqrt( Math.pow(x2 - x1, 2.0) + Math.pow(y2 - y1, 2.0) ));
+
+			cand = candidates.getWalls();
+			count = candidates.getCount();
+		}
 
 		// first, find closest intersecting wall.
 		//
 		// Instead of finding closest intersecting wall, find the smallest parametric out of all computed, and use that to shorten the line (only if parametric is < 1.0)
-		for (int j = 0 ; j < wallLines.length; j++) {
-			x3 = wallLines[j].x1(); x4 = wallLines[j].x2();
-			y3 = wallLines[j].y1(); y4 = wallLines[j].y2();
-			ds = Line2D.ptSegDist(x3, y3, x4, y4, x1, y1);
-			de = Line2D.ptSegDist(x3, y3, x4, y4, x2, y2);
+		for (int k = 0 ; k < count; k++) {
+			int j = (cand == null) ? k : cand[k];
+
+			x3 = wallX1[j]; x4 = wallX2[j];
+			y3 = wallY1[j]; y4 = wallY2[j];
 
 			// basically what we do is, see if these lines intersect. If they do intersect, and the wall is within the segment, adjust the vector parametrics.
 			// If they do not intersect, we are still interested in seeing if this vector gets us "too close" to the wall.
@@ -581,7 +876,21 @@ public class SimulationMap {
 	 * @see				{@link fixMove}
 	 */
 	public double[] fixMoveV(double x, double y, double[] vector) {
-		SimpleLine fixed = fixMove(new SimpleLine(x, y, x + vector[0], y + vector[1]));
+		return fixMoveV(x, y, vector, null);
+	}
+
+	/**
+	 * Fix a motion vector so that it doesn't pass through walls, testing only the walls in a neighbor list.
+	 *
+	 * @param	x			The origin of the vector in X coords
+	 * @param	y			The origin of the vector in Y coords
+	 * @param	vector		The vector delta coords {x, y}
+	 * @param	candidates	The mover's {@link WallCandidates} for this map, or null to test every wall.
+	 * @return				The modified vector deltas {x, y}
+	 * @see					{@link fixMove(SimpleLine, WallCandidates)}
+	 */
+	public double[] fixMoveV(double x, double y, double[] vector, WallCandidates candidates) {
+		SimpleLine fixed = fixMove(new SimpleLine(x, y, x + vector[0], y + vector[1]), candidates);
 
 		return new double[] {fixed.x2(), fixed.y2()};
 	}
@@ -657,14 +966,54 @@ public class SimulationMap {
 	 * @param	x1	The point's X coord
 	 * @param	y1	The point's Y coord
 	 * @return		The relative progress, where 0.0 is no progress, 1.0 is at end.
+	 * @see			{@link pathProgress(double, double)}
 	 */
 	public double relativePathProgress(double x1, double y1) {
+		return pathProgress(x1, y1);
+	}
+
+	/**
+	 * Single pass path query. Finds the nearest visible path vertex, its distance, and the relative path progress
+	 *   all at once; gives the same answers as {@link distToPathIdx(double, double)}, {@link distToPath(double, double)}
+	 *   and the old two-call {@link relativePathProgress(double, double)}, with half the work.
+	 * Vertices no closer than the best found so far are skipped before the (expensive) wall visibility test.
+	 * The index and distance found are kept; see {@link getLastPathIdx()} and {@link getLastPathDist()}.
+	 *
+	 * @param	x1	The point's X coord
+	 * @param	y1	The point's Y coord
+	 * @return		The relative progress, where 0.0 is no progress, 1.0 is at end.
+	 */
+	public double pathProgress(double x1, double y1) {
 		// Basically, if the closest segment is the last segment, we also need to be very close to that segment to qualify as 1.0
 		// otherwise, we approach 0.0
 
-		double dpi = distToPathIdx(x1, y1);
+		int idx = -1;
+		double near = Double.MAX_VALUE;
+
+		double px, py, dis;
+
+		// vertex 0 is the start of the first path line, vertex j + 1 is the end of path line j.
+		for (int j = 0; j <= pathLines.length; j++) {
+			if (j == 0) {
+				px = pathLines[0].x1(); py = pathLines[0].y1();
+			} else {
+				px = pathLines[j - 1].x2(); py = pathLines[j - 1].y2();
+			}
+
+			dis = Math.sqrt( Math.pow( px - x1, 2.0) + Math.pow( py - y1, 2.0 ) );
+
+			if ( dis < near && !intersectsWall(x1, y1, px, py) ) {
+				near = dis;
+				idx = j;
+			}
+		}
+
+		lastPathIdx = idx;
+		lastPathDist = near;
+
+		double dpi = (idx < 0) ? 0.0 : (double) idx / pathLines.length;
 
-		double dtp = distToPath(x1, y1);
+		double dtp = near;
 
 		if (dtp > pathFarThreshold) dtp = pathFarThreshold;
 		if (dtp < pathNearThreshold) dtp = pathNearThreshold;
@@ -0,0 +1,186 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes each generation's per maze statistics. The per maze CSV files are opened once and kept open for the run,
+ *   and every row of a generation is written in one go; rows are buffered and reach the disk on the flush policy
+ *   (every so many generations, and on {@link flush()} and {@link close()}) instead of a file open, append and close
+ *   per maze per generation.
+ *
+ * The same statistics can also go to a {@link StatisticsStore}, one memory-mapped column per metric per maze, so
+ *   they can be queried without parsing anything.
+ *
+ * All methods are synchronized; rows are written on the generation writer thread and flushed from others.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link GenerationWriter}
+ */
+public class StatisticsSink implements Closeable {
+
+	/**
+	 * The statistics kept per maze per generation, in CSV column order.
+	 */
+	public enum Metric {
+		MIN_FITNESS(false),
+		MAX_FITNESS(false),
+		AVG_FITNESS(false),
+		MIN_PROGRESS(false),
+		MAX_PROGRESS(false),
+		AVG_PROGRESS(false),
+		MIN_STEP(true),
+		MAX_STEP(true),
+		AVG_STEP(false),
+		ACTORS(true);
+
+		private final boolean count;
+
+		private Metric(boolean count) {
+			this.count = count;
+		}
+
+		/**
+		 * @return	true if this metric is stored as a long, false if as a double.
+		 */
+		public boolean isCount() {
+			return count;
+		}
+	}
+
+	private final Map<File, PrintWriter> csv = new LinkedHashMap<File, PrintWriter>();
+
+	private final File storeDir;
+	private StatisticsStore store;
+	private boolean storeFailed = false;
+
+	private final int flushEvery;
+	private int pending = 0;
+
+	/**
+	 * Starts a sink. Nothing is opened until the first rows are written.
+	 *
+	 * @param	store		The {@link StatisticsStore} directory to append to, or null for CSV only.
+	 * @param	flushEvery	Flush every this many generations; 1 flushes every generation, 0 only on
+	 *						  {@link flush()} and {@link close()}. Rows not yet flushed are lost if the run dies.
+	 */
+	public StatisticsSink(File store, int flushEvery) {
+		this.storeDir = store;
+		this.flushEvery = flushEvery;
+	}
+
+	/**
+	 * Writes a generation's rows: a CSV row to each maze's statistics file, and a row of the store.
+	 *
+	 * @param	snap	The generation. Mazes with no statistics file get no CSV row, and with none at all,
+	 *					  nothing is written.
+	 * @throws	IOException if writing fails.
+	 */
+	public synchronized void write(GenerationSnapshot snap) throws IOException {
+		if (snap.statistics == null) {
+			return;
+		}
+
+		boolean any = false;
+
+		for (int i = 0; i < snap.titles.length; i++) {
+			if (snap.statistics[i] != null) {
+				writeRow(csvFor(snap.statistics[i]), snap, i);
+				any = true;
+			}
+		}
+
+		if (!any) {
+			return;
+		}
+
+		if (storeDir != null && !storeFailed) {
+			if (store == null) {
+				try {
+					store = StatisticsStore.open(storeDir, snap.titles);
+				} catch (IOException e) {
+					System.out.println("Statistics store is off: " + e.toString() );
+					storeFailed = true;
+				}
+			}
+
+			if (store != null) {
+				store.append(snap);
+			}
+		}
+
+		pending++;
+
+		if (flushEvery > 0 && pending >= flushEvery) {
+			flush();
+		}
+	}
+
+	private PrintWriter csvFor(File fn) throws IOException {
+		PrintWriter out = csv.get(fn);
+
+		if (out == null) {
+			out = new PrintWriter( new BufferedWriter( new FileWriter( fn, true ) ) );
+			csv.put(fn, out);
+		}
+
+		return out;
+	}
+
+	private static void writeRow(PrintWriter out, GenerationSnapshot snap, int i) {
+		StringBuilder row = new StringBuilder(160);
+
+		row.append(snap.minFitness[i]).append(',');
+		row.append(snap.maxFitness[i]).append(',');
+		row.append(snap.avgFitness[i]).append(',');
+
+		row.append(snap.minProgress[i]).append(',');
+		row.append(snap.maxProgress[i]).append(',');
+		row.append(snap.avgProgress[i]).append(',');
+
+		row.append(snap.minStep[i]).append(',');
+		row.append(snap.maxStep[i]).append(',');
+		row.append(snap.avgStep[i]).append(',');
+
+		row.append(snap.dna.length);
+
+		out.println(row);
+	}
+
+	/**
+	 * Pushes every buffered row out to the files.
+	 */
+	public synchronized void flush() {
+		for (PrintWriter out : csv.values()) {
+			out.flush();
+		}
+
+		if (store != null) {
+			store.force();
+		}
+
+		pending = 0;
+	}
+
+	/**
+	 * Flushes, then closes every file. Safe to call more than once.
+	 *
+	 * @throws	IOException if the store fails to close.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		flush();
+
+		for (PrintWriter out : csv.values()) {
+			out.close();
+		}
+		csv.clear();
+
+		if (store != null) {
+			store.close();
+			store = null;
+		}
+	}
+}
@@ -0,0 +1,467 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A run's per maze statistics, one generation per row, stored by column: every metric of every maze is its own
+ *   file of 8 byte values, memory-mapped. Appending a generation writes one value to the end of each column; a
+ *   query over a metric touches only that metric's column, with nothing to parse.
+ *
+ * Store Layout (a directory; big endian):
+ * <pre>
+ * store.meta:
+ *   int     MAGIC
+ *   short   VERSION
+ *   short   # metrics, see {@link StatisticsSink.Metric}
+ *   long    # rows committed
+ *   int     # mazes, then each title as in {@link GenerationFile}
+ * generation.col:
+ *   long[]  the generation of each row
+ * (maze).(metric).col, e.g. 0.max_fitness.col:
+ *   8 bytes per row, a double or a long (see {@link StatisticsSink.Metric#isCount()})
+ * </pre>
+ *
+ * Column files are grown ahead of the rows in chunks, so they are usually longer than the data; only the committed
+ *   row count in store.meta says how many rows are real. A row is committed after all its columns are written, so
+ *   a run that dies part way through an append leaves the row out.
+ *
+ * Rows are expected in ascending generation order, as a run saves them; {@link rowOf(long)} relies on it.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link StatisticsSink}
+ */
+public class StatisticsStore implements Closeable {
+
+	/**
+	 * Marks a statistics store; "GSTC".
+	 */
+	public static final int MAGIC = 0x47535443;
+	/**
+	 * Current format version.
+	 */
+	public static final short VERSION = 1;
+
+	private static final String META = "store.meta";
+	private static final int COUNT_OFFSET = 8;
+	private static final int GROWTH = 1024; // rows
+
+	private static final StatisticsSink.Metric[] METRICS = StatisticsSink.Metric.values();
+
+	private final File dir;
+	private final String[] titles;
+	private final MappedByteBuffer meta;
+
+	private final RandomAccessFile[] files;
+	private final MappedByteBuffer[] columns;
+	private long capacity = 0;
+	private int rows;
+
+	private StatisticsStore(File dir, String[] titles, MappedByteBuffer meta) throws IOException {
+		this.dir = dir;
+		this.titles = titles;
+		this.meta = meta;
+
+		long count = meta.getLong(COUNT_OFFSET);
+
+		if (count < 0 || count > Integer.MAX_VALUE) {
+			throw new IOException("Corrupt statistics store " + dir);
+		}
+
+		rows = (int) count;
+
+		files = new RandomAccessFile[1 + METRICS.length * titles.length];
+		columns = new MappedByteBuffer[files.length];
+
+		files[0] = new RandomAccessFile(new File(dir, "generation.col"), "rw");
+
+		for (StatisticsSink.Metric m : METRICS) {
+			for (int i = 0; i < titles.length; i++) {
+				File fn = new File(dir, i + "." + m.name().toLowerCase() + ".col");
+				files[column(m, i)] = new RandomAccessFile(fn, "rw");
+			}
+		}
+
+		grow(Math.max(GROWTH, rows));
+	}
+
+	/**
+	 * Opens a store, creating it if it does not exist.
+	 *
+	 * @param	dir		The store's directory.
+	 * @param	titles	Maze titles, in maze order; an existing store must have the same.
+	 * @return			The store.
+	 * @throws	IOException if the store cannot be opened, or holds statistics for other mazes.
+	 */
+	public static StatisticsStore open(File dir, String[] titles) throws IOException {
+		File metaFile = new File(dir, META);
+
+		if (!metaFile.exists()) {
+			if (!dir.isDirectory() && !dir.mkdirs()) {
+				throw new IOException("Cannot create statistics store " + dir);
+			}
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeShort(METRICS.length);
+			out.writeLong(0);
+			GenerationFile.writeTitles(out, titles);
+			out.flush();
+
+			FileOutputStream fos = new FileOutputStream(metaFile);
+			try {
+				bytes.writeTo(fos);
+			} finally {
+				fos.close();
+			}
+		}
+
+		StatisticsStore store = open(dir);
+
+		if (!Arrays.equals(store.titles, titles)) {
+			store.close();
+			throw new IOException("Statistics store " + dir + " holds other mazes.");
+		}
+
+		return store;
+	}
+
+	/**
+	 * Opens an existing store.
+	 *
+	 * @param	dir		The store's directory.
+	 * @return			The store.
+	 * @throws	IOException if there is no store this code understands in the directory.
+	 */
+	public static StatisticsStore open(File dir) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(new File(dir, META), "rw");
+
+		try {
+			MappedByteBuffer meta = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+
+			try {
+				if (meta.getInt() != MAGIC) {
+					throw new IOException("Not a statistics store: " + dir);
+				}
+
+				short version = meta.getShort();
+
+				if (version != VERSION) {
+					throw new IOException("Unsupported statistics store version " + version);
+				}
+
+				if (meta.getShort() != METRICS.length) {
+					throw new IOException("Statistics store " + dir + " has other metrics.");
+				}
+
+				meta.getLong(); // rows, read live.
+
+				return new StatisticsStore(dir, GenerationFile.readTitles(meta), meta);
+			} catch (java.nio.BufferUnderflowException bue) {
+				throw new IOException("Truncated statistics store " + dir);
+			}
+		} finally {
+			raf.close(); // the mapping stays valid.
+		}
+	}
+
+	private int column(StatisticsSink.Metric m, int maze) {
+		return 1 + m.ordinal() * titles.length + maze;
+	}
+
+	/**
+	 * Maps every column with room for at least this many rows.
+	 */
+	private void grow(long need) throws IOException {
+		if (need <= capacity) {
+			return;
+		}
+
+		long cap = Math.max(need, capacity * 2);
+
+		for (int c = 0; c < files.length; c++) {
+			columns[c] = files[c].getChannel().map(FileChannel.MapMode.READ_WRITE, 0, cap * 8);
+		}
+
+		capacity = cap;
+	}
+
+	/**
+	 * @return	the maze titles, in maze order.
+	 */
+	public String[] getTitles() {
+		return titles.clone();
+	}
+
+	/**
+	 * @return	the number of rows (generations) held.
+	 */
+	public int size() {
+		return rows;
+	}
+
+	/**
+	 * Appends a generation's statistics as a new row.
+	 *
+	 * @param	snap	The generation; it must have the same mazes as the store.
+	 * @throws	IOException if a column cannot be grown.
+	 */
+	public void append(GenerationSnapshot snap) throws IOException {
+		if (snap.titles.length != titles.length) {
+			throw new IllegalArgumentException("Generation has " + snap.titles.length + " mazes, the store " + titles.length);
+		}
+
+		grow(rows + 1L);
+
+		int at = rows * 8;
+
+		columns[0].putLong(at, snap.generation);
+
+		for (int i = 0; i < titles.length; i++) {
+			columns[column(StatisticsSink.Metric.MIN_FITNESS, i)].putDouble(at, snap.minFitness[i]);
+			columns[column(StatisticsSink.Metric.MAX_FITNESS, i)].putDouble(at, snap.maxFitness[i]);
+			columns[column(StatisticsSink.Metric.AVG_FITNESS, i)].putDouble(at, snap.avgFitness[i]);
+			columns[column(StatisticsSink.Metric.MIN_PROGRESS, i)].putDouble(at, snap.minProgress[i]);
+			columns[column(StatisticsSink.Metric.MAX_PROGRESS, i)].putDouble(at, snap.maxProgress[i]);
+			columns[column(StatisticsSink.Metric.AVG_PROGRESS, i)].putDouble(at, snap.avgProgress[i]);
+			columns[column(StatisticsSink.Metric.MIN_STEP, i)].putLong(at, snap.minStep[i]);
+			columns[column(StatisticsSink.Metric.MAX_STEP, i)].putLong(at, snap.maxStep[i]);
+			columns[column(StatisticsSink.Metric.AVG_STEP, i)].putDouble(at, snap.avgStep[i]);
+			columns[column(StatisticsSink.Metric.ACTORS, i)].putLong(at, snap.dna.length);
+		}
+
+		rows++;
+		meta.putLong(COUNT_OFFSET, rows); // commit the row.
+	}
+
+	/**
+	 * @param	row	The row.
+	 * @return		the generation the row holds.
+	 */
+	public long generation(int row) {
+		check(row, row + 1);
+		return columns[0].getLong(row * 8);
+	}
+
+	/**
+	 * Finds the row of a generation.
+	 *
+	 * @param	generation	The generation.
+	 * @return				Its row, or -1 if it is not held.
+	 */
+	public int rowOf(long generation) {
+		int lo = 0, hi = rows - 1;
+
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long g = columns[0].getLong(mid * 8);
+
+			if (g < generation) {
+				lo = mid + 1;
+			} else if (g > generation) {
+				hi = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * One value.
+	 *
+	 * @param	m		The metric.
+	 * @param	maze	The maze index.
+	 * @param	row		The row.
+	 * @return			The value; counts are widened to double.
+	 */
+	public double get(StatisticsSink.Metric m, int maze, int row) {
+		check(row, row + 1);
+		return value(columns[column(m, maze)], m, row);
+	}
+
+	private static double value(ByteBuffer col, StatisticsSink.Metric m, int row) {
+		return m.isCount() ? (double) col.getLong(row * 8) : col.getDouble(row * 8);
+	}
+
+	/**
+	 * A run of values.
+	 *
+	 * @param	m		The metric.
+	 * @param	maze	The maze index.
+	 * @param	from	First row, inclusive.
+	 * @param	to		Last row, exclusive.
+	 * @return			The values of rows from to to.
+	 */
+	public double[] range(StatisticsSink.Metric m, int maze, int from, int to) {
+		check(from, to);
+
+		ByteBuffer col = columns[column(m, maze)];
+		double[] ret = new double[to - from];
+
+		if (m.isCount()) {
+			for (int r = from; r < to; r++) {
+				ret[r - from] = (double) col.getLong(r * 8);
+			}
+		} else {
+			ByteBuffer view = col.duplicate();
+			view.position(from * 8);
+			view.asDoubleBuffer().get(ret);
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Trailing rolling average: for each row from from to to, the mean of that row and up to window - 1 rows before
+	 *   it (fewer at the start of the store).
+	 *
+	 * @param	m		The metric.
+	 * @param	maze	The maze index.
+	 * @param	from	First row, inclusive.
+	 * @param	to		Last row, exclusive.
+	 * @param	window	Rows averaged, at least 1.
+	 * @return			The rolling averages of rows from to to.
+	 */
+	public double[] rollingAverage(StatisticsSink.Metric m, int maze, int from, int to, int window) {
+		if (window < 1) {
+			throw new IllegalArgumentException("Window must be at least 1, not " + window);
+		}
+
+		int start = Math.max(0, from - window + 1);
+		double[] values = range(m, maze, start, to);
+		double[] ret = new double[to - from];
+
+		double sum = 0.0;
+
+		for (int r = start; r < to; r++) {
+			sum += values[r - start];
+
+			if (r - window >= start) {
+				sum -= values[r - window - start];
+			}
+
+			if (r >= from) {
+				ret[r - from] = sum / (double) Math.min(window, r - start + 1);
+			}
+		}
+
+		return ret;
+	}
+
+	/**
+	 * @param	m		The metric.
+	 * @param	maze	The maze index.
+	 * @param	from	First row, inclusive.
+	 * @param	to		Last row, exclusive; must be past from.
+	 * @return			the least value in the rows.
+	 */
+	public double min(StatisticsSink.Metric m, int maze, int from, int to) {
+		check(from, to);
+
+		ByteBuffer col = columns[column(m, maze)];
+		double ret = Double.POSITIVE_INFINITY;
+
+		for (int r = from; r < to; r++) {
+			ret = Math.min(ret, value(col, m, r));
+		}
+
+		return ret;
+	}
+
+	/**
+	 * @param	m		The metric.
+	 * @param	maze	The maze index.
+	 * @param	from	First row, inclusive.
+	 * @param	to		Last row, exclusive; must be past from.
+	 * @return			the greatest value in the rows.
+	 */
+	public double max(StatisticsSink.Metric m, int maze, int from, int to) {
+		check(from, to);
+
+		ByteBuffer col = columns[column(m, maze)];
+		double ret = Double.NEGATIVE_INFINITY;
+
+		for (int r = from; r < to; r++) {
+			ret = Math.max(ret, value(col, m, r));
+		}
+
+		return ret;
+	}
+
+	private void check(int from, int to) {
+		if (from < 0 || to > rows || from > to) {
+			throw new IndexOutOfBoundsException("Rows " + from + " to " + to + " of " + rows);
+		}
+	}
+
+	/**
+	 * Forces every column and the row count out to the disk.
+	 */
+	public void force() {
+		for (MappedByteBuffer col : columns) {
+			col.force();
+		}
+
+		meta.force();
+	}
+
+	/**
+	 * Forces everything out and closes the column files. The store must not be used after.
+	 *
+	 * @throws	IOException if a file fails to close.
+	 */
+	@Override
+	public void close() throws IOException {
+		force();
+
+		for (RandomAccessFile f : files) {
+			f.close();
+		}
+	}
+
+	/**
+	 * Prints a summary of a store: per maze and metric, the latest value, the least and greatest, and the average
+	 *   of the last rows.
+	 *
+	 * Usage: StatisticsStore (store directory) [rows to average, default 100]
+	 *
+	 * @param	args	The store directory, then optionally the rows to average.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: StatisticsStore (store directory) [rows to average]");
+			return;
+		}
+
+		try {
+			StatisticsStore store = open(new File(args[0]));
+			int window = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+			int n = store.size();
+
+			System.out.println(n + " generations" + ((n > 0) ? ", latest " + store.generation(n - 1) : ""));
+
+			for (int i = 0; n > 0 && i < store.titles.length; i++) {
+				System.out.println(store.titles[i]);
+
+				for (StatisticsSink.Metric m : METRICS) {
+					System.out.println("  " + m + ": latest " + store.get(m, i, n - 1)
+							+ ", min " + store.min(m, i, 0, n) + ", max " + store.max(m, i, 0, n)
+							+ ", last " + window + " avg " + store.rollingAverage(m, i, n - 1, n, window)[0]);
+				}
+			}
+
+			store.close();
+		} catch (IOException e) {
+			System.out.println("File error" + e.toString() );
+		}
+	}
+}
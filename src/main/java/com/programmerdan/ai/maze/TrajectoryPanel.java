@@ -0,0 +1,385 @@
+package com.programmerdan.ai.maze;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import javax.swing.*;
+
+/**
+ * Plays a {@link TrajectoryReplay} back on screen: the recorded mazes side by side, with a dot for each selected bug
+ *   and, when only a few are selected, a short trail behind each.
+ *
+ * Space pauses and resumes; + and - double and halve the speed; left and right seek back and forward by a tenth of
+ *   the generation; Home returns to the start.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link TrajectoryReplay}
+ */
+public class TrajectoryPanel extends JPanel implements ActionListener, KeyListener {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Trails are drawn only while at most this many bugs are on screen.
+	 */
+	public static final int TRAIL_ACTORS = 32;
+	/**
+	 * Positions kept per trail.
+	 */
+	public static final int TRAIL_LENGTH = 128;
+
+	private static final int BORDER = 10;
+	private static final Color PATH_COLOR = new Color(230,230,255); // as the simulation draws them.
+	private static final Color TRAIL_COLOR = new Color(255,230,230);
+
+	private final TrajectoryReplay replay;
+	private final Timer timer;
+
+	private double speed = 1.0;		// steps played per tick; may be fractional.
+	private double position;		// the step played to, with the fraction not yet played.
+
+	private int[] trailActors;		// bug * mazes + maze of each trail, or null for no trails.
+	private double[][] trail;		// per trail, x, y pairs in maze units.
+	private int trailNext = 0;
+	private int trailCount = 0;
+
+	/**
+	 * Builds a panel, paused at the start of the replay.
+	 *
+	 * @param	replay	What to play.
+	 * @param	fps		Ticks per second.
+	 */
+	public TrajectoryPanel(TrajectoryReplay replay, int fps) {
+		this.replay = replay;
+		this.timer = new Timer(1000 / Math.max(1, fps), this);
+
+		this.setBackground(Color.WHITE);
+		this.setFocusable(true);
+		this.addKeyListener(this);
+
+		seek(replay.getFirstStep());
+	}
+
+	/**
+	 * Starts playing.
+	 */
+	public void play() {
+		timer.start();
+	}
+
+	/**
+	 * Stops playing, holding the current step.
+	 */
+	public void pause() {
+		timer.stop();
+	}
+
+	/**
+	 * @param	speed	Steps played per tick; fractions play slower than one step per tick.
+	 */
+	public void setSpeed(double speed) {
+		this.speed = Math.max(1.0 / 64.0, speed);
+	}
+
+	/**
+	 * Moves to a step, dropping the trails.
+	 *
+	 * @param	step	The step.
+	 */
+	public void seek(int step) {
+		step = Math.max(replay.getFirstStep(), Math.min(replay.getLastStep(), step));
+
+		replay.seek(step);
+		position = step;
+
+		resetTrails();
+		this.repaint();
+	}
+
+	/**
+	 * Call after changing the replay's selection.
+	 */
+	public void selectionChanged() {
+		resetTrails();
+		this.repaint();
+	}
+
+	private void resetTrails() {
+		int mazes = replay.getTitles().length;
+		int n = 0;
+
+		for (int i = 0; i < replay.getBugs(); i++) {
+			for (int j = 0; j < mazes; j++) {
+				if (replay.isSelected(i, j)) {
+					n++;
+				}
+			}
+		}
+
+		if (n == 0 || n > TRAIL_ACTORS) {
+			trailActors = null;
+			trail = null;
+			return;
+		}
+
+		trailActors = new int[n];
+		trail = new double[n][TRAIL_LENGTH * 2];
+		trailNext = 0;
+		trailCount = 0;
+		n = 0;
+
+		for (int i = 0; i < replay.getBugs(); i++) {
+			for (int j = 0; j < mazes; j++) {
+				if (replay.isSelected(i, j)) {
+					trailActors[n++] = i * mazes + j;
+				}
+			}
+		}
+	}
+
+	private void recordTrails() {
+		if (trailActors == null) {
+			return;
+		}
+
+		int mazes = replay.getTitles().length;
+
+		for (int t = 0; t < trailActors.length; t++) {
+			int bug = trailActors[t] / mazes;
+			int maze = trailActors[t] % mazes;
+
+			trail[t][trailNext * 2] = replay.isKnown(bug, maze) ? replay.getX(bug, maze) : Double.NaN;
+			trail[t][trailNext * 2 + 1] = replay.getY(bug, maze);
+		}
+
+		trailNext = (trailNext + 1) % TRAIL_LENGTH;
+		if (trailCount < TRAIL_LENGTH) {
+			trailCount++;
+		}
+	}
+
+	// Fulfill the contract of ActionListener; one tick of the timer.
+	public void actionPerformed(ActionEvent e) {
+		if (replay.isFinished()) {
+			pause();
+			return;
+		}
+
+		position += speed;
+
+		int to = (int) position;
+
+		if (to != replay.getStep()) {
+			replay.advanceTo(to);
+			recordTrails();
+			this.repaint();
+		}
+	}
+
+	// Fulfill the contract of KeyListener
+	public void keyTyped(KeyEvent e) {
+		switch (e.getKeyChar()) {
+		case ' ':
+			if (timer.isRunning()) {
+				pause();
+			} else {
+				play();
+			}
+			break;
+		case '+':
+		case '=':
+			setSpeed(speed * 2.0);
+			break;
+		case '-':
+			setSpeed(speed / 2.0);
+			break;
+		}
+	}
+
+	public void keyPressed(KeyEvent e) {
+		int tenth = Math.max(1, (replay.getLastStep() - replay.getFirstStep()) / 10);
+
+		switch (e.getKeyCode()) {
+		case KeyEvent.VK_LEFT:
+			seek(replay.getStep() - tenth);
+			break;
+		case KeyEvent.VK_RIGHT:
+			seek(replay.getStep() + tenth);
+			break;
+		case KeyEvent.VK_HOME:
+			seek(replay.getFirstStep());
+			break;
+		}
+	}
+
+	public void keyReleased(KeyEvent e) {
+	}
+
+	public void paint(Graphics g) {
+		Graphics2D g2 = (Graphics2D) g;
+
+		super.paint(g2); // clears the screen.
+
+		g2.setFont(g2.getFont().deriveFont(10f));
+
+		int m = g2.getFontMetrics().getAscent();
+		int mazes = replay.getTitles().length;
+
+		// only the selected mazes are laid out, in a grid of cells as near square as the panel allows.
+		int shown = 0;
+		int[] cell = new int[mazes];
+
+		for (int j = 0; j < mazes; j++) {
+			cell[j] = -1;
+			for (int i = 0; i < replay.getBugs(); i++) {
+				if (replay.isSelected(i, j)) {
+					cell[j] = shown++;
+					break;
+				}
+			}
+		}
+
+		if (shown == 0) {
+			return;
+		}
+
+		int cols = (int) Math.ceil(Math.sqrt(shown));
+		int rows = (shown + cols - 1) / cols;
+		int top = 3 * m;
+		int cellW = Math.max(1, (getWidth() - BORDER) / cols);
+		int cellH = Math.max(1, (getHeight() - top - BORDER) / rows);
+
+		double[] scale = new double[mazes];
+		int[] ox = new int[mazes];
+		int[] oy = new int[mazes];
+
+		g2.setColor(Color.BLACK);
+		g2.drawString("Generation " + replay.getGeneration() + "  step " + replay.getStep() + " / "
+				+ replay.getLastStep() + "  speed " + speed + (timer.isRunning() ? "" : "  (paused)"), BORDER, m);
+
+		for (int j = 0; j < mazes; j++) {
+			if (cell[j] < 0) {
+				continue;
+			}
+
+			ox[j] = BORDER + (cell[j] % cols) * cellW;
+			oy[j] = top + (cell[j] / cols) * cellH;
+
+			double maxX = 1.0, maxY = 1.0;
+			for (SimpleLine l : replay.getWalls(j)) {
+				maxX = Math.max(maxX, Math.max(l.x1(), l.x2()));
+				maxY = Math.max(maxY, Math.max(l.y1(), l.y2()));
+			}
+			scale[j] = Math.min((cellW - BORDER) / maxX, (cellH - BORDER - m) / maxY);
+
+			g2.setColor(Color.BLACK);
+			g2.drawString(replay.getTitles()[j], ox[j], oy[j] + m);
+			oy[j] += m + 2;
+
+			for (SimpleLine l : replay.getWalls(j)) {
+				drawLine(g2, ox[j], oy[j], scale[j], l.x1(), l.y1(), l.x2(), l.y2());
+			}
+
+			g2.setColor(PATH_COLOR);
+			for (SimpleLine l : replay.getPaths(j)) {
+				drawLine(g2, ox[j], oy[j], scale[j], l.x1(), l.y1(), l.x2(), l.y2());
+			}
+		}
+
+		if (trailActors != null) {
+			g2.setColor(TRAIL_COLOR);
+
+			int start = (trailNext - trailCount + TRAIL_LENGTH) % TRAIL_LENGTH;
+
+			for (int t = 0; t < trailActors.length; t++) {
+				int j = trailActors[t] % mazes;
+				double[] xy = trail[t];
+
+				for (int k = 1; k < trailCount; k++) {
+					int a = (start + k - 1) % TRAIL_LENGTH;
+					int b = (start + k) % TRAIL_LENGTH;
+
+					if (!Double.isNaN(xy[a * 2]) && !Double.isNaN(xy[b * 2])) {
+						drawLine(g2, ox[j], oy[j], scale[j], xy[a * 2], xy[a * 2 + 1], xy[b * 2], xy[b * 2 + 1]);
+					}
+				}
+			}
+		}
+
+		g2.setColor(Color.RED);
+
+		for (int i = 0; i < replay.getBugs(); i++) {
+			for (int j = 0; j < mazes; j++) {
+				if (replay.isKnown(i, j)) {
+					int d = Math.max(2, (int) scale[j]);
+
+					g2.fillOval(ox[j] + (int) (scale[j] * replay.getX(i, j)) - d / 2,
+								oy[j] + (int) (scale[j] * replay.getY(i, j)) - d / 2, d, d);
+				}
+			}
+		}
+	}
+
+	private static void drawLine(Graphics2D g2, int ox, int oy, double scale, double x1, double y1, double x2,
+			double y2) {
+		g2.drawLine(ox + (int) (scale * x1), oy + (int) (scale * y1), ox + (int) (scale * x2), oy + (int) (scale * y2));
+	}
+
+	private static int[] parseList(String list) {
+		String[] parts = list.split(",");
+		int[] which = new int[parts.length];
+
+		for (int i = 0; i < parts.length; i++) {
+			which[i] = Integer.parseInt(parts[i].trim());
+		}
+
+		return which;
+	}
+
+	/**
+	 * Opens a window playing back a trajectory file.
+	 *
+	 * Usage: TrajectoryPanel (trajectory file) [bugs, e.g. 0,4,9 or all] [mazes, e.g. 0,2 or all] [steps per tick]
+	 *
+	 * @param	args	The file, then optionally which bugs and mazes to show, and the starting speed.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.out.println("Usage: TrajectoryPanel (trajectory file) [bugs|all] [mazes|all] [steps per tick]");
+			return;
+		}
+
+		try {
+			TrajectoryReplay replay = TrajectoryReplay.open(new File(args[0]));
+
+			if (args.length > 1 && !"all".equals(args[1])) {
+				replay.selectBugs(parseList(args[1]));
+			}
+			if (args.length > 2 && !"all".equals(args[2])) {
+				replay.selectMazes(parseList(args[2]));
+			}
+
+			final TrajectoryPanel panel = new TrajectoryPanel(replay, 30);
+
+			if (args.length > 3) {
+				panel.setSpeed(Double.parseDouble(args[3]));
+			}
+
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					JFrame frame = new JFrame("Trajectories");
+					frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+					frame.getContentPane().add(panel);
+					frame.setSize(800, 600);
+					frame.setVisible(true);
+					panel.requestFocusInWindow();
+					panel.play();
+				}
+			});
+		} catch (IOException e) {
+			System.out.println("File error" + e.toString() );
+		}
+	}
+}
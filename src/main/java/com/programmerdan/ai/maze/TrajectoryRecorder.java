@@ -0,0 +1,395 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Records where every bug goes, a generation at a time, without keeping whole trails on the heap. Positions are
+ *   quantized to a fixed grid (in maze units) and either kept in a small ring of recent samples per bug and maze, or
+ *   streamed to a file as deltas from each bug's last recorded position.
+ *
+ * Each bug can be sampled at its own rate: every step, every n steps, or not at all.
+ *
+ * Trajectory File Format (big endian):
+ * <pre>
+ * int     MAGIC
+ * short   VERSION
+ * int     generation
+ * int     # mazes, then each title as in {@link GenerationFile}
+ * int     # bugs
+ * double  quantum -- maze units per grid step
+ * per maze, its geometry, so playback needs no maze files:
+ *   int     # walls, then x1, y1, x2, y2 doubles each
+ *   int     # path lines, then x1, y1, x2, y2 doubles each
+ * frames, one per step with any samples:
+ *   int     step
+ *   byte    1 if a keyframe, else 0
+ *   int     # entries
+ *   int     # bytes of entries that follow
+ *   entries:
+ *     int     actor, bug * # mazes + maze; high bit set if absolute
+ *     absolute: int x, int y    in grid steps
+ *     delta:    short dx, dy    in grid steps, from the actor's last entry
+ * </pre>
+ *
+ * An actor's first entry is absolute. A keyframe starts with an absolute entry for every actor recorded so far, at
+ *   its last recorded position, so playback can start at any keyframe without reading what came before.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+public class TrajectoryRecorder implements Closeable {
+
+	/**
+	 * Where samples go.
+	 */
+	public enum Mode {
+		/** Nowhere; recording costs nothing. */
+		OFF,
+		/** A ring of the most recent samples per bug and maze, in memory, e.g. to draw short trails. */
+		RING,
+		/** Streamed to a trajectory file per generation, for playback. */
+		FILE
+	}
+
+	/**
+	 * Marks a trajectory file; "GENT".
+	 */
+	public static final int MAGIC = 0x47454E54;
+	/**
+	 * Current format version.
+	 */
+	public static final short VERSION = 2;
+
+	/**
+	 * Default grid size, in maze units.
+	 */
+	public static final double DEFAULT_QUANTUM = 1.0 / 64.0;
+
+	private static final int ABSOLUTE = 0x80000000;
+
+	private final Mode mode;
+	private final int sampleEvery;
+	private final int ringCapacity;
+	private final int keyframeEvery;
+	private final double quantum;
+
+	private int mazes;
+	private int[] sampling;
+
+	/**
+	 * Last recorded grid position per actor, and whether there is one.
+	 */
+	private int[] lastX;
+	private int[] lastY;
+	private boolean[] seen;
+
+	/**
+	 * RING: per actor, x, y pairs of grid positions; the next slot to write, and the number held.
+	 */
+	private int[][] ring;
+	private int[] ringNext;
+	private int[] ringCount;
+
+	/**
+	 * FILE: the open file, the frame being built, and the step of the last keyframe.
+	 */
+	private DataOutputStream out;
+	private ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+	private DataOutputStream frame = new DataOutputStream(frameBytes);
+	private int frameEntries = 0;
+	private int frameStep = -1;
+	private boolean frameKey = false;
+	private int lastKeyStep = Integer.MIN_VALUE;
+
+	/**
+	 * Builds a recorder.
+	 *
+	 * @param	mode			Where samples go.
+	 * @param	sampleEvery		Default steps between samples of a bug; 0 to sample no one by default.
+	 * @param	ringCapacity	RING: samples kept per bug and maze.
+	 * @param	keyframeEvery	FILE: steps between keyframes, where playback can start.
+	 * @param	quantum			Grid size, in maze units.
+	 */
+	public TrajectoryRecorder(Mode mode, int sampleEvery, int ringCapacity, int keyframeEvery, double quantum) {
+		this.mode = mode;
+		this.sampleEvery = sampleEvery;
+		this.ringCapacity = Math.max(1, ringCapacity);
+		this.keyframeEvery = Math.max(1, keyframeEvery);
+		this.quantum = quantum;
+	}
+
+	/**
+	 * @return	where samples go.
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return	the grid size, in maze units.
+	 */
+	public double getQuantum() {
+		return quantum;
+	}
+
+	/**
+	 * Starts recording a generation, finishing the last one.
+	 *
+	 * @param	generation	The generation.
+	 * @param	titles		Maze titles, in maze order.
+	 * @param	bugs		Number of bugs per maze.
+	 * @param	walls		Each maze's walls; FILE only.
+	 * @param	paths		Each maze's path lines; FILE only.
+	 * @param	file		FILE: the trajectory file to write (replaced if it exists); ignored otherwise.
+	 * @throws	IOException if the file cannot be started.
+	 */
+	public void begin(int generation, String[] titles, int bugs, SimpleLine[][] walls, SimpleLine[][] paths, File file)
+			throws IOException {
+		close();
+
+		this.mazes = titles.length;
+
+		if (mode == Mode.OFF) {
+			return;
+		}
+
+		int actors = bugs * mazes;
+
+		if (sampling == null || sampling.length != bugs) {
+			sampling = new int[bugs];
+		}
+		Arrays.fill(sampling, sampleEvery);
+
+		if (seen == null || seen.length != actors) {
+			lastX = new int[actors];
+			lastY = new int[actors];
+			seen = new boolean[actors];
+		} else {
+			Arrays.fill(seen, false);
+		}
+
+		if (mode == Mode.RING) {
+			if (ring == null || ring.length != actors) {
+				ring = new int[actors][];
+				ringNext = new int[actors];
+				ringCount = new int[actors];
+			} else {
+				Arrays.fill(ringNext, 0);
+				Arrays.fill(ringCount, 0);
+			}
+		} else {
+			out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ), 1 << 16 ) );
+
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeInt(generation);
+			GenerationFile.writeTitles(out, titles);
+			out.writeInt(bugs);
+			out.writeDouble(quantum);
+
+			for (int j = 0; j < mazes; j++) {
+				writeLines(out, walls[j]);
+				writeLines(out, paths[j]);
+			}
+
+			lastKeyStep = Integer.MIN_VALUE;
+			frameStep = -1;
+		}
+	}
+
+	private static void writeLines(DataOutputStream out, SimpleLine[] lines) throws IOException {
+		out.writeInt(lines.length);
+
+		for (SimpleLine l : lines) {
+			out.writeDouble(l.x1());
+			out.writeDouble(l.y1());
+			out.writeDouble(l.x2());
+			out.writeDouble(l.y2());
+		}
+	}
+
+	/**
+	 * Sets how often a bug is sampled, for the rest of this generation.
+	 *
+	 * @param	bug		The bug.
+	 * @param	every	Steps between samples; 0 for never.
+	 */
+	public void setSampling(int bug, int every) {
+		if (sampling != null) {
+			sampling[bug] = every;
+		}
+	}
+
+	/**
+	 * Tests if a bug is sampled at a step, so callers can skip work for bugs that are not.
+	 *
+	 * @param	step	The step.
+	 * @param	bug		The bug.
+	 * @return			true if {@link record(int, int, int, double, double)} would keep the position.
+	 */
+	public boolean samples(int step, int bug) {
+		if (mode == Mode.OFF || sampling == null) {
+			return false;
+		}
+
+		int every = sampling[bug];
+
+		return every > 0 && step % every == 0;
+	}
+
+	/**
+	 * Records a bug's position after a step, if it is sampled at this step.
+	 *
+	 * @param	step	The step.
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @param	x		X coord, in maze units.
+	 * @param	y		Y coord, in maze units.
+	 * @throws	IOException if writing fails.
+	 */
+	public void record(int step, int bug, int maze, double x, double y) throws IOException {
+		if (!samples(step, bug)) {
+			return;
+		}
+
+		int actor = bug * mazes + maze;
+		int qx = (int) Math.round(x / quantum);
+		int qy = (int) Math.round(y / quantum);
+
+		if (mode == Mode.RING) {
+			int[] r = ring[actor];
+
+			if (r == null) {
+				r = ring[actor] = new int[ringCapacity * 2];
+			}
+
+			int at = ringNext[actor];
+			r[at * 2] = qx;
+			r[at * 2 + 1] = qy;
+
+			ringNext[actor] = (at + 1) % ringCapacity;
+			if (ringCount[actor] < ringCapacity) {
+				ringCount[actor]++;
+			}
+		} else {
+			if (step != frameStep) {
+				endStep();
+
+				frameStep = step;
+				frameKey = step - lastKeyStep >= keyframeEvery || lastKeyStep == Integer.MIN_VALUE;
+
+				if (frameKey) {
+					lastKeyStep = step;
+
+					for (int a = 0; a < seen.length; a++) { // where everyone is, so playback can start here.
+						if (seen[a]) {
+							writeAbsolute(a, lastX[a], lastY[a]);
+						}
+					}
+				}
+			}
+
+			int dx = qx - lastX[actor];
+			int dy = qy - lastY[actor];
+
+			if (!seen[actor] || dx != (short) dx || dy != (short) dy) {
+				writeAbsolute(actor, qx, qy);
+			} else {
+				frame.writeInt(actor);
+				frame.writeShort(dx);
+				frame.writeShort(dy);
+				frameEntries++;
+			}
+		}
+
+		lastX[actor] = qx;
+		lastY[actor] = qy;
+		seen[actor] = true;
+	}
+
+	private void writeAbsolute(int actor, int qx, int qy) throws IOException {
+		frame.writeInt(actor | ABSOLUTE);
+		frame.writeInt(qx);
+		frame.writeInt(qy);
+		frameEntries++;
+	}
+
+	/**
+	 * Finishes the current step's frame. Optional; a frame also ends when a later step is recorded.
+	 *
+	 * @throws	IOException if writing fails.
+	 */
+	public void endStep() throws IOException {
+		if (out == null || frameStep < 0) {
+			return;
+		}
+
+		out.writeInt(frameStep);
+		out.writeByte(frameKey ? 1 : 0);
+		out.writeInt(frameEntries);
+		out.writeInt(frameBytes.size());
+		frameBytes.writeTo(out);
+
+		frameBytes.reset();
+		frameEntries = 0;
+		frameStep = -1;
+	}
+
+	/**
+	 * RING: the number of samples held for a bug in a maze.
+	 *
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @return			Samples held, up to the ring capacity; 0 unless in RING mode.
+	 */
+	public int ringSize(int bug, int maze) {
+		return (ringCount == null || mode != Mode.RING) ? 0 : ringCount[bug * mazes + maze];
+	}
+
+	/**
+	 * RING: the samples held for a bug in a maze, oldest first.
+	 *
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @param	xy		Where to put them, as x, y pairs in maze units; at least twice {@link ringSize(int, int)} long.
+	 * @return			The number of samples stored.
+	 */
+	public int ring(int bug, int maze, double[] xy) {
+		int n = ringSize(bug, maze);
+
+		if (n == 0) {
+			return 0;
+		}
+
+		int actor = bug * mazes + maze;
+		int[] r = ring[actor];
+		int start = (ringNext[actor] - n + ringCapacity) % ringCapacity;
+
+		for (int k = 0; k < n; k++) {
+			int at = (start + k) % ringCapacity;
+			xy[k * 2] = r[at * 2] * quantum;
+			xy[k * 2 + 1] = r[at * 2 + 1] * quantum;
+		}
+
+		return n;
+	}
+
+	/**
+	 * Finishes the generation being recorded, closing its file. Safe to call more than once.
+	 *
+	 * @throws	IOException if the file fails.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (out != null) {
+			try {
+				endStep();
+				out.flush();
+			} finally {
+				out.close();
+				out = null;
+			}
+		}
+	}
+}
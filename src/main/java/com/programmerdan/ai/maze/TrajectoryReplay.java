@@ -0,0 +1,514 @@
+package com.programmerdan.ai.maze;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Plays back a trajectory file written by {@link TrajectoryRecorder}: where every bug was, step by step, in every
+ *   maze. Playback can move forward by any number of steps at a time, or seek to any step; a seek starts from the
+ *   last keyframe at or before the step and decodes forward from there.
+ *
+ * Only the selected bugs and mazes are decoded. Everything is selected to start; selecting more later replays from
+ *   the last keyframe so the newly selected are placed too.
+ *
+ * The file is indexed by frame when opened, and each frame is read from its offset as it is played, so files of any
+ *   size play back in the memory of one frame. No {@link NeuralNetwork} or {@link SimulationMap} is built; the maze
+ *   geometry comes from the file.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link TrajectoryRecorder}
+ */
+public class TrajectoryReplay implements Closeable {
+
+	private static final int ABSOLUTE = 0x80000000;
+
+	/**
+	 * Bytes before each frame's entries: step, keyframe flag, # entries, # bytes.
+	 */
+	private static final int FRAME_HEADER = 13;
+
+	private final FileChannel ch;
+	private ByteBuffer frame = ByteBuffer.allocate(4096); // the frame being applied.
+
+	private final int generation;
+	private final String[] titles;
+	private final int bugs;
+	private final double quantum;
+	private final SimpleLine[][] walls;
+	private final SimpleLine[][] paths;
+
+	/**
+	 * Per frame: its step, where its entries start in the file and how many bytes they take, how many there are, and
+	 *   whether it is a keyframe.
+	 */
+	private final int frames;
+	private final int[] frameStep;
+	private final long[] frameOffset;
+	private final int[] frameBytes;
+	private final int[] frameEntries;
+	private final boolean[] frameKey;
+
+	private final boolean[] bugSelected;
+	private final boolean[] mazeSelected;
+
+	/**
+	 * Per actor, bug * mazes + maze: grid position, and whether it has one yet.
+	 */
+	private final int[] qx;
+	private final int[] qy;
+	private final boolean[] known;
+
+	private int next = 0;		// the next frame to apply.
+	private int step;			// the step played to.
+
+	private TrajectoryReplay(FileChannel ch, int generation, String[] titles, int bugs, double quantum,
+			SimpleLine[][] walls, SimpleLine[][] paths, int frames, int[] frameStep, long[] frameOffset,
+			int[] frameBytes, int[] frameEntries, boolean[] frameKey) {
+		this.ch = ch;
+		this.generation = generation;
+		this.titles = titles;
+		this.bugs = bugs;
+		this.quantum = quantum;
+		this.walls = walls;
+		this.paths = paths;
+		this.frames = frames;
+		this.frameStep = frameStep;
+		this.frameOffset = frameOffset;
+		this.frameBytes = frameBytes;
+		this.frameEntries = frameEntries;
+		this.frameKey = frameKey;
+
+		bugSelected = new boolean[bugs];
+		mazeSelected = new boolean[titles.length];
+		Arrays.fill(bugSelected, true);
+		Arrays.fill(mazeSelected, true);
+
+		qx = new int[bugs * titles.length];
+		qy = new int[bugs * titles.length];
+		known = new boolean[bugs * titles.length];
+
+		step = getFirstStep() - 1;
+	}
+
+	/**
+	 * Opens a trajectory file for playback, positioned before its first step. The file stays open until
+	 *   {@link close()}.
+	 *
+	 * @param	fn	The file.
+	 * @return		The replay.
+	 * @throws	IOException if the file cannot be read or is not a trajectory file this code understands.
+	 */
+	public static TrajectoryReplay open(File fn) throws IOException {
+		FileChannel ch = new RandomAccessFile(fn, "r").getChannel();
+
+		try {
+			return open(ch);
+		} catch (IOException e) {
+			ch.close();
+			throw e;
+		}
+	}
+
+	private static TrajectoryReplay open(FileChannel ch) throws IOException {
+		long size = ch.size();
+
+		// the header holds every wall, so its length is not known up front; read more until it all fits.
+		int have = (int) Math.min(size, 1 << 16);
+
+		while (true) {
+			ByteBuffer buf = ByteBuffer.allocate(have);
+			readFully(ch, buf, 0);
+			buf.flip();
+
+			try {
+				if (buf.getInt() != TrajectoryRecorder.MAGIC) {
+					throw new IOException("Not a trajectory file.");
+				}
+
+				short version = buf.getShort();
+
+				if (version != TrajectoryRecorder.VERSION) {
+					throw new IOException("Unsupported trajectory version " + version);
+				}
+
+				int generation = buf.getInt();
+				String[] titles = GenerationFile.readTitles(buf);
+				int bugs = buf.getInt();
+				double quantum = buf.getDouble();
+
+				if (bugs < 0 || !(quantum > 0.0)) {
+					throw new IOException("Bad trajectory header.");
+				}
+
+				SimpleLine[][] walls = new SimpleLine[titles.length][];
+				SimpleLine[][] paths = new SimpleLine[titles.length][];
+
+				for (int j = 0; j < titles.length; j++) {
+					walls[j] = readLines(buf, size);
+					paths[j] = readLines(buf, size);
+				}
+
+				return index(ch, buf.position(), generation, titles, bugs, quantum, walls, paths);
+			} catch (BufferUnderflowException bue) {
+				if (have == size || have == Integer.MAX_VALUE) {
+					throw new IOException("Truncated trajectory file.");
+				}
+
+				have = (int) Math.min(Math.min(size, Integer.MAX_VALUE), 2L * have);
+			}
+		}
+	}
+
+	/**
+	 * Reads the header of every frame, from the end of the file header on.
+	 */
+	private static TrajectoryReplay index(FileChannel ch, long at, int generation, String[] titles, int bugs,
+			double quantum, SimpleLine[][] walls, SimpleLine[][] paths) throws IOException {
+		long size = ch.size();
+
+		int frames = 0;
+		int[] frameStep = new int[256];
+		long[] frameOffset = new long[256];
+		int[] frameBytes = new int[256];
+		int[] frameEntries = new int[256];
+		boolean[] frameKey = new boolean[256];
+
+		ByteBuffer head = ByteBuffer.allocate(FRAME_HEADER);
+
+		while (at < size) {
+			if (frames == frameStep.length) {
+				frameStep = Arrays.copyOf(frameStep, frames * 2);
+				frameOffset = Arrays.copyOf(frameOffset, frames * 2);
+				frameBytes = Arrays.copyOf(frameBytes, frames * 2);
+				frameEntries = Arrays.copyOf(frameEntries, frames * 2);
+				frameKey = Arrays.copyOf(frameKey, frames * 2);
+			}
+
+			if (size - at < FRAME_HEADER) {
+				throw new IOException("Truncated trajectory file.");
+			}
+
+			head.clear();
+			readFully(ch, head, at);
+			head.flip();
+
+			frameStep[frames] = head.getInt();
+			frameKey[frames] = head.get() != 0;
+			frameEntries[frames] = head.getInt();
+			frameBytes[frames] = head.getInt();
+			frameOffset[frames] = at + FRAME_HEADER;
+
+			if (frameBytes[frames] < 0 || frameBytes[frames] > size - frameOffset[frames] || frameEntries[frames] < 0
+					|| (frames > 0 && frameStep[frames] <= frameStep[frames - 1])) {
+				throw new IOException("Bad trajectory frame at step " + frameStep[frames]);
+			}
+
+			at = frameOffset[frames] + frameBytes[frames];
+			frames++;
+		}
+
+		return new TrajectoryReplay(ch, generation, titles, bugs, quantum, walls, paths, frames, frameStep,
+				frameOffset, frameBytes, frameEntries, frameKey);
+	}
+
+	/**
+	 * Fills buf from its position to its limit with the file's bytes from a position on.
+	 *
+	 * @throws	IOException if the file ends first.
+	 */
+	private static void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			int n = ch.read(buf, position);
+
+			if (n < 0) {
+				throw new IOException("Truncated trajectory file.");
+			}
+
+			position += n;
+		}
+	}
+
+	/**
+	 * Reads a count of lines, then each line.
+	 *
+	 * @throws	IOException if more lines are claimed than the whole file could hold.
+	 * @throws	BufferUnderflowException if only the buffer is too short for them.
+	 */
+	private static SimpleLine[] readLines(ByteBuffer buf, long size) throws IOException {
+		int n = buf.getInt();
+
+		if (n < 0 || (long) n * 32 > size) {
+			throw new IOException("Truncated trajectory file.");
+		} else if ((long) n * 32 > buf.remaining()) {
+			throw new BufferUnderflowException();
+		}
+
+		SimpleLine[] lines = new SimpleLine[n];
+
+		for (int i = 0; i < n; i++) {
+			lines[i] = new SimpleLine(buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble());
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws	IOException if the file fails to close.
+	 */
+	public void close() throws IOException {
+		ch.close();
+	}
+
+	/**
+	 * @return	the generation recorded.
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return	maze titles, in maze order.
+	 */
+	public String[] getTitles() {
+		return titles.clone();
+	}
+
+	/**
+	 * @return	number of bugs per maze.
+	 */
+	public int getBugs() {
+		return bugs;
+	}
+
+	/**
+	 * @param	maze	The maze.
+	 * @return			its walls, as recorded.
+	 */
+	public SimpleLine[] getWalls(int maze) {
+		return walls[maze];
+	}
+
+	/**
+	 * @param	maze	The maze.
+	 * @return			its path lines, as recorded.
+	 */
+	public SimpleLine[] getPaths(int maze) {
+		return paths[maze];
+	}
+
+	/**
+	 * @return	the first step recorded, or 0 if none were.
+	 */
+	public int getFirstStep() {
+		return (frames > 0) ? frameStep[0] : 0;
+	}
+
+	/**
+	 * @return	the last step recorded, or 0 if none were.
+	 */
+	public int getLastStep() {
+		return (frames > 0) ? frameStep[frames - 1] : 0;
+	}
+
+	/**
+	 * @return	the step played to.
+	 */
+	public int getStep() {
+		return step;
+	}
+
+	/**
+	 * @return	true once the last step recorded has been played.
+	 */
+	public boolean isFinished() {
+		return next >= frames;
+	}
+
+	/**
+	 * Plays forward to a step; a step before the current one seeks back to it.
+	 *
+	 * @param	to	The step.
+	 */
+	public void advanceTo(int to) {
+		if (to < step) {
+			seek(to);
+		} else {
+			playTo(to);
+		}
+	}
+
+	/**
+	 * Moves to a step, from the last keyframe at or before it.
+	 *
+	 * @param	to	The step.
+	 */
+	public void seek(int to) {
+		int k = Arrays.binarySearch(frameStep, 0, frames, to);
+
+		if (k < 0) {
+			k = -k - 2; // the last frame before the step.
+		}
+
+		while (k > 0 && !frameKey[k]) {
+			k--;
+		}
+
+		Arrays.fill(known, false);
+		next = Math.max(k, 0);
+
+		playTo(to);
+	}
+
+	private void playTo(int to) {
+		while (next < frames && frameStep[next] <= to) {
+			apply(next++);
+		}
+
+		step = to;
+	}
+
+	private void apply(int f) {
+		int mazes = titles.length;
+
+		if (frame.capacity() < frameBytes[f]) {
+			frame = ByteBuffer.allocate(Math.max(frameBytes[f], frame.capacity() * 2));
+		}
+
+		frame.clear();
+		frame.limit(frameBytes[f]);
+
+		try {
+			readFully(ch, frame, frameOffset[f]);
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to read trajectory frame at step " + frameStep[f], e);
+		}
+
+		ByteBuffer buf = frame;
+		int at = 0;
+
+		for (int e = 0; e < frameEntries[f]; e++) {
+			int actor = buf.getInt(at);
+			boolean absolute = (actor & ABSOLUTE) != 0;
+			actor &= ~ABSOLUTE;
+
+			if (bugSelected[actor / mazes] && mazeSelected[actor % mazes]) {
+				if (absolute) {
+					qx[actor] = buf.getInt(at + 4);
+					qy[actor] = buf.getInt(at + 8);
+					known[actor] = true;
+				} else {
+					qx[actor] += buf.getShort(at + 4);
+					qy[actor] += buf.getShort(at + 6);
+				}
+			}
+
+			at += absolute ? 12 : 8;
+		}
+	}
+
+	/**
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @return			true if the bug is selected in the maze and has a position by the step played to.
+	 */
+	public boolean isKnown(int bug, int maze) {
+		return known[bug * titles.length + maze] && isSelected(bug, maze);
+	}
+
+	/**
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @return			X coord at the step played to, in maze units; only meaningful if {@link isKnown(int, int)}.
+	 */
+	public double getX(int bug, int maze) {
+		return qx[bug * titles.length + maze] * quantum;
+	}
+
+	/**
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @return			Y coord at the step played to, in maze units; only meaningful if {@link isKnown(int, int)}.
+	 */
+	public double getY(int bug, int maze) {
+		return qy[bug * titles.length + maze] * quantum;
+	}
+
+	/**
+	 * @param	bug		The bug.
+	 * @param	maze	The maze.
+	 * @return			true if both the bug and the maze are selected.
+	 */
+	public boolean isSelected(int bug, int maze) {
+		return bugSelected[bug] && mazeSelected[maze];
+	}
+
+	/**
+	 * Selects or drops a bug, in every maze.
+	 *
+	 * @param	bug			The bug.
+	 * @param	selected	true to play it back.
+	 */
+	public void setBugSelected(int bug, boolean selected) {
+		boolean was = bugSelected[bug];
+		bugSelected[bug] = selected;
+
+		if (selected && !was) {
+			seek(step);
+		}
+	}
+
+	/**
+	 * Selects or drops a maze, for every bug.
+	 *
+	 * @param	maze		The maze.
+	 * @param	selected	true to play it back.
+	 */
+	public void setMazeSelected(int maze, boolean selected) {
+		boolean was = mazeSelected[maze];
+		mazeSelected[maze] = selected;
+
+		if (selected && !was) {
+			seek(step);
+		}
+	}
+
+	/**
+	 * Selects only the given bugs.
+	 *
+	 * @param	which	The bugs to play back; null for all.
+	 */
+	public void selectBugs(int[] which) {
+		Arrays.fill(bugSelected, which == null);
+
+		if (which != null) {
+			for (int b : which) {
+				bugSelected[b] = true;
+			}
+		}
+
+		seek(step);
+	}
+
+	/**
+	 * Selects only the given mazes.
+	 *
+	 * @param	which	The mazes to play back; null for all.
+	 */
+	public void selectMazes(int[] which) {
+		Arrays.fill(mazeSelected, which == null);
+
+		if (which != null) {
+			for (int m : which) {
+				mazeSelected[m] = true;
+			}
+		}
+
+		seek(step);
+	}
+}
@@ -0,0 +1,209 @@
+package com.programmerdan.ai.maze;
+
+/**
+ * A Verlet style neighbor list of walls. Holds the indexes of every wall of a {@link SimulationMap} within
+ *   some radius of an anchor point. Any query (sight ray, motion vector) that starts within the margin of the
+ *   anchor and reaches no further than the radius less the margin can only touch walls on this list, so it
+ *   only has to test those. The list is rebuilt around the new position once the owner strays too far.
+ * Bugs move a bounded distance per step and spend a long time in the same small region of a maze, so the list
+ *   is rebuilt only every few steps, and every step in between tests a handful of walls instead of all of them.
+ *
+ * One of these belongs to each {@link Bug}, and so to each (bug, maze) pair.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ * @see {@link SimulationMap#candidateWalls(double, double, double, int[])}
+ */
+public class WallCandidates {
+
+	/**
+	 * Default slack around the query reach before a rebuild is needed.
+	 */
+	public static final double DEFAULT_MARGIN = 4.0;
+
+	/**
+	 * The map this list was built against.
+	 */
+	private SimulationMap map = null;
+
+	/**
+	 * The walls within radius of the anchor, in ascending index order.
+	 */
+	private int[] walls = null;
+	/**
+	 * The number of valid entries in {@link walls}.
+	 */
+	private int count = 0;
+
+	/**
+	 * Candidate wall start X coords, gathered into a contiguous array for {@link SegmentKernel}.
+	 */
+	private double[] x1;
+	/**
+	 * Candidate wall start Y coords.
+	 */
+	private double[] y1;
+	/**
+	 * Candidate wall end X coords.
+	 */
+	private double[] x2;
+	/**
+	 * Candidate wall end Y coords.
+	 */
+	private double[] y2;
+
+	/**
+	 * Anchor X coord -- where the list was last built.
+	 */
+	private double anchorX;
+	/**
+	 * Anchor Y coord -- where the list was last built.
+	 */
+	private double anchorY;
+	/**
+	 * Radius the list was built for.
+	 */
+	private double radius = -1.0;
+	/**
+	 * Largest query reach seen, so alternating short and long queries don't thrash the list.
+	 */
+	private double reach = 0.0;
+
+	/**
+	 * Slack around the reach.
+	 */
+	private double margin;
+
+	/**
+	 * Number of times the list has been (re)built, for diagnostics.
+	 */
+	private int rebuilds = 0;
+
+	/**
+	 * Creates an empty list with {@link DEFAULT_MARGIN}.
+	 */
+	public WallCandidates() {
+		this(DEFAULT_MARGIN);
+	}
+
+	/**
+	 * Creates an empty list.
+	 *
+	 * @param	margin	How far the owner can move from the anchor before the list is rebuilt.
+	 */
+	public WallCandidates(double margin) {
+		this.margin = margin;
+	}
+
+	/**
+	 * Makes sure this list covers a query from the given point that reaches no further than {@code reach};
+	 *   rebuilds it around that point if it does not.
+	 *
+	 * @param	map		The map being queried.
+	 * @param	x		The query origin, X coord.
+	 * @param	y		The query origin, Y coord.
+	 * @param	reach	How far from the origin the query can touch a wall.
+	 */
+	public void prepare(SimulationMap map, double x, double y, double reach) {
+		double dx = x - anchorX;
+		double dy = y - anchorY;
+
+		// the small slack keeps rounding at the very edge of the radius from ever dropping a wall.
+		if (this.map != map || Math.sqrt(dx * dx + dy * dy) + reach > radius - 1.0e-9) {
+			if (reach > this.reach) {
+				this.reach = reach;
+			}
+
+			if (this.map != map || walls == null) {
+				int n = map.getWalls().length;
+
+				walls = new int[n];
+				x1 = new double[n];
+				y1 = new double[n];
+				x2 = new double[n];
+				y2 = new double[n];
+				this.map = map;
+			}
+
+			anchorX = x;
+			anchorY = y;
+			radius = this.reach + margin;
+
+			count = map.candidateWalls(x, y, radius, walls);
+
+			double[] wx1 = map.getWallX1(), wy1 = map.getWallY1(), wx2 = map.getWallX2(), wy2 = map.getWallY2();
+
+			for (int k = 0; k < count; k++) {
+				x1[k] = wx1[walls[k]];
+				y1[k] = wy1[walls[k]];
+				x2[k] = wx2[walls[k]];
+				y2[k] = wy2[walls[k]];
+			}
+
+			rebuilds++;
+		}
+	}
+
+	/**
+	 * Accessor for the candidate wall indexes; only the first {@link getCount()} are valid.
+	 *
+	 * @return	The wall indexes.
+	 */
+	public int[] getWalls() {
+		return walls;
+	}
+
+	/**
+	 * Accessor for the number of candidate walls.
+	 *
+	 * @return	The number of valid entries in {@link getWalls()}.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Accessor for the candidate wall start X coords; entry k belongs to wall {@code getWalls()[k]}.
+	 *
+	 * @return	The gathered start X coords.
+	 */
+	public double[] getX1() {
+		return x1;
+	}
+
+	/**
+	 * Accessor for the candidate wall start Y coords.
+	 *
+	 * @return	The gathered start Y coords.
+	 */
+	public double[] getY1() {
+		return y1;
+	}
+
+	/**
+	 * Accessor for the candidate wall end X coords.
+	 *
+	 * @return	The gathered end X coords.
+	 */
+	public double[] getX2() {
+		return x2;
+	}
+
+	/**
+	 * Accessor for the candidate wall end Y coords.
+	 *
+	 * @return	The gathered end Y coords.
+	 */
+	public double[] getY2() {
+		return y2;
+	}
+
+	/**
+	 * Number of times this list has been built.
+	 *
+	 * @return	The rebuild count.
+	 */
+	public int getRebuilds() {
+		return rebuilds;
+	}
+}
@@ -0,0 +1,108 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Breeds one generation with a {@link Breeder} from fixed parents, fitnesses and seed, in blocks of several sizes
+ *   on a pool and in one pass without, and checks every way gives the same children bred the same way.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class BreederTest {
+
+	private static final int BUGS = 300;
+
+	/**
+	 * Everything a lineage holds, as one string.
+	 */
+	private static String describe(Lineage l) {
+		StringBuilder sb = new StringBuilder(l.getKind().toString());
+
+		if (l.getKind() != Lineage.Kind.RANDOM) {
+			sb.append(' ').append(l.getFirst());
+		}
+		if (l.getKind() == Lineage.Kind.CROSS) {
+			sb.append(' ').append(l.getSecond()).append(' ').append(l.startsFirst())
+					.append(' ').append(Arrays.toString(l.getCrosspoints()));
+		}
+
+		for (int m = 0; m < l.numMutations(); m++) {
+			sb.append(' ').append(l.getMutationGene(m)).append(':').append(l.getMutationBit(m));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Breeds a generation and returns each child's genome, then its lineage.
+	 */
+	private static String[] breed(Selection.Mode mode, long seed, Chromosome[] parents, double[] fitness, int block,
+			ExecutorService pool) {
+		Breeder breeder = new Breeder(.75, 4, .5, .1); // mutate often, so mutations are compared too.
+		breeder.setSelection(mode, 3);
+		breeder.setBlock(block);
+
+		Chromosome[] next = new Chromosome[BUGS];
+		Lineage[] lineage = new Lineage[BUGS];
+
+		breeder.breed(seed, 12, parents, fitness, BUGS / 4, next, lineage, pool);
+
+		String[] bred = new String[BUGS * 2];
+
+		for (int a = 0; a < BUGS; a++) {
+			bred[a] = next[a].toString();
+			bred[BUGS + a] = describe(lineage[a]);
+
+			if (lineage[a].getKind() != Lineage.Kind.RANDOM) {
+				assertEquals(bred[a], lineage[a].replay(parents).toString());
+			}
+		}
+
+		return bred;
+	}
+
+	/**
+	 * For every selection mode, blocks of 1, 7, 256 and the whole generation on a pool breed what breeding in one
+	 *   pass does; another seed breeds something else.
+	 */
+	@Test
+	public void deterministicTest() throws Exception {
+		Random rand = new Random(26049l);
+		Chromosome[] parents = new Chromosome[BUGS];
+		double[] fitness = new double[BUGS];
+
+		for (int a = 0; a < BUGS; a++) {
+			parents[a] = Chromosome.randomChromosome(40, 28, rand);
+			fitness[a] = (a % 5 == 0) ? 0.0 : rand.nextInt(20) / 20.0; // zeros and ties.
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+
+		try {
+			for (Selection.Mode mode : Selection.Mode.values()) {
+				String[] expect = breed(mode, 26049L, parents, fitness, BUGS, null);
+
+				for (int block : new int[] {1, 7, 256, BUGS}) {
+					assertArrayEquals(mode + " block " + block, expect,
+							breed(mode, 26049L, parents, fitness, block, pool));
+				}
+
+				assertFalse(mode.toString(), Arrays.equals(expect, breed(mode, 26050L, parents, fitness, 7, pool)));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Picks random points among random bugs with a {@link BugPicker} and checks each pick against a search of every bug.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class BugPickerTest {
+
+	/**
+	 * Bugs are spread over two mazes, some outside their maze's extent; every pick must find the nearest bug within
+	 *   the radius, or none if there is none.
+	 */
+	@Test
+	public void nearestTest() {
+		Random rand = new Random(26046l);
+		double[][] extent = new double[][] {{0, 40, 0, 30}, {0, 10, 0, 100}};
+		int[] counts = new int[] {700, 3};
+		int n = counts[0] + counts[1];
+
+		int[] maze = new int[n];
+		int[] bug = new int[n];
+		float[] x = new float[n];
+		float[] y = new float[n];
+
+		int k = 0;
+		for (int e = 0; e < counts.length; e++) {
+			for (int b = 0; b < counts[e]; b++) {
+				maze[k] = e;
+				bug[k] = b * 2 + e; // not simply the entry index.
+				x[k] = (float) (extent[e][0] - 2 + rand.nextDouble() * (extent[e][1] - extent[e][0] + 4));
+				y[k] = (float) (extent[e][2] - 2 + rand.nextDouble() * (extent[e][3] - extent[e][2] + 4));
+				k++;
+			}
+		}
+
+		double[] none = new double[2];
+		RenderFrame frame = new RenderFrame(0, 0, counts, none, none, none, none, none, none, n, maze, bug, x, y,
+				new float[n], new float[n], new float[n], 0, null, extent);
+		BugPicker picker = new BugPicker(frame);
+
+		int found = 0;
+
+		for (int t = 0; t < 5000; t++) {
+			int e = rand.nextInt(2);
+			double px = extent[e][0] - 3 + rand.nextDouble() * (extent[e][1] - extent[e][0] + 6);
+			double py = extent[e][2] - 3 + rand.nextDouble() * (extent[e][3] - extent[e][2] + 6);
+			double radius = (t % 2 == 0) ? 0.75 : 4.0;
+
+			int expect = -1;
+			double bestD = radius * radius;
+			for (int i = 0; i < n; i++) {
+				double dx = x[i] - px, dy = y[i] - py;
+				if (maze[i] == e && dx * dx + dy * dy <= bestD) {
+					bestD = dx * dx + dy * dy;
+					expect = bug[i];
+				}
+			}
+
+			assertEquals("pick " + t, expect, picker.nearest(e, px, py, radius));
+
+			if (expect >= 0) {
+				found++;
+			}
+		}
+
+		assertTrue(found > 1000); // the test hit bugs often enough to mean something.
+	}
+}
@@ -0,0 +1,88 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Round trips in-flight generation state through a {@link Checkpoint}.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class CheckpointTest {
+
+	/**
+	 * A bug restored from a checkpoint must carry on exactly as the original does, learned brain weights and all.
+	 */
+	@Test
+	public void checkpointTest() throws IOException {
+		Random rand = new Random(26037l);
+		SimulationMap map = new SimulationMap("./mazes/Curvy.maze");
+
+		int[] inputs = new int[] {0,1,0,1};
+		int[] outputs = new int[] {1,0};
+		Chromosome dna = Chromosome.randomChromosome(Bug.estimateChromosome(inputs.length, 5, 2), 28, rand);
+
+		Bug original = new Bug(map.getStartX(), map.getStartY(), 0.0, 0.0, 1.0, 1.0, inputs, 5, 2, outputs, dna);
+		Bug done = new Bug(map.getStartX(), map.getStartY(), 0.0, 0.0, 1.0, 1.0, inputs, 5, 2, outputs, dna);
+		double[] in = new double[inputs.length];
+
+		for (int s = 0; s < 40; s++) {
+			for (int k = 0; k < in.length; k++) {
+				in[k] = rand.nextDouble() * 2.0 - 1.0;
+			}
+			original.setInputs(in);
+			original.step(map);
+			original.setFitness(map.relativePathProgress(original.getX(), original.getY()));
+		}
+
+		Checkpoint ckpt = new Checkpoint(3, 40, new String[] {"Curvy"}, 2,
+				new double[][] {{0.25}, {0.75}}, new long[][] {{40l}});
+		ckpt.setBug(0, 0, true, 12.5, original, true);
+		ckpt.setBug(1, 0, false, 3.0, done, false);
+
+		File fn = File.createTempFile("checkpoint", ".ckpt");
+		fn.deleteOnExit();
+		ckpt.write(fn);
+
+		Checkpoint back = Checkpoint.read(fn);
+		assertEquals(3, back.generation);
+		assertEquals(40, back.steps);
+		assertEquals("Curvy", back.titles[0]);
+		assertTrue(back.isActive(0, 0));
+		assertFalse(back.isActive(1, 0));
+		assertEquals(12.5, back.getPathLength(0, 0), 0.0);
+		assertEquals(0.75, back.getRealStatistics()[1][0], 0.0);
+		assertEquals(40l, back.getCountStatistics()[0][0]);
+
+		Bug resumed = new Bug(map.getStartX(), map.getStartY(), 0.0, 0.0, 1.0, 1.0, inputs, 5, 2, outputs, dna);
+		back.restoreBug(0, 0, resumed);
+
+		for (int s = 0; s < 40; s++) {
+			for (int k = 0; k < in.length; k++) {
+				in[k] = rand.nextDouble() * 2.0 - 1.0;
+			}
+			original.setInputs(in);
+			original.step(map);
+			resumed.setInputs(in);
+			resumed.step(map);
+
+			assertEquals(original.getX(), resumed.getX(), 0.0);
+			assertEquals(original.getY(), resumed.getY(), 0.0);
+			assertEquals(original.getDir(), resumed.getDir(), 0.0);
+		}
+
+		assertEquals(original.getMaxFitness(), resumed.getMaxFitness(), 0.0);
+		assertTrue(Arrays.equals(original.getBrain().getState(), resumed.getBrain().getState()));
+	}
+}
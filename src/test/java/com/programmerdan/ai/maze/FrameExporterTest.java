@@ -0,0 +1,66 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Exports a few frames of one maze off screen with a {@link FrameExporter} and reads the PNGs back.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class FrameExporterTest {
+
+	/**
+	 * Every frame queued is saved, under its generation and step, at the size asked for rather than the panel's.
+	 */
+	@Test
+	public void exportTest() throws Exception {
+		SimulationMap[] maze = new SimulationMap[] {new SimulationMap("./mazes/Straight.maze")};
+		double[] extent = maze[0].mapExtent();
+		MazeRenderer renderer = new MazeRenderer(maze, new double[] {10}, new double[] {0}, new double[] {0}, 20,
+				new float[] {1, 0, 0}, new float[] {-1, 1, 0});
+
+		File dir = File.createTempFile("frames", "");
+		dir.delete();
+
+		FrameExporter exporter = new FrameExporter("Test exporter", dir, renderer, 300, 200, 600, 400, 4);
+
+		for (int step = 10; step <= 30; step += 10) {
+			float[] at = new float[] {(float) extent[0] + step / 10};
+			double[] one = new double[] {0.5};
+
+			assertTrue(exporter.offer(new RenderFrame(3, step, new int[] {1}, one, one, one, one, one, one, 1,
+					new int[] {0}, new int[] {0}, at, at, new float[] {1}, new float[] {0}, new float[] {0.5f}, 0,
+					null, new double[][] {extent})));
+		}
+
+		exporter.close();
+
+		assertEquals(3, exporter.getExported());
+		assertEquals(0, exporter.getDropped());
+		assertFalse(exporter.offer(null)); // closed.
+
+		for (int step = 10; step <= 30; step += 10) {
+			File png = new File(dir, FrameExporter.fileName(3, step));
+			BufferedImage image = ImageIO.read(png);
+
+			assertEquals(600, image.getWidth());
+			assertEquals(400, image.getHeight());
+
+			png.delete();
+		}
+
+		assertEquals("gen000003_step000010.png", FrameExporter.fileName(3, 10));
+		assertTrue(dir.delete()); // nothing else was written.
+	}
+}
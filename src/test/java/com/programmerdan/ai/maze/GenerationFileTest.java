@@ -0,0 +1,430 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Round trips generations through the binary {@link GenerationFile} format, the text converter,
+ *   the {@link GenerationArchive} and {@link GenerationDelta} lineage records.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class GenerationFileTest {
+
+	/**
+	 * Builds a chromosome of known bits.
+	 */
+	private static Chromosome randomChromosome(Random rand, int genes, int width) {
+		Chromosome c = new Chromosome();
+		boolean[] bits = new boolean[width];
+
+		for (int g = 0; g < genes; g++) {
+			for (int a = 0; a < width; a++) {
+				bits[a] = rand.nextBoolean();
+			}
+			c.addGene(new Gene(bits));
+		}
+
+		return c;
+	}
+
+	/**
+	 * Every bit written must come back, at widths that do and do not fill whole bytes.
+	 */
+	@Test
+	public void binaryRoundTripTest() throws IOException {
+		Random rand = new Random(26032l);
+		String[] titles = new String[] {"Curvy", "Straight"};
+
+		for (int width : new int[] {28, 8, 5}) {
+			Chromosome[] pop = new Chromosome[17];
+
+			for (int i = 0; i < pop.length; i++) {
+				pop[i] = randomChromosome(rand, 13, width);
+			}
+
+			File fn = File.createTempFile("round", ".gen");
+			fn.deleteOnExit();
+
+			GenerationFile.write(fn, 42, -26050L, titles, pop);
+
+			assertTrue(GenerationFile.isBinary(fn));
+
+			GenerationFile gf = GenerationFile.open(fn);
+
+			assertEquals(42, gf.getGeneration());
+			assertEquals(-26050L, gf.getSeed());
+			assertTrue(gf.hasSeed());
+			assertEquals(2, gf.getMazeTitles().length);
+			assertEquals("Straight", gf.getMazeTitles()[1]);
+			assertEquals(pop.length, gf.getPopulation());
+			assertEquals(width, gf.getGeneWidth());
+			assertEquals(13, gf.getGeneCount());
+
+			for (int i = 0; i < pop.length; i++) {
+				assertEquals(pop[i].toString(), gf.toChromosome(i).toString());
+			}
+		}
+	}
+
+	/**
+	 * Converting a text generation must give the same chromosomes the text loader reads, and converting back
+	 *   must give a text file that loads the same again.
+	 */
+	@Test
+	public void textConversionTest() throws IOException {
+		Random rand = new Random(32026l);
+		Chromosome[] pop = new Chromosome[9];
+
+		for (int i = 0; i < pop.length; i++) {
+			pop[i] = randomChromosome(rand, 11, 28);
+		}
+
+		File text = File.createTempFile("text", ".gen");
+		File binary = File.createTempFile("binary", ".gen");
+		File back = File.createTempFile("back", ".gen");
+		text.deleteOnExit();
+		binary.deleteOnExit();
+		back.deleteOnExit();
+
+		GenerationFile.writeText(text, 7, new String[] {"Curvy"}, pop);
+
+		assertFalse(GenerationFile.isBinary(text));
+
+		GenerationFile.toBinary(text, binary);
+		GenerationFile gf = GenerationFile.open(binary);
+
+		assertEquals(7, gf.getGeneration());
+		assertEquals(0L, gf.getSeed()); // text carries no seed.
+		assertFalse(gf.hasSeed());
+		assertEquals("Curvy", gf.getMazeTitles()[0]);
+
+		for (int i = 0; i < pop.length; i++) {
+			Chromosome legacy = new Chromosome();
+			legacy.setGenesEncoded(pop[i].toEncodedString());
+
+			assertEquals(legacy.toString(), gf.toChromosome(i).toString());
+		}
+
+		GenerationFile.toText(binary, back);
+		GenerationFile.toBinary(back, binary);
+		GenerationFile again = GenerationFile.open(binary);
+
+		for (int i = 0; i < pop.length; i++) {
+			assertEquals(gf.toChromosome(i).toString(), again.toChromosome(i).toString());
+		}
+	}
+
+	/**
+	 * Generations come back from a reopened archive by number, and an append torn off part way through
+	 *   loses only that generation.
+	 */
+	@Test
+	public void archiveTest() throws IOException {
+		Random rand = new Random(26033l);
+		String[] titles = new String[] {"Curvy"};
+		Chromosome[][] gens = new Chromosome[4][5];
+
+		for (int g = 0; g < gens.length; g++) {
+			for (int i = 0; i < gens[g].length; i++) {
+				gens[g][i] = randomChromosome(rand, 6, 28);
+			}
+		}
+
+		File fn = File.createTempFile("run", ".genarc");
+		fn.delete();
+		fn.deleteOnExit();
+
+		GenerationArchive archive = new GenerationArchive(fn);
+		assertEquals(-1, archive.latestGeneration());
+
+		for (int g = 0; g < 3; g++) {
+			archive.append(g, 26050L, titles, gens[g]);
+		}
+		archive.close();
+
+		long intact = fn.length();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(3, archive.size());
+		assertEquals(2, archive.latestGeneration());
+		assertEquals(gens[1][3].toString(), archive.read(1).toChromosome(3).toString());
+
+		archive.append(3, 26050L, titles, gens[3]);
+		archive.close();
+
+		// tear the last record: cut it off part way, footer and all.
+		RandomAccessFile raf = new RandomAccessFile(fn, "rw");
+		raf.setLength(intact + 40);
+		raf.close();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(3, archive.size());
+		assertEquals(2, archive.latestGeneration());
+		assertFalse(archive.contains(3));
+		assertEquals(gens[2][4].toString(), archive.read(2).toChromosome(4).toString());
+
+		archive.append(3, 26050L, titles, gens[3]);
+		archive.close();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(3, archive.latestGeneration());
+		assertEquals(gens[3][0].toString(), archive.read(3).toChromosome(0).toString());
+		archive.close();
+	}
+
+	/**
+	 * A stale trailer left over a torn record must not index it, and a damaged index block must not be trusted:
+	 *   the records are read from the front instead, and the next open uses the index again.
+	 */
+	@Test
+	public void archiveIndexTest() throws IOException {
+		Random rand = new Random(26033l);
+		String[] titles = new String[] {"Curvy"};
+		int count = GenerationArchive.INDEX_EVERY * 2 + 5;
+		Chromosome[][] gens = new Chromosome[count + 1][3];
+
+		for (int g = 0; g < gens.length; g++) {
+			for (int i = 0; i < gens[g].length; i++) {
+				gens[g][i] = randomChromosome(rand, 6, 28);
+			}
+		}
+
+		File fn = File.createTempFile("run", ".genarc");
+		fn.delete();
+		fn.deleteOnExit();
+
+		GenerationArchive archive = new GenerationArchive(fn);
+
+		for (int g = 0; g < count; g++) {
+			archive.append(g, 26050L, titles, gens[g]);
+		}
+		archive.close();
+
+		long intact = fn.length();
+		byte[] trailer = new byte[12];
+		RandomAccessFile raf = new RandomAccessFile(fn, "r");
+		raf.seek(intact - trailer.length);
+		raf.readFully(trailer);
+		raf.close();
+
+		archive = new GenerationArchive(fn);
+		archive.append(count, 26050L, titles, gens[count]);
+		archive.close();
+
+		// part of the next record landed, and the old trailer after it.
+		raf = new RandomAccessFile(fn, "rw");
+		raf.setLength(intact + 30);
+		raf.seek(intact + 30);
+		raf.write(trailer);
+		raf.close();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(count, archive.size());
+		assertFalse(archive.contains(count));
+		assertEquals(gens[count - 1][2].toString(), archive.read(count - 1).toChromosome(2).toString());
+		archive.close();
+
+		// damage the first entry of the first index block.
+		raf = new RandomAccessFile(fn, "rw");
+		byte[] all = new byte[(int) raf.length()];
+		raf.readFully(all);
+
+		int block = new String(all, "ISO-8859-1").indexOf("GIDX");
+		raf.seek(block + 16);
+		raf.write(all[block + 16] ^ 0x40);
+		raf.close();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(count, archive.size());
+		assertEquals(0, archive.generations()[0]);
+		assertEquals(gens[0][1].toString(), archive.read(0).toChromosome(1).toString());
+		archive.close();
+
+		// recovering started a new chain, so opening again reads the index without adding to the file.
+		long recovered = fn.length();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(count, archive.size());
+		archive.close();
+
+		assertEquals(recovered, fn.length());
+
+		archive = new GenerationArchive(fn);
+		archive.append(count, 26050L, titles, gens[count]);
+		assertEquals(gens[count][0].toString(), archive.read(count).toChromosome(0).toString());
+		archive.close();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(count, archive.latestGeneration());
+		assertEquals(gens[GenerationArchive.INDEX_EVERY][1].toString(),
+				archive.read(GenerationArchive.INDEX_EVERY).toChromosome(1).toString());
+		archive.close();
+	}
+
+	/**
+	 * Reading the records from the front steps over damaged ones in the middle, by a bad payload or a bad length,
+	 *   and keeps every good generation after them.
+	 */
+	@Test
+	public void archiveRecoveryTest() throws IOException {
+		Random rand = new Random(26033l);
+		String[] titles = new String[] {"Curvy"};
+		Chromosome[][] gens = new Chromosome[20][3];
+
+		for (int g = 0; g < gens.length; g++) {
+			for (int i = 0; i < gens[g].length; i++) {
+				gens[g][i] = randomChromosome(rand, 6, 28);
+			}
+		}
+
+		File fn = File.createTempFile("run", ".genarc");
+		fn.delete();
+		fn.deleteOnExit();
+
+		GenerationArchive archive = new GenerationArchive(fn);
+
+		for (int g = 0; g < gens.length; g++) {
+			archive.append(g, 26050L, titles, gens[g]);
+		}
+		archive.close();
+
+		RandomAccessFile raf = new RandomAccessFile(fn, "rw");
+		byte[] all = new byte[(int) raf.length()];
+		raf.readFully(all);
+
+		String text = new String(all, "ISO-8859-1");
+		int five = -1;
+		int nine = -1;
+
+		for (int at = text.indexOf("GREC"), g = 0; at >= 0; at = text.indexOf("GREC", at + 1), g++) {
+			assertEquals(g, ByteBuffer.wrap(all, at + 4, 4).getInt());
+
+			if (g == 5) five = at;
+			if (g == 9) nine = at;
+		}
+
+		raf.seek(five + 17); // a payload byte.
+		raf.write(all[five + 17] ^ 0x01);
+		raf.seek(nine + 8); // the length, past the end of the file.
+		raf.write(0x7F);
+		raf.seek(all.length - 1); // the trailer, so the records are read from the front.
+		raf.write(all[all.length - 1] ^ 0x01);
+		raf.close();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(gens.length - 2, archive.size());
+		assertFalse(archive.contains(5));
+		assertFalse(archive.contains(9));
+
+		for (int g = 0; g < gens.length; g++) {
+			if (g != 5 && g != 9) {
+				assertEquals(gens[g][2].toString(), archive.read(g).toChromosome(2).toString());
+			}
+		}
+		archive.close();
+
+		long recovered = fn.length();
+
+		archive = new GenerationArchive(fn);
+		assertEquals(gens.length - 2, archive.size());
+		assertEquals(gens.length - 1, archive.latestGeneration());
+		archive.close();
+
+		assertEquals(recovered, fn.length());
+	}
+
+	/**
+	 * Children bred with their lineage noted must come back from delta records bit for bit, and breeding must
+	 *   leave the parents alone.
+	 */
+	@Test
+	public void deltaTest() throws IOException {
+		Random rand = new Random(26034l);
+		String[] titles = new String[] {"Curvy", "Straight"};
+
+		Chromosome[] parents = new Chromosome[12];
+		for (int i = 0; i < parents.length; i++) {
+			parents[i] = randomChromosome(rand, 40, 28);
+		}
+
+		String[] before = new String[parents.length];
+		for (int i = 0; i < parents.length; i++) {
+			before[i] = parents[i].toString();
+		}
+
+		File fn = File.createTempFile("delta", ".genarc");
+		fn.delete();
+		fn.deleteOnExit();
+
+		GenerationArchive archive = new GenerationArchive(fn);
+		archive.append(0, 26050L, titles, parents);
+
+		Chromosome[] gen = parents;
+
+		for (int g = 1; g <= 3; g++) {
+			Chromosome[] children = new Chromosome[gen.length];
+			Lineage[] lineage = new Lineage[gen.length];
+
+			for (int i = 0; i < children.length; i++) {
+				int a = rand.nextInt(gen.length), b = rand.nextInt(gen.length);
+
+				if (i == 0) {
+					lineage[i] = new Lineage();
+					children[i] = randomChromosome(rand, 40, 28);
+				} else if (i % 3 == 0) {
+					lineage[i] = new Lineage(a);
+					children[i] = gen[a].clone().mutate(lineage[i], rand);
+				} else {
+					lineage[i] = new Lineage(a, b);
+					children[i] = gen[a].crossover(gen[b], 4, lineage[i], rand);
+
+					if (i % 2 == 0) {
+						children[i] = children[i].mutate(lineage[i], rand).mutate(lineage[i], rand);
+					}
+				}
+
+				if (lineage[i].getKind() != Lineage.Kind.RANDOM) {
+					assertEquals(children[i].toString(), lineage[i].replay(gen).toString());
+				}
+			}
+
+			archive.appendDelta(g, g - 1, 26050L + g, titles, children, lineage);
+			gen = children;
+		}
+
+		for (int i = 0; i < parents.length; i++) {
+			assertEquals(before[i], parents[i].toString());
+		}
+
+		archive.close();
+
+		archive = new GenerationArchive(fn);
+		assertTrue(archive.isDelta(3));
+		assertFalse(archive.isDelta(0));
+
+		GenerationFile last = archive.read(3);
+		assertEquals(3, last.getGeneration());
+		assertEquals(26053L, last.getSeed());
+		assertTrue(last.hasSeed());
+		assertEquals("Straight", last.getMazeTitles()[1]);
+
+		for (int i = 0; i < gen.length; i++) {
+			assertEquals(gen[i].toString(), last.toChromosome(i).toString());
+		}
+
+		archive.close();
+	}
+}
@@ -0,0 +1,109 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Runs a learning network and checks that a {@link NeuralNetworkDisplay} redrawing only what changed ends up with the
+ *   same picture as one drawing the last snapshot from scratch.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class NeuralNetworkDisplayTest {
+
+	private static final int WIDTH = 700;
+	private static final int HEIGHT = 300;
+
+	private static NeuralNetwork network(Random rand) {
+		NeuralNetwork brain = new NeuralNetwork(4, 2, 6, 3, 0.3, 0.01);
+
+		for (int i = 0; i < 4; i++) {
+			brain.addInput(rand.nextDouble(), rand.nextDouble(), AF_Tanh.Default);
+		}
+
+		for (int k = 0; k < 2; k++) {
+			for (int j = 0; j < 6; j++) {
+				brain.addHidden(weights(rand, (k == 0) ? 4 : 6), rand.nextDouble(), AF_Tanh.Default);
+			}
+		}
+
+		for (int j = 0; j < 3; j++) {
+			brain.addOutput(weights(rand, 6), rand.nextDouble(), AF_Tanh.Default);
+		}
+
+		return brain;
+	}
+
+	private static double[] weights(Random rand, int n) {
+		double[] w = new double[n];
+
+		for (int i = 0; i < n; i++) {
+			w[i] = rand.nextDouble() * 2.0 - 1.0;
+		}
+
+		return w;
+	}
+
+	private static NeuralNetworkDisplay display() {
+		NeuralNetworkDisplay display = new NeuralNetworkDisplay();
+		display.setSize(WIDTH, HEIGHT);
+		display.setActive(true);
+
+		return display;
+	}
+
+	private static BufferedImage paint(NeuralNetworkDisplay display) {
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2 = image.createGraphics();
+
+		display.paint(g2);
+		g2.dispose();
+
+		return image;
+	}
+
+	/**
+	 * Weight lines cross, so redrawing just the changed ones would leave old colours where they cross the rest.
+	 */
+	@Test
+	public void partialRedrawTest() {
+		Random rand = new Random(26043l);
+		NeuralNetwork brain = network(rand);
+		NeuralNetworkDisplay partial = display();
+		NeuralNetworkDisplay.Snapshot snap = null;
+
+		for (int s = 0; s < 300; s++) {
+			brain.setInputs(weights(rand, 4));
+			brain.step();
+
+			snap = new NeuralNetworkDisplay.Snapshot(brain);
+			partial.show(snap);
+			paint(partial);
+		}
+
+		NeuralNetworkDisplay full = display();
+		full.show(snap);
+
+		BufferedImage a = paint(partial);
+		BufferedImage b = paint(full);
+		int differ = 0;
+
+		for (int x = 0; x < WIDTH; x++) {
+			for (int y = 0; y < HEIGHT; y++) {
+				if (a.getRGB(x, y) != b.getRGB(x, y)) {
+					differ++;
+				}
+			}
+		}
+
+		assertEquals(0, differ);
+	}
+}
@@ -0,0 +1,99 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks that {@link Rng} repeats from a seed, that its streams are the splits they stand for, and that its draws
+ *   look uniform.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class RngTest {
+
+	/**
+	 * The same seed gives the same numbers, whether built with it or reset to it.
+	 */
+	@Test
+	public void seedTest() {
+		Rng a = new Rng(26050L);
+		Rng b = new Rng(26050L);
+		Rng c = new Rng(1L);
+
+		int same = 0;
+
+		for (int t = 0; t < 1000; t++) {
+			long x = a.nextLong();
+
+			assertEquals(x, b.nextLong());
+
+			if (x == c.nextLong()) {
+				same++;
+			}
+		}
+
+		assertEquals(0, same);
+
+		a.setSeed(26050L);
+		assertEquals(new Rng(26050L).nextLong(), a.nextLong());
+	}
+
+	/**
+	 * stream(i) is the i-th split, and leaves its parent alone; streams do not echo each other.
+	 */
+	@Test
+	public void streamTest() {
+		Rng parent = new Rng(26050L);
+		Rng splitter = new Rng(26050L);
+
+		Rng[] streams = new Rng[8];
+
+		for (int i = 0; i < streams.length; i++) {
+			streams[i] = parent.stream(i);
+			Rng split = splitter.split();
+
+			for (int t = 0; t < 100; t++) {
+				assertEquals("stream " + i, split.nextLong(), streams[i].nextLong());
+			}
+		}
+
+		assertEquals(new Rng(26050L).nextLong(), parent.nextLong()); // nothing was drawn.
+
+		long first = parent.stream(3).nextLong();
+		for (int i = 0; i < streams.length; i++) {
+			if (i != 3) {
+				assertTrue(parent.stream(i).nextLong() != first);
+			}
+		}
+	}
+
+	/**
+	 * Doubles fall in [0, 1) and spread evenly over ten bins; bounded ints, drawn through next(bits), do too.
+	 */
+	@Test
+	public void uniformTest() {
+		Rng rng = new Rng(26050L);
+		int[] doubles = new int[10];
+		int[] ints = new int[10];
+
+		for (int t = 0; t < 100000; t++) {
+			double d = rng.nextDouble();
+
+			assertTrue(d >= 0.0 && d < 1.0);
+
+			doubles[(int) (d * 10)]++;
+			ints[rng.nextInt(10)]++;
+		}
+
+		for (int k = 0; k < 10; k++) {
+			assertTrue("double bin " + k + ": " + doubles[k], Math.abs(doubles[k] - 10000) < 500);
+			assertTrue("int bin " + k + ": " + ints[k], Math.abs(ints[k] - 10000) < 500);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.geom.Line2D;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks the batch {@link SegmentKernel} against the {@link Line2D} methods it stands in for.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class SegmentKernelTest {
+
+	/**
+	 * Random rays against random walls on a coarse grid, so that collinear and touching cases
+	 *   come up often. Intersections and distances must match Line2D exactly.
+	 */
+	@Test
+	public void agreesWithLine2DTest() {
+		Random rand = new Random(26029l);
+
+		int n = 64;
+		double[] wx1 = new double[n], wy1 = new double[n], wx2 = new double[n], wy2 = new double[n];
+		double[][] scratch = new double[4][n];
+		int[] hits = new int[n];
+
+		for (int trial = 0; trial < 2000; trial++) {
+			for (int k = 0; k < n; k++) {
+				wx1[k] = rand.nextInt(9) - 4; wy1[k] = rand.nextInt(9) - 4;
+				wx2[k] = rand.nextInt(9) - 4; wy2[k] = rand.nextInt(9) - 4;
+			}
+
+			double x1 = rand.nextInt(9) - 4, y1 = rand.nextInt(9) - 4;
+			double x2 = (trial % 2 == 0) ? rand.nextInt(9) - 4 : rand.nextDouble() * 8.0 - 4.0;
+			double y2 = (trial % 2 == 0) ? rand.nextInt(9) - 4 : rand.nextDouble() * 8.0 - 4.0;
+
+			int count = SegmentKernel.intersections(x1, y1, x2, y2, wx1, wy1, wx2, wy2, n, scratch, hits);
+
+			int h = 0;
+			boolean any = false;
+			for (int k = 0; k < n; k++) {
+				boolean expect = Line2D.linesIntersect(x1, y1, x2, y2, wx1[k], wy1[k], wx2[k], wy2[k]);
+				if (expect) {
+					assertEquals(k, hits[h++]);
+					any = true;
+				}
+
+				assertEquals(Line2D.ptSegDist(wx1[k], wy1[k], wx2[k], wy2[k], x1, y1),
+						SegmentKernel.ptSegDist(wx1[k], wy1[k], wx2[k], wy2[k], x1, y1), 0.0);
+			}
+
+			assertEquals(h, count);
+			assertEquals(any, SegmentKernel.intersectsAny(x1, y1, x2, y2, wx1, wy1, wx2, wy2, n, scratch));
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.Vector;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks {@link Selection} against the TreeMap ranking it replaced, and the bias of its rank and tournament picks.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class SelectionTest {
+
+	/**
+	 * The parent pool the old gen() built: a TreeMap of fitness to bugs, walked down from its last key.
+	 */
+	private static int[] treeTop(double[] fitness, int k) {
+		TreeMap<Double, Vector<Integer>> map = new TreeMap<Double, Vector<Integer>>();
+
+		for (int a = 0; a < fitness.length; a++) {
+			if (!map.containsKey(fitness[a])) {
+				map.put(fitness[a], new Vector<Integer>());
+			}
+			map.get(fitness[a]).add(a);
+		}
+
+		int[] pool = new int[k];
+		int a = 0;
+
+		for (Double key = map.lastKey(); a < k; key = map.lowerKey(key)) {
+			for (Integer b : map.get(key)) {
+				if (a < k) {
+					pool[a++] = b;
+				}
+			}
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Pools of every size, over populations with many ties, zeros and presorted runs, match the TreeMap's exactly.
+	 */
+	@Test
+	public void topTest() {
+		Random rand = new Random(26048l);
+
+		for (int t = 0; t < 200; t++) {
+			int n = 1 + rand.nextInt(t < 150 ? 100 : 5000);
+			int levels = 1 + rand.nextInt(50); // few levels, many ties.
+			double[] fitness = new double[n];
+
+			for (int a = 0; a < n; a++) {
+				fitness[a] = (t % 4 == 0) ? (double) a / n : (t % 4 == 1) ? (double) (n - a) / n
+						: rand.nextInt(levels) / (double) levels;
+			}
+
+			int k = 1 + rand.nextInt(n);
+
+			assertArrayEquals("trial " + t, treeTop(fitness, k), Selection.top(fitness, k));
+		}
+	}
+
+	/**
+	 * Rank picks stay in the pool, and fall off linearly: position 0 about k times as often as the last.
+	 */
+	@Test
+	public void rankTest() {
+		int k = 10;
+		int[] hits = new int[k];
+		Random rand = new Random(26048l);
+
+		for (int t = 0; t < 110000; t++) {
+			hits[Selection.rank(k, rand.nextDouble())]++;
+		}
+
+		assertEquals(0, Selection.rank(k, 0.0));
+		assertEquals(k - 1, Selection.rank(k, 1.0 - 1e-12));
+
+		for (int p = 0; p < k; p++) {
+			int expect = 2000 * (k - p); // weights k - p, out of k(k + 1) / 2 = 55.
+
+			assertTrue("position " + p + ": " + hits[p], Math.abs(hits[p] - expect) < expect / 5 + 100);
+		}
+	}
+
+	/**
+	 * Tournaments favour the fit: with distinct fitnesses, the fittest of three is above the median about seven
+	 *   times in eight.
+	 */
+	@Test
+	public void tournamentTest() {
+		int n = 1000;
+		double[] fitness = new double[n];
+
+		for (int a = 0; a < n; a++) {
+			fitness[a] = (a * 7919 % n) / (double) n; // distinct, shuffled.
+		}
+
+		int above = 0;
+		Random rand = new Random(26048l);
+
+		for (int t = 0; t < 8000; t++) {
+			int b = Selection.tournament(fitness, 3, rand);
+
+			assertTrue(b >= 0 && b < n);
+
+			if (fitness[b] >= 0.5) {
+				above++;
+			}
+		}
+
+		assertTrue("above median: " + above, above > 6600 && above < 7400);
+		assertEquals(0, Selection.tournament(new double[] {0.5}, 3, rand));
+	}
+}
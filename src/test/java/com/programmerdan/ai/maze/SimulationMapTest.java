@@ -251,6 +251,111 @@ public class SimulationMapTest {
 		}
 	}
 
+	/**
+	 * Fused path query test. Sweeps a grid over a maze from disk and checks that the single pass
+	 *   {@link SimulationMap#pathProgress(double, double)} agrees with the two separate path scans.
+	 */
+	@Test
+	public void pathProgressTest() {
+		SimulationMap map = new SimulationMap("./mazes/Curvy.maze"); // far threshold 10.0
+
+		double[] mapex = map.mapExtent();
+
+		for (double x = mapex[0]; x <= mapex[1]; x += 0.37) {
+			for (double y = mapex[2]; y <= mapex[3]; y += 0.37) {
+				double dpi = map.distToPathIdx(x, y);
+				double dtp = map.distToPath(x, y);
+
+				double prog = map.pathProgress(x, y);
+
+				assertEquals(dtp, map.getLastPathDist(), 0.0);
+				assertEquals(dpi, (map.getLastPathIdx() < 0) ? 0.0 : (double) map.getLastPathIdx() / map.getPaths().length, 0.0);
+
+				if (dtp > 10.0) dtp = 10.0;
+				if (dtp < map.getNearThreshold()) dtp = map.getNearThreshold();
+
+				assertEquals(dpi * (1.0 - (dtp - map.getNearThreshold()) / (10.0 - map.getNearThreshold())), prog, 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Distance field collision test. Random moves across a maze from disk must be foreshortened
+	 *   exactly the same with and without the distance field.
+	 */
+	@Test
+	public void distanceFieldMoveTest() {
+		SimulationMap exact = new SimulationMap("./mazes/Curvy.maze");
+		SimulationMap field = new SimulationMap("./mazes/Curvy.maze");
+		field.useDistanceField(0.25);
+
+		double[] mapex = exact.mapExtent();
+		java.util.Random rand = new java.util.Random(26027l);
+
+		for (int i = 0; i < 20000; i++) {
+			double x = mapex[0] + rand.nextDouble() * (mapex[1] - mapex[0]);
+			double y = mapex[2] + rand.nextDouble() * (mapex[3] - mapex[2]);
+			double t = rand.nextDouble() * 2.0 * Math.PI;
+			double r = rand.nextDouble() * 2.0;
+
+			SimpleLine a = exact.fixMove(new SimpleLine(x, y, x + r * Math.cos(t), y + r * Math.sin(t)));
+			SimpleLine b = field.fixMove(new SimpleLine(x, y, x + r * Math.cos(t), y + r * Math.sin(t)));
+
+			assertEquals(a.x2(), b.x2(), 0.0);
+			assertEquals(a.y2(), b.y2(), 0.0);
+		}
+	}
+
+	/**
+	 * Neighbor list test. A random walk through a maze from disk must see the same walls and be
+	 *   stopped by the same walls whether every wall is tested or only the walls in a {@link WallCandidates}.
+	 */
+	@Test
+	public void wallCandidatesTest() {
+		SimulationMap map = new SimulationMap("./mazes/Curvy.maze");
+		WallCandidates near = new WallCandidates();
+		java.util.Random rand = new java.util.Random(26028l);
+
+		SimpleLine[] rays = new SimpleLine[] {new SimpleLine(), new SimpleLine(), new SimpleLine()};
+		double[] raytheta = new double[] { Math.toRadians( 15.0 ), 0.0, - Math.toRadians( 15.0 ) };
+
+		double x = map.getStartX();
+		double y = map.getStartY();
+		double t = 0.0;
+
+		for (int step = 0; step < 5000; step++) {
+			t += rand.nextDouble() - 0.5;
+
+			for (int i = 0; i < rays.length; i++) {
+				rays[i].setX1(x);
+				rays[i].setY1(y);
+				rays[i].setX2( x + 8.0 * Math.cos( t + raytheta[i] ) );
+				rays[i].setY2( y + 8.0 * Math.sin( t + raytheta[i] ) );
+			}
+
+			double[] all = map.nearestWalls(rays).clone();
+			int[] allIdx = map.getLastWallIdx().clone();
+			double[] some = map.nearestWalls(rays, near);
+
+			for (int i = 0; i < rays.length; i++) {
+				assertEquals(all[i], some[i], 0.0);
+				assertEquals(allIdx[i], map.getLastWallIdx()[i]);
+			}
+
+			double r = rand.nextDouble();
+			SimpleLine a = map.fixMove(new SimpleLine(x, y, x + r * Math.cos(t), y + r * Math.sin(t)));
+			SimpleLine b = map.fixMove(new SimpleLine(x, y, x + r * Math.cos(t), y + r * Math.sin(t)), near);
+
+			assertEquals(a.x2(), b.x2(), 0.0);
+			assertEquals(a.y2(), b.y2(), 0.0);
+
+			x = a.x2();
+			y = a.y2();
+		}
+
+		log.info("Neighbor list rebuilt {} times in 5000 steps", near.getRebuilds());
+	}
+
 	/**
 	 * TODO: Placeholder for more tests.
 	 */
@@ -0,0 +1,113 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Appends generations to a {@link StatisticsStore} and checks its queries against the values appended.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class StatisticsStoreTest {
+
+	private static File tempDir() throws IOException {
+		File dir = File.createTempFile("stats", ".stats");
+		dir.delete();
+		return dir;
+	}
+
+	private static void delete(File dir) {
+		for (File f : dir.listFiles()) {
+			f.delete();
+		}
+		dir.delete();
+	}
+
+	/**
+	 * Every value must come back after the store is reopened, past the point where the columns grow, and range,
+	 *   rolling average, min and max must agree with sums over the appended values.
+	 */
+	@Test
+	public void queryTest() throws IOException {
+		Random rand = new Random(26039l);
+		String[] titles = new String[] {"Curvy", "Straight"};
+		int n = 1500;
+
+		double[][] maxFit = new double[n][titles.length];
+		long[][] minStep = new long[n][titles.length];
+
+		File dir = tempDir();
+		StatisticsStore store = StatisticsStore.open(dir, titles);
+
+		for (int g = 0; g < n; g++) {
+			double[][] fitness = new double[3][titles.length];
+			long[] steps = new long[titles.length];
+
+			for (int i = 0; i < titles.length; i++) {
+				fitness[1][i] = maxFit[g][i] = rand.nextDouble();
+				steps[i] = minStep[g][i] = rand.nextInt(5000);
+			}
+
+			store.append(new GenerationSnapshot(g * 2, 0L, titles, new Chromosome[7], null, -1, null,
+					fitness, new double[3][titles.length], steps, new long[titles.length], new double[titles.length]));
+		}
+
+		store.close();
+
+		store = StatisticsStore.open(dir);
+		assertEquals(n, store.size());
+		assertEquals("Straight", store.getTitles()[1]);
+		assertEquals(20l, store.generation(10));
+		assertEquals(10, store.rowOf(20));
+		assertEquals(-1, store.rowOf(21));
+		assertEquals(7.0, store.get(StatisticsSink.Metric.ACTORS, 1, n - 1), 0.0);
+
+		double[] range = store.range(StatisticsSink.Metric.MAX_FITNESS, 1, 100, 1200);
+		double[] steps = store.range(StatisticsSink.Metric.MIN_STEP, 0, 100, 1200);
+		for (int r = 100; r < 1200; r++) {
+			assertEquals(maxFit[r][1], range[r - 100], 0.0);
+			assertEquals((double) minStep[r][0], steps[r - 100], 0.0);
+		}
+
+		int window = 25;
+		double[] rolling = store.rollingAverage(StatisticsSink.Metric.MAX_FITNESS, 0, 10, 300, window);
+		for (int r = 10; r < 300; r++) {
+			double sum = 0.0;
+			int count = 0;
+			for (int k = Math.max(0, r - window + 1); k <= r; k++) {
+				sum += maxFit[k][0];
+				count++;
+			}
+			assertEquals(sum / count, rolling[r - 10], 1e-12);
+		}
+
+		double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+		for (int r = 500; r < 900; r++) {
+			min = Math.min(min, minStep[r][1]);
+			max = Math.max(max, minStep[r][1]);
+		}
+		assertEquals(min, store.min(StatisticsSink.Metric.MIN_STEP, 1, 500, 900), 0.0);
+		assertEquals(max, store.max(StatisticsSink.Metric.MIN_STEP, 1, 500, 900), 0.0);
+
+		store.close();
+
+		try {
+			StatisticsStore.open(dir, new String[] {"Curvy"});
+			fail("Opened a store for other mazes.");
+		} catch (IOException expected) {
+			assertTrue(expected.getMessage().contains("other mazes"));
+		}
+
+		delete(dir);
+	}
+}
@@ -0,0 +1,218 @@
+package com.programmerdan.ai.maze;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Records random walks with a {@link TrajectoryRecorder} and checks that {@link TrajectoryReplay} plays, seeks and
+ *   filters them back to the positions recorded.
+ *
+ * @version 1.0 October 19, 2026
+ *   Initial version.
+ */
+@RunWith(JUnit4.class)
+public class TrajectoryTest {
+
+	private static final int BUGS = 5;
+	private static final int MAZES = 2;
+	private static final int STEPS = 700;
+
+	/**
+	 * Walks every bug through every maze, mostly in small moves with the odd jump too far for a delta. Bug 3 is only
+	 *   sampled every 7 steps and bug 4 stops being sampled at step 100. Returns the expected grid positions per step,
+	 *   bug and maze, or Integer.MIN_VALUE before a bug's first sample.
+	 */
+	private static int[][][][] record(TrajectoryRecorder rec, File fn, String[] titles) throws IOException {
+		Random rand = new Random(26041l);
+		double q = rec.getQuantum();
+
+		SimpleLine[][] walls = new SimpleLine[][] {
+				{new SimpleLine(0, 0, 10, 0), new SimpleLine(10, 0, 10, 10)},
+				{new SimpleLine(0, 0, 20, 5)}};
+		SimpleLine[][] paths = new SimpleLine[][] {{new SimpleLine(1, 1, 9, 9)}, {}};
+
+		rec.begin(3, titles, BUGS, walls, paths, fn);
+		rec.setSampling(3, 7);
+
+		int[][][][] expect = new int[STEPS][BUGS][MAZES][];
+		double[][] x = new double[BUGS][MAZES];
+		double[][] y = new double[BUGS][MAZES];
+
+		for (int s = 0; s < STEPS; s++) {
+			if (s == 100) {
+				rec.setSampling(4, 0);
+			}
+
+			for (int i = 0; i < BUGS; i++) {
+				for (int j = 0; j < MAZES; j++) {
+					if (rand.nextInt(200) == 0) {
+						x[i][j] += 1000.0 * (rand.nextDouble() - 0.5);
+					} else {
+						x[i][j] += rand.nextDouble() - 0.5;
+					}
+					y[i][j] += rand.nextDouble() - 0.5;
+
+					int[] last = (s > 0) ? expect[s - 1][i][j] : null;
+
+					if (rec.samples(s, i)) {
+						expect[s][i][j] = new int[] {(int) Math.round(x[i][j] / q), (int) Math.round(y[i][j] / q)};
+					} else {
+						expect[s][i][j] = last;
+					}
+
+					rec.record(s, i, j, x[i][j], y[i][j]);
+				}
+			}
+
+			rec.endStep();
+		}
+
+		rec.close();
+
+		return expect;
+	}
+
+	private static void check(TrajectoryReplay replay, int[][][][] expect, int s) {
+		for (int i = 0; i < BUGS; i++) {
+			for (int j = 0; j < MAZES; j++) {
+				int[] e = expect[s][i][j];
+
+				if (!replay.isSelected(i, j) || e == null) {
+					assertFalse("bug " + i + " maze " + j + " step " + s, replay.isKnown(i, j));
+				} else {
+					assertTrue("bug " + i + " maze " + j + " step " + s, replay.isKnown(i, j));
+					assertEquals(e[0] * TrajectoryRecorder.DEFAULT_QUANTUM, replay.getX(i, j), 0.0);
+					assertEquals(e[1] * TrajectoryRecorder.DEFAULT_QUANTUM, replay.getY(i, j), 0.0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Plays straight through, then by uneven strides, then seeks to steps either side of keyframes and back again,
+	 *   then plays back only some bugs and mazes; every position must be the one recorded.
+	 */
+	@Test
+	public void replayTest() throws IOException {
+		String[] titles = new String[] {"Square", "Slope"};
+		File fn = File.createTempFile("trajectory", ".traj");
+
+		TrajectoryRecorder rec = new TrajectoryRecorder(TrajectoryRecorder.Mode.FILE, 1, 0, 100,
+				TrajectoryRecorder.DEFAULT_QUANTUM);
+		int[][][][] expect = record(rec, fn, titles);
+
+		TrajectoryReplay replay = TrajectoryReplay.open(fn);
+
+		assertEquals(3, replay.getGeneration());
+		assertEquals("Slope", replay.getTitles()[1]);
+		assertEquals(BUGS, replay.getBugs());
+		assertEquals(2, replay.getWalls(0).length);
+		assertEquals(20.0, replay.getWalls(1)[0].x2(), 0.0);
+		assertEquals(9.0, replay.getPaths(0)[0].y2(), 0.0);
+		assertEquals(0, replay.getPaths(1).length);
+		assertEquals(0, replay.getFirstStep());
+		assertEquals(STEPS - 1, replay.getLastStep());
+
+		for (int s = 0; s < STEPS; s++) {
+			replay.advanceTo(s);
+			check(replay, expect, s);
+		}
+		assertTrue(replay.isFinished());
+
+		replay.seek(0);
+		for (int s = 0; s < STEPS; s += 37) {
+			replay.advanceTo(s);
+			check(replay, expect, s);
+		}
+
+		int[] seeks = new int[] {650, 99, 100, 101, 0, 399, 400, 250, 699, 1};
+		for (int s : seeks) {
+			replay.seek(s);
+			check(replay, expect, s);
+		}
+
+		replay.selectBugs(new int[] {1, 3});
+		replay.selectMazes(new int[] {1});
+		replay.seek(333);
+		check(replay, expect, 333);
+		replay.advanceTo(520);
+		check(replay, expect, 520);
+
+		replay.setBugSelected(4, true);
+		replay.setMazeSelected(0, true);
+		check(replay, expect, 520);
+
+		replay.close();
+		fn.delete();
+	}
+
+	/**
+	 * A header too long for the first read, here 3000 walls, is read in full before the frames are indexed.
+	 */
+	@Test
+	public void longHeaderTest() throws IOException {
+		File fn = File.createTempFile("trajectory", ".traj");
+		SimpleLine[] walls = new SimpleLine[3000];
+
+		for (int w = 0; w < walls.length; w++) {
+			walls[w] = new SimpleLine(w, 0, w, 1);
+		}
+
+		TrajectoryRecorder rec = new TrajectoryRecorder(TrajectoryRecorder.Mode.FILE, 1, 0, 100,
+				TrajectoryRecorder.DEFAULT_QUANTUM);
+		rec.begin(4, new String[] {"Comb"}, 1, new SimpleLine[][] {walls}, new SimpleLine[][] {{}}, fn);
+
+		for (int s = 0; s < 3; s++) {
+			rec.record(s, 0, 0, s, 0.5);
+			rec.endStep();
+		}
+
+		rec.close();
+
+		TrajectoryReplay replay = TrajectoryReplay.open(fn);
+
+		assertEquals(3000, replay.getWalls(0).length);
+		assertEquals(2999.0, replay.getWalls(0)[2999].x1(), 0.0);
+
+		replay.seek(2);
+		assertTrue(replay.isKnown(0, 0));
+		assertEquals(2.0, replay.getX(0, 0), 0.0);
+
+		replay.close();
+		fn.delete();
+	}
+
+	/**
+	 * A ring keeps each bug's latest samples, oldest first.
+	 */
+	@Test
+	public void ringTest() throws IOException {
+		String[] titles = new String[] {"Square", "Slope"};
+
+		TrajectoryRecorder rec = new TrajectoryRecorder(TrajectoryRecorder.Mode.RING, 1, 16, 0,
+				TrajectoryRecorder.DEFAULT_QUANTUM);
+		int[][][][] expect = record(rec, null, titles);
+
+		double[] xy = new double[32];
+
+		assertEquals(16, rec.ringSize(0, 1));
+		assertEquals(16, rec.ring(0, 1, xy));
+		for (int k = 0; k < 16; k++) {
+			int[] e = expect[STEPS - 16 + k][0][1];
+			assertEquals(e[0] * TrajectoryRecorder.DEFAULT_QUANTUM, xy[k * 2], 0.0);
+			assertEquals(e[1] * TrajectoryRecorder.DEFAULT_QUANTUM, xy[k * 2 + 1], 0.0);
+		}
+
+		// bug 4 stopped being sampled at step 100; its ring ends at step 99.
+		rec.ring(4, 0, xy);
+		assertEquals(expect[99][4][0][0] * TrajectoryRecorder.DEFAULT_QUANTUM, xy[30], 0.0);
+	}
+}